@@ -0,0 +1,32 @@
+package com.unlucky.battle;
+
+import com.unlucky.entity.Player;
+import com.unlucky.event.Battle;
+
+/**
+ * Decides the player's actions when a battle is played automatically
+ *
+ * @author Ming Li
+ */
+public interface BattlePolicy {
+
+    /**
+     * Returns the index of the move in the player's current moveset to use
+     *
+     * @param player
+     * @param battle
+     * @return
+     */
+    int chooseMove(Player player, Battle battle);
+
+    /**
+     * Returns true if the player should use the special move that is currently available
+     *
+     * @param player
+     * @param battle
+     * @param smove
+     * @return
+     */
+    boolean useSpecialMove(Player player, Battle battle, SpecialMove smove);
+
+}
@@ -0,0 +1,993 @@
+package com.unlucky.battle;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntFloatMap;
+import com.unlucky.entity.Player;
+import com.unlucky.entity.enemy.Boss;
+import com.unlucky.entity.enemy.Enemy;
+import com.unlucky.event.Battle;
+import com.unlucky.resource.ResourceManager;
+import com.unlucky.resource.Util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Calculates the odds of the player winning the current battle
+ *
+ * The battle is modeled as a Markov chain over (player hp, enemy hp, pending heal damage reductions)
+ * where hp is grouped into at most GRID buckets per side. Every turn both sides draw a random moveset
+ * from their real move pools and the chain is solved with Gauss-Seidel value iteration for the win
+ * probability and the expected number of turns. The player is assumed to use the highest expected
+ * damage move in its moveset or a heal when below 20% hp. The enemy follows the same rules as the
+ * battle engine including elite/boss move priorities and boss passives.
+ *
+ * The first turn is evaluated exactly in hp units using the player's current moveset and the
+ * active special move buffs. The value tables only depend on the stats of both sides so they are
+ * memoized for the whole battle and each turn only costs a lookup.
+ *
+ * Solving happens on a worker thread and results are cached by a hash of the battle state.
+ *
+ * @author Ming Li
+ */
+public class BattleSolver {
+
+    // max number of hp buckets per side
+    private static final int GRID = 24;
+    // time budget of one solve in nanoseconds
+    private static final long BUDGET = 4000000L;
+    private static final float WIN_TOLERANCE = 1e-3f;
+    private static final float TURN_TOLERANCE = 1e-2f;
+    private static final int MAX_SWEEPS = 1000;
+    private static final int TABLE_CACHE_SIZE = 8;
+    private static final int ODDS_CACHE_SIZE = 64;
+
+    // elites, bosses and the player prioritize moves below this hp percentage
+    private static final int LOW_HP = 20;
+    // ice golem lifesteal passive
+    private static final float LIFESTEAL = 0.2f;
+    // red reaper accuracy debuff passive
+    private static final int PHANTOM_PRESENCE = 40;
+
+    // pending damage reduction flags
+    // the player healed so the enemy's next attack is reduced
+    private static final int PRED = 1;
+    // the enemy healed so the player's next attack is reduced
+    private static final int ERED = 2;
+
+    /**
+     * The result of a solve
+     */
+    public static class Odds {
+
+        // probability of the player winning from 0 to 1
+        public final float win;
+        // expected number of turns until the battle ends
+        public final float expectedTurns;
+        // false if the solve ran out of its time budget before converging
+        public final boolean converged;
+
+        public Odds(float win, float expectedTurns, boolean converged) {
+            this.win = win;
+            this.expectedTurns = expectedTurns;
+            this.converged = converged;
+        }
+
+    }
+
+    private ResourceManager rm;
+
+    // memoized value tables keyed by the stats of both sides
+    private final Map<Long, Table> tables = new LruMap<Table>(TABLE_CACHE_SIZE);
+    // results keyed by the full battle state
+    private final Map<Long, Odds> cache = new LruMap<Odds>(ODDS_CACHE_SIZE);
+
+    private ExecutorService worker;
+    private volatile long requestedKey;
+    private volatile Odds latest;
+
+    // only used on the solving thread
+    private final Move scratch = new Move();
+
+    public BattleSolver(ResourceManager rm) {
+        this.rm = rm;
+    }
+
+    /**
+     * Starts calculating the odds of the current battle state in the background
+     * The result can be polled with getOdds()
+     *
+     * @param player
+     * @param enemy
+     * @param battle
+     */
+    public void request(Player player, Enemy enemy, Battle battle) {
+        final State state = snapshot(player, enemy, battle);
+        requestedKey = state.key;
+
+        Odds cached;
+        synchronized (cache) {
+            cached = cache.get(state.key);
+        }
+        latest = cached;
+        if (cached != null) return;
+
+        if (worker == null) {
+            worker = Executors.newSingleThreadExecutor(new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable r) {
+                    Thread t = new Thread(r, "battle-solver");
+                    t.setDaemon(true);
+                    return t;
+                }
+            });
+        }
+        worker.execute(new Runnable() {
+            @Override
+            public void run() {
+                // a newer state was requested before this one started
+                if (state.key != requestedKey) return;
+                Odds odds = solve(state);
+                if (state.key == requestedKey) latest = odds;
+            }
+        });
+    }
+
+    /**
+     * Returns the odds of the last requested battle state
+     * Returns null if it's still being calculated
+     *
+     * @return
+     */
+    public Odds getOdds() {
+        return latest;
+    }
+
+    /**
+     * Calculates the odds of the current battle state on the calling thread
+     *
+     * @param player
+     * @param enemy
+     * @param battle
+     * @return
+     */
+    public Odds solveNow(Player player, Enemy enemy, Battle battle) {
+        return solve(snapshot(player, enemy, battle));
+    }
+
+    public void dispose() {
+        if (worker != null) worker.shutdownNow();
+        worker = null;
+    }
+
+    /**
+     * Copies everything the solver needs from the battle so it can be solved on another thread
+     */
+    private State snapshot(Player player, Enemy enemy, Battle battle) {
+        State s = new State();
+
+        s.php = player.getHp();
+        s.pmaxHp = player.getMaxHp();
+        s.pminDmg = Math.min(player.getMinDamage(), player.getMaxDamage());
+        s.pmaxDmg = Math.max(player.getMinDamage(), player.getMaxDamage());
+        s.bossId = enemy.isBoss() ? ((Boss) enemy).bossId : -1;
+        s.pacc = player.getAccuracy() - (s.bossId == 1 ? PHANTOM_PRESENCE : 0);
+        s.ppool = rm.movePool;
+        s.hand = new Move[4];
+        for (int i = 0; i < 4; i++) {
+            s.hand[i] = new Move();
+            s.hand[i].set(player.getMoveset().moveset[i]);
+        }
+
+        s.emaxHp = enemy.getMaxHp();
+        s.eminDmg = Math.min(enemy.getMinDamage(), enemy.getMaxDamage());
+        s.emaxDmg = Math.max(enemy.getMinDamage(), enemy.getMaxDamage());
+        s.eacc = enemy.getAccuracy();
+        s.prioritize = enemy.isBoss() || enemy.isElite();
+        s.ehp = enemy.getHp();
+        if (s.bossId == 0) s.lives = 3 - enemy.numRespawn;
+        if (enemy.isBoss()) {
+            Array<Move> pool = rm.bossMoves.get(s.bossId);
+            s.epool = new Move[pool.size];
+            for (int i = 0; i < pool.size; i++) s.epool[i] = pool.get(i);
+            s.replacement = true;
+        }
+        else {
+            s.epool = rm.movePool;
+        }
+
+        s.playerRed = battle.playerRed;
+        s.enemyRed = battle.enemyRed;
+        s.buffs = new boolean[battle.buffs.length];
+        System.arraycopy(battle.buffs, 0, s.buffs, 0, s.buffs.length);
+        s.psacrifice = battle.buffs[Util.SACRIFICE] ? battle.psacrifice : 0;
+        if (battle.buffs[Util.SHIELD]) s.shield = (int) ((Util.P_SHIELD / 100f) * (float) player.getMaxHp());
+        else if (player.isHasShield()) s.shield = player.getShield();
+
+        long h = 17;
+        h = mix(h, s.pmaxHp);
+        h = mix(h, s.pminDmg);
+        h = mix(h, s.pmaxDmg);
+        h = mix(h, s.pacc);
+        h = mix(h, s.eminDmg);
+        h = mix(h, s.emaxDmg);
+        h = mix(h, s.bossId);
+        h = mix(h, s.prioritize ? 1 : 0);
+        s.tableKey = h;
+        h = mix(h, s.emaxHp);
+        h = mix(h, s.lives);
+
+        h = mix(h, s.php);
+        h = mix(h, s.ehp);
+        h = mix(h, s.playerRed);
+        h = mix(h, s.enemyRed);
+        for (int i = 0; i < s.buffs.length; i++) h = mix(h, s.buffs[i] ? 1 : 0);
+        h = mix(h, Float.floatToIntBits(s.psacrifice));
+        h = mix(h, s.shield);
+        if (s.buffs[Util.DISTRACT]) h = mix(h, s.eacc);
+        for (int i = 0; i < 4; i++) {
+            Move m = s.hand[i];
+            h = mix(h, m.type);
+            h = mix(h, Float.floatToIntBits(m.minDamage));
+            h = mix(h, Float.floatToIntBits(m.maxDamage));
+            h = mix(h, Float.floatToIntBits(m.minHeal));
+            h = mix(h, Float.floatToIntBits(m.maxHeal));
+            h = mix(h, m.crit);
+            h = mix(h, m.dmgReduction);
+        }
+        s.key = h;
+
+        return s;
+    }
+
+    private Odds solve(State s) {
+        Odds odds;
+        synchronized (cache) {
+            odds = cache.get(s.key);
+        }
+        if (odds != null) return odds;
+
+        synchronized (tables) {
+            odds = solveFirstTurn(s, getTable(s, s.emaxHp, s.lives));
+        }
+
+        synchronized (cache) {
+            cache.put(s.key, odds);
+        }
+        return odds;
+    }
+
+    /**
+     * Returns the memoized value table of an enemy life or builds it
+     * King slime's remaining lives are chained so that killing one life continues into the next
+     *
+     * @param emaxHp max hp of the enemy's current life
+     * @param lives number of respawns left
+     */
+    private Table getTable(State s, int emaxHp, int lives) {
+        long key = mix(mix(s.tableKey, emaxHp), lives);
+        Table t = tables.get(key);
+        if (t == null) {
+            Table next = lives > 0 ? getTable(s, emaxHp / 2, lives - 1) : null;
+            t = buildTable(s, emaxHp, next);
+            tables.put(key, t);
+        }
+        return t;
+    }
+
+    /**
+     * Builds the transition outcomes of both sides and solves the value tables
+     */
+    private Table buildTable(State s, int emaxHp, Table next) {
+        long start = System.nanoTime();
+
+        Table t = new Table();
+        t.np = Math.max(1, Math.min(GRID, s.pmaxHp));
+        t.ne = Math.max(1, Math.min(GRID, emaxHp));
+        t.stepP = Math.max(1, s.pmaxHp) / (float) t.np;
+        t.stepE = Math.max(1, emaxHp) / (float) t.ne;
+        t.emaxHp = emaxHp;
+        t.next = next;
+        t.lowP = (int) ((LOW_HP / 100f) * t.np);
+        t.lowE = (int) ((LOW_HP / 100f) * t.ne);
+        t.prioritize = s.prioritize;
+
+        buildPlayerOutcomes(s, t);
+        buildEnemyOutcomes(s, t, emaxHp);
+
+        // a killed life either wins the battle or continues into the next life at the enemy's turn
+        float[] nextWin = next != null ? next.uwin : null;
+        float[] nextTurns = next != null ? next.uturns : null;
+        int nextStride = next != null ? (next.ne + 1) * 4 : 0;
+        int nextFull = next != null ? next.ne * 4 : 0;
+
+        int size = (t.np + 1) * (t.ne + 1) * 4;
+        t.win = new float[size];
+        t.turns = new float[size];
+        t.uwin = new float[size];
+        t.uturns = new float[size];
+
+        int np = t.np, ne = t.ne, lowP = t.lowP;
+        int stride = (ne + 1) * 4;
+        float[] win = t.win, turns = t.turns, uwin = t.uwin, uturns = t.uturns;
+        for (int sweep = 0; sweep < MAX_SWEEPS; sweep++) {
+            float dw = 0, dt = 0;
+            for (int p = 1; p <= np; p++) {
+                Outcomes[] player = t.player[p <= lowP ? 1 : 0];
+                for (int e = 1; e <= ne; e++) {
+                    Outcomes[] enemy = t.enemy[t.regime(p, e)];
+                    int cell = p * stride + e * 4;
+                    for (int f = 0; f < 4; f++) {
+                        Outcomes q = enemy[(f & PRED) != 0 ? 1 : 0];
+                        int[] dp = q.dp, de = q.de, set = q.set, clear = q.clear;
+                        float[] prob = q.p;
+                        float w = 0, tt = 0;
+                        for (int i = 0; i < q.size; i++) {
+                            int p2 = p + dp[i];
+                            // player died
+                            if (p2 <= 0) continue;
+                            if (p2 > np) p2 = np;
+                            int e2 = e + de[i];
+                            if (e2 > ne) e2 = ne;
+                            int idx = p2 * stride + e2 * 4 + ((f & ~clear[i]) | set[i]);
+                            w += prob[i] * win[idx];
+                            tt += prob[i] * turns[idx];
+                        }
+                        uwin[cell + f] = w;
+                        uturns[cell + f] = tt;
+                    }
+                    for (int f = 0; f < 4; f++) {
+                        Outcomes o = player[(f & ERED) != 0 ? 1 : 0];
+                        int[] dp = o.dp, de = o.de, set = o.set, clear = o.clear;
+                        float[] prob = o.p;
+                        float w = 0, tt = 0;
+                        for (int i = 0; i < o.size; i++) {
+                            int p2 = p + dp[i];
+                            if (p2 > np) p2 = np;
+                            int e2 = e + de[i];
+                            // enemy died
+                            if (e2 <= 0) {
+                                if (nextWin == null) w += prob[i];
+                                else {
+                                    int idx = p2 * nextStride + nextFull + ((f & ~clear[i]) | set[i]);
+                                    w += prob[i] * nextWin[idx];
+                                    tt += prob[i] * nextTurns[idx];
+                                }
+                                continue;
+                            }
+                            int idx = p2 * stride + e2 * 4 + ((f & ~clear[i]) | set[i]);
+                            w += prob[i] * uwin[idx];
+                            tt += prob[i] * uturns[idx];
+                        }
+                        tt += 1;
+                        int idx = cell + f;
+                        dw = Math.max(dw, Math.abs(w - win[idx]));
+                        dt = Math.max(dt, Math.abs(tt - turns[idx]));
+                        win[idx] = w;
+                        turns[idx] = tt;
+                    }
+                }
+            }
+            if (dw < WIN_TOLERANCE && dt < TURN_TOLERANCE) {
+                t.converged = true;
+                break;
+            }
+            if (System.nanoTime() - start > BUDGET) break;
+        }
+
+        return t;
+    }
+
+    /**
+     * Player outcomes in buckets indexed by [low hp][enemy heal reduction pending]
+     * Every turn the player gets 4 unique random moves and uses the one with the most expected damage,
+     * or a heal if below 20% hp
+     */
+    private void buildPlayerOutcomes(State s, Table t) {
+        Move[] pool = s.ppool;
+        int n = pool.length;
+
+        // damage moves sorted by expected damage
+        Array<Histogram> damage = new Array<Histogram>();
+        Histogram heal = new Histogram();
+        int numHeals = 0;
+        for (int i = 0; i < n; i++) {
+            if (pool[i].type == 3) {
+                scratch.set(pool[i]);
+                scratch.setHeal(s.pmaxHp);
+                addHeal(heal, scratch, 1);
+                numHeals++;
+            }
+            else {
+                damage.add(moveDamage(pool[i], s.pminDmg, s.pmaxDmg));
+            }
+        }
+        damage.sort();
+        int numDamage = damage.size;
+        if (numHeals > 0) heal.scale(1f / numHeals);
+
+        float acc = clamp(s.pacc) / 100f;
+        int enemyReduction = meanReduction(s.epool);
+        double hands = choose(n, 4);
+
+        t.player = new Outcomes[2][2];
+        for (int low = 0; low < 2; low++) {
+            Histogram chosen = new Histogram();
+            float healWeight;
+            for (int j = 0; j < numDamage; j++) {
+                // probability that the j-th best damage move is the best one in the moveset
+                double w = low == 0 ? choose(n - 1 - j, 3) / hands : choose(numDamage - 1 - j, 3) / hands;
+                if (w > 0) chosen.add(damage.get(j), (float) w);
+            }
+            if (low == 0) healWeight = (float) (choose(numHeals, 4) / hands);
+            else healWeight = (float) (1 - choose(numDamage, 4) / hands);
+
+            for (int ered = 0; ered < 2; ered++) {
+                Accumulator a = new Accumulator(t.stepP, t.stepE);
+                a.add(0, 0, 0, 0, 1 - acc);
+                a.addEnemyDamage(chosen, acc, ered == 1 ? enemyReduction : -1, ered == 1 ? ERED : 0);
+                a.addPlayerHeal(heal, acc * healWeight, PRED);
+                t.player[low][ered] = a.toOutcomes();
+            }
+        }
+    }
+
+    /**
+     * Enemy outcomes in buckets indexed by [move priority regime][player heal reduction pending]
+     */
+    private void buildEnemyOutcomes(State s, Table t, int emaxHp) {
+        EnemyMoves em = enemyMoves(s, emaxHp);
+        float acc = (Util.ENEMY_MIN_ACCURACY + Util.ENEMY_MAX_ACCURACY) / 200f;
+        int playerReduction = meanReduction(s.ppool);
+
+        t.enemy = new Outcomes[3][2];
+        for (int regime = 0; regime < 3; regime++) {
+            float healWeight = em.healWeight(regime, s.replacement);
+            for (int pred = 0; pred < 2; pred++) {
+                Accumulator a = new Accumulator(t.stepP, t.stepE);
+                a.add(0, 0, 0, 0, 1 - acc);
+                int red = pred == 1 ? playerReduction : -1;
+                int clear = pred == 1 ? PRED : 0;
+                a.addPlayerDamage(em.lifesteal, acc * (1 - healWeight), red, clear, 0, true);
+                a.addPlayerDamage(em.damage, acc * (1 - healWeight), red, clear, 0, false);
+                a.addEnemyHeal(em.heal, acc * healWeight, ERED, 1);
+                t.enemy[regime][pred] = a.toOutcomes();
+            }
+        }
+    }
+
+    /**
+     * Evaluates the current turn exactly with the player's moveset and buffs
+     * then continues with the memoized value tables
+     */
+    private Odds solveFirstTurn(State s, Table t) {
+        boolean[] buffs = s.buffs;
+        boolean invert = buffs[Util.INVERT];
+        boolean intimidate = buffs[Util.INTIMIDATE];
+        int critBonus = buffs[Util.FOCUS] ? Util.P_FOCUS_CRIT : 0;
+        float acc = buffs[Util.FOCUS] ? 1 : clamp(s.pacc) / 100f;
+
+        // choose the move the player is expected to use
+        boolean low = s.php <= (int) ((LOW_HP / 100f) * s.pmaxHp);
+        Move best = null;
+        float bestValue = -1;
+        for (int pass = 0; pass < 2 && best == null; pass++) {
+            // the first pass looks for heals when low
+            boolean wantHeal = low && pass == 0;
+            for (int i = 0; i < 4; i++) {
+                Move m = s.hand[i];
+                boolean heals = (m.type == 3) != invert;
+                if (wantHeal && !heals) continue;
+                Histogram h = new Histogram();
+                if (m.type == 3) addHeal(h, m, 1);
+                else addDamage(h, m, 1, intimidate, s.psacrifice, critBonus);
+                float value = heals && !wantHeal ? 0 : h.mean();
+                if (value > bestValue) {
+                    bestValue = value;
+                    best = m;
+                }
+            }
+        }
+
+        // player's action in hp units
+        Accumulator a = new Accumulator(1, 1);
+        a.add(0, 0, 0, 0, 1 - acc);
+        int healReduction = -1;
+        Histogram h = new Histogram();
+        if (best.type == 3) {
+            addHeal(h, best, 1);
+            // inverted heals do damage that can't be reduced
+            if (invert) a.addEnemyDamage(h, acc, -1, 0);
+            else {
+                a.addPlayerHeal(h, acc, PRED);
+                healReduction = best.dmgReduction;
+            }
+        }
+        else {
+            addDamage(h, best, 1, intimidate, s.psacrifice, critBonus);
+            // inverted damage moves heal without reducing the enemy's next attack
+            if (invert) a.addPlayerHeal(h, acc, 0);
+            else a.addEnemyDamage(h, acc, s.enemyRed, s.enemyRed != -1 ? ERED : 0);
+        }
+        Outcomes player = a.toOutcomes();
+
+        // enemy's response depends on its priority regime and the pending reduction
+        EnemyMoves em = enemyMoves(s, s.emaxHp);
+        Outcomes[][] enemy = new Outcomes[3][3];
+
+        int f0 = (s.playerRed != -1 ? PRED : 0) | (s.enemyRed != -1 ? ERED : 0);
+        float win = 0, turns = 0;
+        for (int i = 0; i < player.size; i++) {
+            int php = Math.min(s.php + player.dp[i], s.pmaxHp);
+            int f = (f0 & ~player.clear[i]) | player.set[i];
+            int ehp = s.ehp + player.de[i];
+            if (ehp <= 0) {
+                if (t.next == null) win += player.p[i];
+                else {
+                    win += player.p[i] * t.next.lookup(t.next.uwin, php, t.next.emaxHp, f);
+                    turns += player.p[i] * t.next.lookup(t.next.uturns, php, t.next.emaxHp, f);
+                }
+                continue;
+            }
+            ehp = Math.min(ehp, s.emaxHp);
+
+            int regime = 0;
+            if (s.prioritize) {
+                if (php <= (int) ((LOW_HP / 100f) * s.pmaxHp)) regime = 2;
+                else if (ehp <= (int) ((LOW_HP / 100f) * s.emaxHp)) regime = 1;
+            }
+            int red = 0;
+            if ((f & PRED) != 0) red = (player.set[i] & PRED) != 0 ? 2 : 1;
+            if (enemy[regime][red] == null) {
+                int reduction = red == 0 ? -1 : (red == 2 ? healReduction : s.playerRed);
+                enemy[regime][red] = firstEnemyTurn(s, em, regime, reduction);
+            }
+            Outcomes q = enemy[regime][red];
+
+            float w = 0, tt = 0;
+            for (int j = 0; j < q.size; j++) {
+                int php2 = php + q.dp[j];
+                if (php2 <= 0) continue;
+                php2 = Math.min(php2, s.pmaxHp);
+                int ehp2 = Math.min(ehp + q.de[j], s.emaxHp);
+                int f2 = (f & ~q.clear[j]) | q.set[j];
+                // killed by reflected damage
+                if (ehp2 <= 0) {
+                    if (t.next == null) w += q.p[j];
+                    else {
+                        w += q.p[j] * t.next.lookup(t.next.win, php2, t.next.emaxHp, f2);
+                        tt += q.p[j] * t.next.lookup(t.next.turns, php2, t.next.emaxHp, f2);
+                    }
+                    continue;
+                }
+                w += q.p[j] * t.lookup(t.win, php2, ehp2, f2);
+                tt += q.p[j] * t.lookup(t.turns, php2, ehp2, f2);
+            }
+            win += player.p[i] * w;
+            turns += player.p[i] * tt;
+        }
+
+        return new Odds(Math.min(1, win), 1 + turns, t.converged);
+    }
+
+    /**
+     * Enemy outcomes in hp units for the current turn with the effects of the player's special moves
+     */
+    private Outcomes firstEnemyTurn(State s, EnemyMoves em, int regime, int reduction) {
+        boolean[] buffs = s.buffs;
+        Accumulator a = new Accumulator(1, 1);
+
+        // the enemy might be stunned and skip its turn
+        float move = 1;
+        if (buffs[Util.STUN]) {
+            float stun = Util.P_STUN / 100f;
+            a.add(0, 0, 0, 0, stun);
+            move -= stun;
+        }
+
+        float acc = buffs[Util.DISTRACT] ? clamp(s.eacc - Util.P_DISTRACT) / 100f
+            : (Util.ENEMY_MIN_ACCURACY + Util.ENEMY_MAX_ACCURACY) / 200f;
+        a.add(0, 0, 0, 0, move * (1 - acc));
+        float hit = move * acc;
+
+        if (buffs[Util.REFLECT]) {
+            // elites and bosses counter reflect by prioritizing heals
+            float healWeight = em.healWeight(s.prioritize ? 1 : regime, s.replacement);
+            a.addEnemySelfDamage(em.lifesteal, hit * (1 - healWeight));
+            a.addEnemySelfDamage(em.damage, hit * (1 - healWeight));
+            // reflected heals are doubled
+            a.addEnemyHeal(em.heal, hit * healWeight, ERED, 2);
+        }
+        else {
+            float healWeight = em.healWeight(regime, s.replacement);
+            int clear = reduction != -1 ? PRED : 0;
+            a.addPlayerDamage(em.lifesteal, hit * (1 - healWeight), reduction, clear, s.shield, true);
+            a.addPlayerDamage(em.damage, hit * (1 - healWeight), reduction, clear, s.shield, false);
+            a.addEnemyHeal(em.heal, hit * healWeight, ERED, 1);
+        }
+
+        return a.toOutcomes();
+    }
+
+    /**
+     * Damage and heal distributions of a random move from the enemy's pool
+     */
+    private EnemyMoves enemyMoves(State s, int emaxHp) {
+        EnemyMoves em = new EnemyMoves();
+        Move[] pool = s.epool;
+        int numDamage = 0;
+        for (int i = 0; i < pool.length; i++) {
+            if (pool[i].type == 3) {
+                scratch.set(pool[i]);
+                scratch.setHeal(emaxHp);
+                addHeal(em.heal, scratch, 1);
+                em.numHeals++;
+            }
+            else {
+                // ice golem heals off its accurate moves
+                Histogram target = s.bossId == 2 && pool[i].type == 0 ? em.lifesteal : em.damage;
+                target.add(moveDamage(pool[i], s.eminDmg, s.emaxDmg), 1);
+                numDamage++;
+            }
+        }
+        em.n = pool.length;
+        if (em.numHeals > 0) em.heal.scale(1f / em.numHeals);
+        if (numDamage > 0) {
+            em.damage.scale(1f / numDamage);
+            em.lifesteal.scale(1f / numDamage);
+        }
+        return em;
+    }
+
+    /**
+     * Returns the damage distribution of a move over every damage seed of an entity
+     */
+    private Histogram moveDamage(Move template, int minSeed, int maxSeed) {
+        Histogram h = new Histogram();
+        float w = 1f / (maxSeed - minSeed + 1);
+        for (int seed = minSeed; seed <= maxSeed; seed++) {
+            scratch.set(template);
+            scratch.setDamage(seed);
+            addDamage(h, scratch, w, false, 0, 0);
+        }
+        return h;
+    }
+
+    /**
+     * Adds the damage distribution of a scaled move to a histogram
+     * Follows the order of operations in Battle.handleMove
+     */
+    private static void addDamage(Histogram h, Move m, float weight, boolean intimidate, float sacrifice, int critBonus) {
+        if (m.type < 2) {
+            int lo = Math.round(m.minDamage);
+            int hi = Math.max(lo, Math.round(m.maxDamage));
+            float w = weight / (hi - lo + 1);
+            for (int d = lo; d <= hi; d++) h.add(modify(d, intimidate, sacrifice), w);
+        }
+        else if (m.type == 2) {
+            int d = modify(Math.round(m.minDamage), intimidate, sacrifice);
+            float crit = clamp(m.crit + critBonus) / 100f;
+            h.add(d * Util.CRIT_MULTIPLIER, weight * crit);
+            h.add(d, weight * (1 - crit));
+        }
+    }
+
+    private static void addHeal(Histogram h, Move m, float weight) {
+        int lo = Math.round(m.minHeal);
+        int hi = Math.max(lo, Math.round(m.maxHeal));
+        float w = weight / (hi - lo + 1);
+        for (int d = lo; d <= hi; d++) h.add(d, w);
+    }
+
+    private static int modify(int damage, boolean intimidate, float sacrifice) {
+        if (intimidate) damage *= Util.INTIMIDATE_MULT;
+        if (sacrifice != 0) damage *= sacrifice;
+        return damage;
+    }
+
+    private static int meanReduction(Move[] pool) {
+        int sum = 0, count = 0;
+        for (int i = 0; i < pool.length; i++) {
+            if (pool[i].type == 3) {
+                sum += pool[i].dmgReduction;
+                count++;
+            }
+        }
+        return count == 0 ? 0 : Math.round(sum / (float) count);
+    }
+
+    private static int clamp(int percent) {
+        return Math.max(0, Math.min(100, percent));
+    }
+
+    private static double choose(int n, int k) {
+        if (k < 0 || n < k) return 0;
+        double r = 1;
+        for (int i = 0; i < k; i++) r = r * (n - i) / (i + 1);
+        return r;
+    }
+
+    private static long mix(long h, long v) {
+        return (h ^ v) * 0x9E3779B97F4A7C15L + 0x632BE59BD9B4E019L;
+    }
+
+    /**
+     * Everything needed to solve a battle state
+     */
+    private static class State {
+        long key;
+        long tableKey;
+
+        int php, pmaxHp, pminDmg, pmaxDmg, pacc;
+        Move[] ppool;
+        Move[] hand;
+
+        int ehp, emaxHp, eminDmg, emaxDmg, eacc;
+        // king slime's remaining respawns
+        int lives;
+        int bossId;
+        boolean prioritize;
+        Move[] epool;
+        // bosses can get the same move more than once in a moveset
+        boolean replacement;
+
+        int playerRed, enemyRed;
+        boolean[] buffs;
+        float psacrifice;
+        int shield;
+    }
+
+    /**
+     * Memoized transitions and values of a battle
+     * Values are indexed by the start of the player's turn and u values by the start of the enemy's turn
+     */
+    private static class Table {
+        int np, ne;
+        float stepP, stepE;
+        int lowP, lowE;
+        int emaxHp;
+        boolean prioritize;
+        // table of king slime's next life
+        Table next;
+
+        Outcomes[][] player;
+        Outcomes[][] enemy;
+
+        float[] win, turns;
+        float[] uwin, uturns;
+        boolean converged;
+
+        int index(int p, int e, int f) {
+            return ((p * (ne + 1)) + e) * 4 + f;
+        }
+
+        /**
+         * 0 - random move, 1 - heal priority, 2 - damage priority
+         */
+        int regime(int p, int e) {
+            if (!prioritize) return 0;
+            if (p <= lowP) return 2;
+            if (e <= lowE) return 1;
+            return 0;
+        }
+
+        /**
+         * Bilinearly interpolates a value table at a state in hp units
+         */
+        float lookup(float[] values, int php, int ehp, int f) {
+            float x = Math.max(1, Math.min(np, php / stepP));
+            float y = Math.max(1, Math.min(ne, ehp / stepE));
+            int x0 = (int) x, y0 = (int) y;
+            int x1 = Math.min(np, x0 + 1), y1 = Math.min(ne, y0 + 1);
+            float fx = x - x0, fy = y - y0;
+            return (1 - fx) * ((1 - fy) * values[index(x0, y0, f)] + fy * values[index(x0, y1, f)])
+                + fx * ((1 - fy) * values[index(x1, y0, f)] + fy * values[index(x1, y1, f)]);
+        }
+    }
+
+    /**
+     * Sparse list of transitions from a state
+     * dp and de are the changes to player and enemy hp, set and clear are reduction flags
+     */
+    private static class Outcomes {
+        int size;
+        int[] dp, de, set, clear;
+        float[] p;
+    }
+
+    private static class EnemyMoves {
+        int n, numHeals;
+        Histogram damage = new Histogram();
+        Histogram lifesteal = new Histogram();
+        Histogram heal = new Histogram();
+
+        /**
+         * Probability that the enemy uses a heal move in a priority regime
+         */
+        float healWeight(int regime, boolean replacement) {
+            int numDamage = n - numHeals;
+            if (n == 0) return 0;
+            switch (regime) {
+                case 1:
+                    if (replacement) return 1 - (float) Math.pow(numDamage / (float) n, 4);
+                    return (float) (1 - choose(numDamage, 4) / choose(n, 4));
+                case 2:
+                    if (replacement) return (float) Math.pow(numHeals / (float) n, 4);
+                    return (float) (choose(numHeals, 4) / choose(n, 4));
+            }
+            return numHeals / (float) n;
+        }
+    }
+
+    /**
+     * Probability mass over hp amounts
+     */
+    private static class Histogram implements Comparable<Histogram> {
+        float[] mass = new float[16];
+        int max = -1;
+
+        void add(int value, float w) {
+            if (value < 0) value = 0;
+            if (value >= mass.length) {
+                float[] grown = new float[Math.max(value + 1, mass.length * 2)];
+                System.arraycopy(mass, 0, grown, 0, mass.length);
+                mass = grown;
+            }
+            mass[value] += w;
+            if (value > max) max = value;
+        }
+
+        void add(Histogram h, float w) {
+            for (int i = h.max; i >= 0; i--) {
+                if (h.mass[i] != 0) add(i, h.mass[i] * w);
+            }
+        }
+
+        void scale(float w) {
+            for (int i = 0; i <= max; i++) mass[i] *= w;
+        }
+
+        float mean() {
+            float sum = 0, total = 0;
+            for (int i = 0; i <= max; i++) {
+                sum += i * mass[i];
+                total += mass[i];
+            }
+            return total == 0 ? 0 : sum / total;
+        }
+
+        /**
+         * Sorts by descending mean
+         */
+        @Override
+        public int compareTo(Histogram o) {
+            return Float.compare(o.mean(), mean());
+        }
+    }
+
+    /**
+     * Merges transitions by their hp changes converted to buckets
+     * A change that falls between two buckets is split between them proportionally
+     */
+    private static class Accumulator {
+        // hp changes are packed into 14 bits each of the key
+        private static final int OFFSET = 8192;
+
+        float stepP, stepE;
+        IntFloatMap map = new IntFloatMap();
+
+        Accumulator(float stepP, float stepE) {
+            this.stepP = stepP;
+            this.stepE = stepE;
+        }
+
+        void addEnemyDamage(Histogram h, float weight, int reduction, int clear) {
+            for (int d = 0; d <= h.max; d++) {
+                if (h.mass[d] == 0) continue;
+                int dmg = reduce(d, reduction);
+                split(0, -dmg / stepE, 0, clear, weight * h.mass[d]);
+            }
+        }
+
+        void addPlayerHeal(Histogram h, float weight, int set) {
+            for (int d = 0; d <= h.max; d++) {
+                if (h.mass[d] == 0) continue;
+                split(d / stepP, 0, set, 0, weight * h.mass[d]);
+            }
+        }
+
+        void addPlayerDamage(Histogram h, float weight, int reduction, int clear, int shield, boolean lifesteal) {
+            for (int d = 0; d <= h.max; d++) {
+                if (h.mass[d] == 0) continue;
+                int dmg = reduce(d, reduction);
+                int heal = lifesteal ? (int) (LIFESTEAL * (float) dmg) : 0;
+                dmg = Math.max(0, dmg - shield);
+                split(-dmg / stepP, heal / stepE, 0, clear, weight * h.mass[d]);
+            }
+        }
+
+        void addEnemySelfDamage(Histogram h, float weight) {
+            for (int d = 0; d <= h.max; d++) {
+                if (h.mass[d] == 0) continue;
+                split(0, -d / stepE, 0, 0, weight * h.mass[d]);
+            }
+        }
+
+        void addEnemyHeal(Histogram h, float weight, int set, int mult) {
+            for (int d = 0; d <= h.max; d++) {
+                if (h.mass[d] == 0) continue;
+                split(0, d * mult / stepE, set, 0, weight * h.mass[d]);
+            }
+        }
+
+        private static int reduce(int damage, int reduction) {
+            if (reduction == -1) return damage;
+            int dmg = damage;
+            dmg -= ((reduction / 100f) * damage);
+            return dmg;
+        }
+
+        private void split(float x, float y, int set, int clear, float w) {
+            if (w == 0) return;
+            int x0 = (int) Math.floor(x), y0 = (int) Math.floor(y);
+            float fx = x - x0, fy = y - y0;
+            add(x0, y0, set, clear, w * (1 - fx) * (1 - fy));
+            if (fx > 0) add(x0 + 1, y0, set, clear, w * fx * (1 - fy));
+            if (fy > 0) add(x0, y0 + 1, set, clear, w * (1 - fx) * fy);
+            if (fx > 0 && fy > 0) add(x0 + 1, y0 + 1, set, clear, w * fx * fy);
+        }
+
+        void add(int dp, int de, int set, int clear, float w) {
+            if (w == 0) return;
+            // clamped to fit the key, this doesn't change any result since a change of more
+            // than GRID buckets already kills or fully heals whichever side it applies to
+            dp = Math.max(-OFFSET, Math.min(OFFSET - 1, dp));
+            de = Math.max(-OFFSET, Math.min(OFFSET - 1, de));
+            int key = (dp + OFFSET) | ((de + OFFSET) << 14) | (set << 28) | (clear << 30);
+            map.put(key, map.get(key, 0) + w);
+        }
+
+        Outcomes toOutcomes() {
+            Outcomes o = new Outcomes();
+            o.size = map.size;
+            o.dp = new int[o.size];
+            o.de = new int[o.size];
+            o.set = new int[o.size];
+            o.clear = new int[o.size];
+            o.p = new float[o.size];
+            int i = 0;
+            for (IntFloatMap.Entry e : map.entries()) {
+                o.dp[i] = (e.key & 0x3FFF) - OFFSET;
+                o.de[i] = ((e.key >>> 14) & 0x3FFF) - OFFSET;
+                o.set[i] = (e.key >>> 28) & 3;
+                o.clear[i] = (e.key >>> 30) & 3;
+                o.p[i] = e.value;
+                i++;
+            }
+            return o;
+        }
+    }
+
+    /**
+     * Least recently used cache
+     */
+    private static class LruMap<V> extends LinkedHashMap<Long, V> {
+        private static final long serialVersionUID = 1L;
+
+        private final int capacity;
+
+        LruMap(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, V> eldest) {
+            return size() > capacity;
+        }
+    }
+
+}
@@ -0,0 +1,50 @@
+package com.unlucky.battle;
+
+import com.unlucky.entity.Player;
+import com.unlucky.event.Battle;
+
+/**
+ * Always uses the move with the most expected damage and never uses special moves
+ * Only heals if every move in the moveset heals
+ *
+ * @author Ming Li
+ */
+public class GreedyPolicy implements BattlePolicy {
+
+    @Override
+    public int chooseMove(Player player, Battle battle) {
+        return bestMove(player, battle, false);
+    }
+
+    @Override
+    public boolean useSpecialMove(Player player, Battle battle, SpecialMove smove) {
+        return false;
+    }
+
+    /**
+     * Returns the index of the move with the highest expected value that heals or damages
+     * Falls back to the best move of the other kind if there are none
+     *
+     * @param player
+     * @param battle
+     * @param heal
+     * @return
+     */
+    protected int bestMove(Player player, Battle battle, boolean heal) {
+        Move[] moveset = player.getMoveset().moveset;
+        int best = -1;
+        float bestValue = -1;
+        for (int pass = 0; pass < 2 && best == -1; pass++) {
+            for (int i = 0; i < moveset.length; i++) {
+                if (battle.isHealing(moveset[i]) != (pass == 0 ? heal : !heal)) continue;
+                float value = battle.getExpectedValue(moveset[i]);
+                if (value > bestValue) {
+                    bestValue = value;
+                    best = i;
+                }
+            }
+        }
+        return best;
+    }
+
+}
@@ -0,0 +1,27 @@
+package com.unlucky.battle;
+
+import com.unlucky.entity.Player;
+import com.unlucky.event.Battle;
+
+/**
+ * Heals when the player's hp falls below a percentage of its max hp
+ * and otherwise uses the move with the most expected damage
+ *
+ * @author Ming Li
+ */
+public class HealPolicy extends GreedyPolicy {
+
+    // percentage of max hp to start healing at
+    private int threshold;
+
+    public HealPolicy(int threshold) {
+        this.threshold = threshold;
+    }
+
+    @Override
+    public int chooseMove(Player player, Battle battle) {
+        boolean low = player.getHp() <= (int) ((threshold / 100f) * player.getMaxHp());
+        return bestMove(player, battle, low);
+    }
+
+}
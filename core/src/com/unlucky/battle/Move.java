@@ -42,6 +42,14 @@ public class Move {
     // Damage reduction in %
     public int dmgReduction;
 
+    /**
+     * Constructor for an empty Move slot that is filled in place with {@link #set(Move)}
+     */
+    public Move() {
+        type = -1;
+        minDamage = maxDamage = minHeal = maxHeal = crit = -1;
+    }
+
     /**
      * Constructor for Accurate and Wide moves
      *
@@ -93,6 +101,23 @@ public class Move {
         this.dmgReduction = dmgReduction;
     }
 
+    /**
+     * Overwrites this Move with the attributes of another Move
+     * Used to reuse Move slots instead of allocating copies of the move pool
+     *
+     * @param move
+     */
+    public void set(Move move) {
+        this.type = move.type;
+        this.name = move.name;
+        this.minDamage = move.minDamage;
+        this.maxDamage = move.maxDamage;
+        this.minHeal = move.minHeal;
+        this.maxHeal = move.maxHeal;
+        this.crit = move.crit;
+        this.dmgReduction = move.dmgReduction;
+    }
+
     /**
      * Somewhat scaling formula for calculating the true damage range based on an Entity's range
      *
@@ -22,21 +22,26 @@ public class Moveset {
      */
     public Move[] moveset;
     public String[] names;
-    public String[] descriptions;
+
+    // indices into the move pool that are partially shuffled each reset
+    private int[] poolIndices;
 
     public Moveset(ResourceManager rm) {
         this.rm = rm;
 
         moveset = new Move[4];
         names = new String[4];
-        descriptions = new String[4];
+        for (int i = 0; i < 4; i++) moveset[i] = new Move();
+
+        poolIndices = new int[rm.movePool.length];
+        for (int i = 0; i < poolIndices.length; i++) poolIndices[i] = i;
     }
 
     /**
      * Resets a Moveset with a set of 4 new random Moves
      */
     public void reset(int min, int max, int hp) {
-        moveset = getRandomMoves();
+        setRandomMoves();
         int dmg;
 
         for (int i = 0; i < 4; i++) {
@@ -46,18 +51,6 @@ public class Moveset {
             else moveset[i].setDamage(dmg);
 
             names[i] = moveset[i].name;
-            // Concatenates move info into a full description
-            if (moveset[i].type < 2) {
-                descriptions[i] = "dmg: " + Math.round(moveset[i].minDamage)
-                        + "-" + Math.round(moveset[i].maxDamage);
-            } else if (moveset[i].type == 2) {
-                descriptions[i] = "dmg: " + Math.round(moveset[i].minDamage) + " + "
-                        + moveset[i].crit + "% to crit";
-            } else {
-                descriptions[i] = "HP: " + Math.round(moveset[i].minHeal)
-                        + "-" + Math.round(moveset[i].maxHeal) + ", -" + moveset[i].dmgReduction
-                        + "% DMG";
-            }
         }
     }
 
@@ -65,12 +58,33 @@ public class Moveset {
      * Resets moveset for bosses
      */
     public void reset(int min, int max, int hp, int bossId) {
-        moveset = getBossMoves(bossId);
+        setBossMoves(bossId);
         int dmg;
         for (int i = 0; i < 4; i++) {
             dmg = MathUtils.random(min, max);
             if (moveset[i].type == 3) moveset[i].setHeal(hp);
             else moveset[i].setDamage(dmg);
+
+            names[i] = moveset[i].name;
+        }
+    }
+
+    /**
+     * Concatenates the info of a Move into a full description
+     * Only built when the description is actually displayed
+     *
+     * @param index
+     * @return
+     */
+    public String getDescription(int index) {
+        Move move = moveset[index];
+        if (move.type < 2) {
+            return "dmg: " + Math.round(move.minDamage) + "-" + Math.round(move.maxDamage);
+        } else if (move.type == 2) {
+            return "dmg: " + Math.round(move.minDamage) + " + " + move.crit + "% to crit";
+        } else {
+            return "HP: " + Math.round(move.minHeal) + "-" + Math.round(move.maxHeal)
+                    + ", -" + move.dmgReduction + "% DMG";
         }
     }
 
@@ -105,66 +119,35 @@ public class Moveset {
     }
 
     /**
-     * Returns a Move array with 4 unique moves chosen from all possible Moves
-     *
-     * @return
+     * Fills the Move slots with 4 unique moves chosen from all possible Moves
+     * Uses a partial Fisher-Yates shuffle over the pool indices
      */
-    private Move[] getRandomMoves() {
-        Array<Move> all = new Array<Move>();
-        all.addAll(rm.accurateMoves);
-        all.addAll(rm.wideMoves);
-        all.addAll(rm.critMoves);
-        all.addAll(rm.healMoves);
-
-        Move[] ret = new Move[4];
-
-        int index;
-        for (int i = 0; i < ret.length; i++) {
-            index = MathUtils.random(all.size - 1);
-            Move randMove = all.get(index);
-            Move temp = null;
-
-            if (randMove.type < 2)
-                temp = new Move(randMove.type, randMove.name, randMove.minDamage, randMove.maxDamage);
-            else if (randMove.type == 2)
-                temp = new Move(randMove.name, randMove.minDamage, randMove.crit);
-            else if (randMove.type == 3)
-                temp = new Move(randMove.name, randMove.minHeal, randMove.maxHeal, randMove.dmgReduction);
-
-            ret[i] = temp;
-            all.removeIndex(index);
-        }
+    private void setRandomMoves() {
+        Move[] pool = rm.movePool;
+        int n = poolIndices.length;
+
+        int j, temp;
+        for (int i = 0; i < moveset.length; i++) {
+            j = MathUtils.random(i, n - 1);
+            temp = poolIndices[i];
+            poolIndices[i] = poolIndices[j];
+            poolIndices[j] = temp;
 
-        return ret;
+            moveset[i].set(pool[poolIndices[i]]);
+        }
     }
 
     /**
-     * Returns a Move array with 4 unique moves from a boss's movepool
+     * Fills the Move slots with 4 moves from a boss's movepool
+     * Boss moves can repeat in a moveset
      *
      * @param bossId
-     * @return
      */
-    private Move[] getBossMoves(int bossId) {
+    private void setBossMoves(int bossId) {
         Array<Move> pool = rm.bossMoves.get(bossId);
-        Move[] ret = new Move[4];
-        int index;
-        for (int i = 0; i < ret.length; i++) {
-            index = MathUtils.random(pool.size - 1);
-            Move randMove = pool.get(index);
-            Move temp = null;
-
-            if (randMove.type < 2)
-                temp = new Move(randMove.type, randMove.name, randMove.minDamage, randMove.maxDamage);
-            else if (randMove.type == 2)
-                temp = new Move(randMove.name, randMove.minDamage, randMove.crit);
-            else if (randMove.type == 3)
-                temp = new Move(randMove.name, randMove.minHeal, randMove.maxHeal, randMove.dmgReduction);
-
-            ret[i] = temp;
-            //pool.removeIndex(index);
+        for (int i = 0; i < moveset.length; i++) {
+            moveset[i].set(pool.get(MathUtils.random(pool.size - 1)));
         }
-
-        return ret;
     }
 
 }
@@ -0,0 +1,30 @@
+package com.unlucky.battle;
+
+import com.unlucky.entity.Player;
+import com.unlucky.event.Battle;
+
+/**
+ * Uses a special move every time one is off cooldown
+ * Regular moves are chosen by another policy
+ *
+ * @author Ming Li
+ */
+public class SpecialMovePolicy implements BattlePolicy {
+
+    private BattlePolicy movePolicy;
+
+    public SpecialMovePolicy(BattlePolicy movePolicy) {
+        this.movePolicy = movePolicy;
+    }
+
+    @Override
+    public int chooseMove(Player player, Battle battle) {
+        return movePolicy.chooseMove(player, battle);
+    }
+
+    @Override
+    public boolean useSpecialMove(Player player, Battle battle, SpecialMove smove) {
+        return true;
+    }
+
+}
@@ -1,10 +1,9 @@
 package com.unlucky.battle;
 
-import com.badlogic.gdx.graphics.g2d.TextureRegion;
-import com.unlucky.resource.ResourceManager;
-
 /**
- * Container class for a status effect's texture and type
+ * Status effect types
+ * Each type is a bit index into a StatusSet's effect mask and
+ * an index into the shared status effect icons
  *
  * @author Ming Li
  */
@@ -21,12 +20,11 @@ public class StatusEffect {
     public static final int SHIELD = 7;
     public static final int SACRIFICE = 8;
 
-    public int type;
-    public TextureRegion icon;
+    // number of status effect types (a StatusSet mask can hold up to 32)
+    public static final int NUM_EFFECTS = 9;
 
-    public StatusEffect(int type, ResourceManager rm) {
-        this.type = type;
-        icon = rm.statuseffects20x20[type];
-    }
+    // effects count down a turn every time the turn passes between the player and enemy
+    // so an effect lasting 2 turns stays through the other side's next turn
+    public static final int DEFAULT_TURNS = 2;
 
 }
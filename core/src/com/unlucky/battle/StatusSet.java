@@ -1,7 +1,7 @@
 package com.unlucky.battle;
 
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
-import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.unlucky.resource.ResourceManager;
 
 /**
@@ -10,57 +10,79 @@ import com.unlucky.resource.ResourceManager;
  * If a status is removed then the line shrinks
  * There are no duplicate effects in a set
  *
+ * Effects are stored as bits of an int mask indexed by effect type
+ * with a turn counter for each type
+ *
  * @author Ming Li
  */
 public class StatusSet {
 
-    // status icons
-    public Array<StatusEffect> effects;
+    // bit i is set if the effect of type i is active
+    private int mask;
+    // number of turns each active effect has left
+    private int[] turns;
+
+    // status icons shared by every set indexed by effect type
+    private TextureRegion[] icons;
 
     // whether or not it's the player's status icons
     private boolean player;
-    private ResourceManager rm;
 
     public StatusSet(boolean player, ResourceManager rm) {
         this.player = player;
-        this.rm = rm;
-        effects = new Array<StatusEffect>();
+        icons = rm.statuseffects20x20;
+        turns = new int[StatusEffect.NUM_EFFECTS];
     }
 
     /**
-     * Adds an effect to the list if the effect is not already in it
+     * Adds an effect to the set until the other side's next turn ends
+     * if the effect is not already in it
      *
      * @param effect
      */
     public void addEffect(int effect) {
-        if (findEffect(effect) == -1) {
-            effects.add(new StatusEffect(effect, rm));
-        }
+        addEffect(effect, StatusEffect.DEFAULT_TURNS);
     }
 
-    public void clear() {
-        effects.clear();
+    /**
+     * Adds an effect to the set for a number of turns if the effect is not already in it
+     *
+     * @param effect
+     * @param numTurns
+     */
+    public void addEffect(int effect, int numTurns) {
+        if (!contains(effect)) {
+            mask |= 1 << effect;
+            turns[effect] = numTurns;
+        }
     }
 
     /**
-     * Removes all multi turn status effects
+     * Removes an effect from the set
+     *
+     * @param effect
      */
-    public void clearAllButSingleTurnEffects() {
-        for (int i = 0; i < effects.size; i++) {
-            if (effects.get(i).type == StatusEffect.DMG_RED) {
-                effects.removeIndex(i);
-            }
-        }
+    public void removeEffect(int effect) {
+        mask &= ~(1 << effect);
+        turns[effect] = 0;
+    }
+
+    public void clear() {
+        mask = 0;
+        for (int i = 0; i < turns.length; i++) turns[i] = 0;
     }
 
     /**
-     * Removes all single turn status effects
+     * Decrements the turn counter of every effect and
+     * removes the effects that have run out of turns
+     * Called every time the turn passes between the player and enemy
      */
-    public void clearAllButMultiTurnEffects() {
-        for (int i = 0; i < effects.size; i++) {
-            if (effects.get(i).type != StatusEffect.DMG_RED) {
-                effects.removeIndex(i);
-            }
+    public void decrementTurns() {
+        int m = mask;
+        while (m != 0) {
+            int effect = Integer.numberOfTrailingZeros(m);
+            m &= m - 1;
+            if (--turns[effect] <= 0) removeEffect(effect);
         }
     }
 
@@ -71,22 +93,20 @@ public class StatusSet {
      * @return
      */
     public boolean contains(int effect) {
-        return findEffect(effect) != -1;
+        return (mask & (1 << effect)) != 0;
     }
 
     /**
-     * Returns the index of an effect
-     * Returns -1 if not in set
+     * Returns the number of effects in the set
      *
-     * @param effect
      * @return
      */
-    public int findEffect(int effect) {
-        for (int i = 0; i < effects.size; i++) {
-            if (effects.get(i).type == effect)
-                return effects.get(i).type;
-        }
-        return -1;
+    public int size() {
+        return Integer.bitCount(mask);
+    }
+
+    public boolean isEmpty() {
+        return mask == 0;
     }
 
     /**
@@ -96,13 +116,14 @@ public class StatusSet {
      * @param batch
      */
     public void render(SpriteBatch batch) {
-        for (int i = 0; i < effects.size; i++) {
-            StatusEffect s = effects.get(i);
-            if (player) {
-                if (s != null) batch.draw(s.icon, 1 + (i * 11), 90);
-            } else {
-                if (s != null) batch.draw(s.icon, 189 - (i * 11), 90);
-            }
+        int m = mask;
+        int i = 0;
+        while (m != 0) {
+            int effect = Integer.numberOfTrailingZeros(m);
+            m &= m - 1;
+            if (player) batch.draw(icons[effect], 1 + (i * 11), 90);
+            else batch.draw(icons[effect], 189 - (i * 11), 90);
+            i++;
         }
     }
 
@@ -13,8 +13,10 @@ import com.unlucky.inventory.Inventory;
 import com.unlucky.inventory.Item;
 import com.unlucky.map.GameMap;
 import com.unlucky.map.Tile;
+import com.unlucky.resource.LootTable;
 import com.unlucky.resource.ResourceManager;
 import com.unlucky.resource.Statistics;
+import com.unlucky.resource.UniformSum;
 import com.unlucky.resource.Util;
 import com.unlucky.save.Settings;
 
@@ -68,6 +70,8 @@ public class Player extends Entity {
 
     // inventory and equips
     public Inventory inventory;
+    // only reachable from the inventory in the menu
+    public Inventory stash;
     public Equipment equips;
 
     // battle status effects
@@ -93,6 +97,7 @@ public class Player extends Entity {
         super(id, rm);
 
         inventory = new Inventory();
+        stash = new Inventory(Inventory.STASH_SLOTS);
         equips = new Equipment();
 
         // attributes
@@ -130,9 +135,12 @@ public class Player extends Entity {
         handleSpecialTiles();
 
         // check for Entity interaction
-        if (tileMap.containsEntity(tileMap.toTileCoords(position)) && canMove()) {
-            opponent = (com.unlucky.entity.enemy.Enemy) tileMap.getEntity(tileMap.toTileCoords(position));
-            battling = true;
+        if (!battling && canMove()) {
+            Enemy enemy = tileMap.encounterEnemy(position);
+            if (enemy != null) {
+                opponent = enemy;
+                battling = true;
+            }
         }
     }
 
@@ -233,7 +241,7 @@ public class Player extends Entity {
         if (canMove()) {
             // Player goes forwards or backwards from the tile in the direction they entered
             if (currentTile.isChange()) {
-                if (!settings.muteSfx) rm.movement.play(settings.sfxVolume);
+                rm.audio.play(rm.movement);
                 boolean k = MathUtils.randomBoolean();
                 switch (prevDir) {
                     case 0: // down
@@ -256,7 +264,7 @@ public class Player extends Entity {
             }
             // Player goes 1 tile in a random direction not the direction they entered the tile on
             else if (currentTile.isInAndOut()) {
-                if (!settings.muteSfx) rm.movement.play(settings.sfxVolume);
+                rm.audio.play(rm.movement);
                 // output direction (all other directions other than input direction)
                 int odir = MathUtils.random(2);
                 switch (prevDir) {
@@ -283,19 +291,19 @@ public class Player extends Entity {
                 }
             }
             else if (currentTile.isDown()) {
-                if (!settings.muteSfx) rm.movement.play(settings.sfxVolume);
+                rm.audio.play(rm.movement);
                 changeDirection(0);
             }
             else if (currentTile.isUp()) {
-                if (!settings.muteSfx) rm.movement.play(settings.sfxVolume);
+                rm.audio.play(rm.movement);
                 changeDirection(1);
             }
             else if (currentTile.isRight()) {
-                if (!settings.muteSfx) rm.movement.play(settings.sfxVolume);
+                rm.audio.play(rm.movement);
                 changeDirection(2);
             }
             else if (currentTile.isLeft()) {
-                if (!settings.muteSfx) rm.movement.play(settings.sfxVolume);
+                rm.audio.play(rm.movement);
                 changeDirection(3);
             }
             // trigger dialog event
@@ -512,10 +520,7 @@ public class Player extends Entity {
             // gold
             if (k < 50) {
                 // gold per level scaled off map's average level
-                int gold = 0;
-                for (int i = 0; i < mapLevel; i++) {
-                    gold += MathUtils.random(7, 13);
-                }
+                int gold = UniformSum.random(mapLevel, 7, 13);
                 this.gold += gold;
                 gameMap.goldObtained += gold;
                 ret = new String[] {
@@ -525,10 +530,7 @@ public class Player extends Entity {
             }
             // heal
             else if (k < 95) {
-                int heal = 0;
-                for (int i = 0; i < mapLevel; i++) {
-                    heal += MathUtils.random(2, 5);
-                }
+                int heal = UniformSum.random(mapLevel, 2, 5);
                 this.hp += heal;
                 if (hp > maxHp) hp = maxHp;
                 ret = new String[] {
@@ -538,8 +540,14 @@ public class Player extends Entity {
             }
             // item
             else if (k < 100) {
-                Item item = rm.getRandomItem();
-                if (inventory.isFull()) {
+                Item item = rm.loot.roll(LootTable.QUESTION_MARK, gameMap.worldIndex, mapLevel);
+                // the loot table may have no drop for this roll
+                if (item == null) {
+                    ret = new String[] {
+                        "The random tile did not give anything."
+                    };
+                }
+                else if (inventory.isFull()) {
                     ret = new String[] {
                         "The random tile gave something!",
                         "It dropped a " + item.getDialogName() + "!",
@@ -580,10 +588,7 @@ public class Player extends Entity {
 
         if (Util.isSuccess(Util.TILE_INTERATION)) {
             if (Util.isSuccess(60)) {
-                int dmg = 0;
-                for (int i = 0; i < mapLevel; i++) {
-                    dmg += MathUtils.random(1, 4);
-                }
+                int dmg = UniformSum.random(mapLevel, 1, 4);
                 hp -= dmg;
                 // player dies from tile
                 if (hp <= 0) {
@@ -603,10 +608,7 @@ public class Player extends Entity {
                 }
             }
             else {
-                int steal = 0;
-                for (int i = 0; i < mapLevel; i++) {
-                    steal += MathUtils.random(4, 9);
-                }
+                int steal = UniformSum.random(mapLevel, 4, 9);
                 gold -= steal;
                 if (gold < 0) gold = 0;
                 ret = new String[] {
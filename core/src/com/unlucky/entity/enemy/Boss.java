@@ -5,6 +5,7 @@ import com.badlogic.gdx.math.Vector2;
 import com.unlucky.animation.AnimationManager;
 import com.unlucky.map.TileMap;
 import com.unlucky.resource.ResourceManager;
+import com.unlucky.resource.UniformSum;
 import com.unlucky.resource.Util;
 
 /**
@@ -58,30 +59,27 @@ public class Boss extends Enemy {
                 mhp = Util.getDeviatedRandomValue(mhpSeed0, 1);
                 minDmg = MathUtils.random(5, 9);
                 maxDmg = MathUtils.random(10, 15);
-                for (int i = 0; i < level - 1; i++) {
-                    minDmg += MathUtils.random(2, 4) - MathUtils.random(1);
-                    maxDmg += MathUtils.random(2, 4) + MathUtils.random(1);
-                }
+                // 2-4 damage per level with 0-1 deviation
+                minDmg += UniformSum.random(level - 1, 2, 4) - UniformSum.random(level - 1, 0, 1);
+                maxDmg += UniformSum.random(level - 1, 2, 4) + UniformSum.random(level - 1, 0, 1);
                 break;
             case 1: // red reaper
                 int mhpSeed1 = (int) (Math.pow(level, 2) + 14);
                 mhp = Util.getDeviatedRandomValue(mhpSeed1, 3);
                 minDmg = MathUtils.random(3, 8);
                 maxDmg = MathUtils.random(9, 15);
-                for (int i = 0; i < level - 1; i++) {
-                    minDmg += MathUtils.random(1, 2) - MathUtils.random(2);
-                    maxDmg += MathUtils.random(1, 2) + MathUtils.random(2);
-                }
+                // 1-2 damage per level with 0-2 deviation
+                minDmg += UniformSum.random(level - 1, 1, 2) - UniformSum.random(level - 1, 0, 2);
+                maxDmg += UniformSum.random(level - 1, 1, 2) + UniformSum.random(level - 1, 0, 2);
                 break;
             case 2: // ice golem
                 int mhpSeed2 = (int) (Math.pow(level, 2.3) + 25);
                 mhp = Util.getDeviatedRandomValue(mhpSeed2, 150);
                 minDmg = MathUtils.random(1, 4);
                 maxDmg = MathUtils.random(5, 8);
-                for (int i = 0; i < level - 1; i++) {
-                    minDmg += MathUtils.random(1, 2) - 1;
-                    maxDmg += MathUtils.random(1, 2) + 1;
-                }
+                // 1-2 damage per level with a deviation of 1
+                minDmg += UniformSum.random(level - 1, 0, 1);
+                maxDmg += UniformSum.random(level - 1, 2, 3);
                 break;
         }
 
@@ -36,6 +36,34 @@ public abstract class Enemy extends Entity {
         numRespawn = 0;
     }
 
+    /**
+     * Places a new or recycled enemy at a spawn and resets everything left over from its last battle
+     *
+     * @param position
+     * @param tileMap
+     * @param elite
+     */
+    public void spawn(Vector2 position, TileMap tileMap, boolean elite) {
+        this.position.set(position);
+        this.tileMap = tileMap;
+        setElite(elite);
+
+        dead = false;
+        damage = healing = 0;
+        resetShield();
+        prevMoveUsed = moveUsed = -1;
+        statusEffects.clear();
+        battleSize = 48;
+        numRespawn = 0;
+    }
+
+    /**
+     * Only normal enemies can be elites
+     *
+     * @param elite
+     */
+    protected void setElite(boolean elite) {}
+
     public abstract boolean isElite();
 
     public abstract boolean isBoss();
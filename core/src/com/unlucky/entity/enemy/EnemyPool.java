@@ -0,0 +1,109 @@
+package com.unlucky.entity.enemy;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntMap;
+import com.badlogic.gdx.utils.IntSet;
+import com.unlucky.animation.AnimationManager;
+import com.unlucky.map.TileMap;
+import com.unlucky.map.component.EncounterComponent;
+import com.unlucky.resource.ResourceManager;
+import com.unlucky.resource.Util;
+
+/**
+ * Creates enemies from map entities when they're encountered and recycles them after their battle
+ * Also owns the walking animations that every map entity of a type shares
+ *
+ * @author Ming Li
+ */
+public class EnemyPool {
+
+    private ResourceManager rm;
+
+    // recycled enemies by entity id
+    private IntMap<Array<Enemy>> free = new IntMap<Array<Enemy>>();
+    // map animation by entity id
+    private IntMap<AnimationManager> walkAnims = new IntMap<AnimationManager>();
+    // entity ids that are bosses
+    private IntSet bosses = new IntSet();
+
+    public EnemyPool(ResourceManager rm) {
+        this.rm = rm;
+    }
+
+    /**
+     * Updates the shared walking animations once per frame
+     *
+     * @param dt
+     */
+    public void update(float dt) {
+        for (AnimationManager am : walkAnims.values()) am.update(dt);
+    }
+
+    /**
+     * Returns the walking animation of a type
+     * The first enemy of a type is created here and its animation is shared
+     *
+     * @param type
+     * @return
+     */
+    public AnimationManager getWalkAnimation(int type) {
+        AnimationManager am = walkAnims.get(type);
+        if (am == null) {
+            Enemy enemy = (Enemy) Util.getEntity(type, new Vector2(), null, rm);
+            am = enemy.getAm();
+            walkAnims.put(type, am);
+            if (enemy.isBoss()) bosses.add(type);
+            getFree(type).add(enemy);
+        }
+        return am;
+    }
+
+    /**
+     * Returns if a type is a boss
+     * Only valid after its walking animation was requested
+     *
+     * @param type
+     * @return
+     */
+    public boolean isBoss(int type) {
+        return bosses.contains(type);
+    }
+
+    /**
+     * Returns a fresh Enemy for an encounter placed at a position
+     *
+     * @param encounter
+     * @param position
+     * @param tileMap
+     * @return
+     */
+    public Enemy obtain(EncounterComponent encounter, Vector2 position, TileMap tileMap) {
+        Array<Enemy> enemies = getFree(encounter.type);
+        Enemy enemy = enemies.size > 0 ? enemies.pop() : (Enemy) Util.getEntity(encounter.type, new Vector2(), null, rm);
+        enemy.spawn(position, tileMap, encounter.elite);
+        encounter.enemy = enemy;
+        return enemy;
+    }
+
+    /**
+     * Recycles the Enemy of an encounter after its battle
+     *
+     * @param encounter
+     */
+    public void free(EncounterComponent encounter) {
+        if (encounter.enemy == null) return;
+        getFree(encounter.type).add(encounter.enemy);
+        encounter.enemy = null;
+    }
+
+    private Array<Enemy> getFree(int type) {
+        Array<Enemy> enemies = free.get(type);
+        if (enemies == null) {
+            enemies = new Array<Enemy>();
+            free.put(type, enemies);
+        }
+        return enemies;
+    }
+
+}
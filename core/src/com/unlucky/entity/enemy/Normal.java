@@ -5,6 +5,7 @@ import com.badlogic.gdx.math.Vector2;
 import com.unlucky.animation.AnimationManager;
 import com.unlucky.map.TileMap;
 import com.unlucky.resource.ResourceManager;
+import com.unlucky.resource.UniformSum;
 import com.unlucky.resource.Util;
 
 /**
@@ -16,9 +17,12 @@ public class Normal extends Enemy {
 
     // chance for enemy to be elite which has higher stats than normal
     public boolean isElite = false;
+    // id without the elite prefix
+    private String name;
 
     public Normal(String id, Vector2 position, TileMap tileMap, ResourceManager rm) {
         super(id, position, tileMap, rm);
+        name = id;
     }
 
     public Normal(String id, Vector2 position, TileMap tileMap, ResourceManager rm,
@@ -31,8 +35,13 @@ public class Normal extends Enemy {
         bam = new AnimationManager(rm.battleSprites96x96, worldIndex, startIndex, 2, delay);
 
         // determine if elite
-        isElite = Util.isSuccess(Util.ELITE_CHANCE);
-        if (isElite) this.id = "[ELITE] " + id;
+        setElite(Util.isSuccess(Util.ELITE_CHANCE));
+    }
+
+    @Override
+    protected void setElite(boolean elite) {
+        isElite = elite;
+        this.id = isElite ? "[ELITE] " + name : name;
     }
 
     @Override
@@ -57,14 +66,11 @@ public class Normal extends Enemy {
         int minDmg = MathUtils.random(Util.ENEMY_INIT_MIN_MINDMG, Util.ENEMY_INIT_MAX_MINDMG);
         int maxDmg = MathUtils.random(Util.ENEMY_INIT_MIN_MAXDMG, Util.ENEMY_INIT_MAX_MAXDMG);
 
-        for (int i = 0; i < this.level - 1; i++) {
-            int dmgMean = MathUtils.random(Util.ENEMY_MIN_DMG_INCREASE, Util.ENEMY_MAX_DMG_INCREASE);
-            int minDmgIncrease = (dmgMean - MathUtils.random(2));
-            int maxDmgIncrease = (dmgMean + MathUtils.random(2));
-
-            minDmg += minDmgIncrease;
-            maxDmg += maxDmgIncrease;
-        }
+        // each level after the first adds a random mean increase to both damages
+        // minus 0-2 for min damage and plus 0-2 for max damage
+        int dmgMean = UniformSum.random(this.level - 1, Util.ENEMY_MIN_DMG_INCREASE, Util.ENEMY_MAX_DMG_INCREASE);
+        minDmg += dmgMean - UniformSum.random(this.level - 1, 0, 2);
+        maxDmg += dmgMean + UniformSum.random(this.level - 1, 0, 2);
 
         // sets a random accuracy initially
         this.setAccuracy(MathUtils.random(Util.ENEMY_MIN_ACCURACY, Util.ENEMY_MAX_ACCURACY));
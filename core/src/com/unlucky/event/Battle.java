@@ -8,7 +8,9 @@ import com.unlucky.entity.enemy.Enemy;
 import com.unlucky.entity.Player;
 import com.unlucky.inventory.Item;
 import com.unlucky.map.TileMap;
+import com.unlucky.resource.LootTable;
 import com.unlucky.resource.ResourceManager;
+import com.unlucky.resource.UniformSum;
 import com.unlucky.resource.Util;
 import com.unlucky.screen.GameScreen;
 
@@ -243,7 +245,8 @@ public class Battle {
         if (buffs[Util.STUN]) {
             if (Util.isSuccess(Util.P_STUN)) {
                 resetBuffs();
-                opponent.statusEffects.addEffect(StatusEffect.STUN);
+                // only lasts for the skipped turn
+                opponent.statusEffects.addEffect(StatusEffect.STUN, 1);
                 return new String[] {
                         "The enemy was stunned and could not move!"
                 };
@@ -391,6 +394,79 @@ public class Battle {
         return dialog;
     }
 
+    /**
+     * Returns the expected damage or healing of a move if it were used this turn
+     * Accounts for accuracy, crit chance, special move buffs and the pending heal damage reduction
+     *
+     * @param move
+     * @return
+     */
+    public float getExpectedValue(Move move) {
+        boolean redReaperDebuff = opponent.isBoss() && ((Boss) opponent).bossId == 1;
+        int acc = buffs[Util.FOCUS] ? 100 : player.getAccuracy() - (redReaperDebuff ? 40 : 0);
+        float hit = MathUtils.clamp(acc, 0, 100) / 100f;
+        boolean invert = buffs[Util.INVERT];
+
+        float value = 0;
+        // accurate or wide
+        if (move.type < 2) {
+            int min = Math.round(move.minDamage);
+            int max = Math.max(min, Math.round(move.maxDamage));
+            for (int i = min; i <= max; i++) {
+                int damage = buffDamage(i);
+                value += invert ? damage : previewReduceDamage(damage);
+            }
+            value /= max - min + 1;
+        }
+        // crit
+        else if (move.type == 2) {
+            int damage = buffDamage(Math.round(move.minDamage));
+            int critChance = move.crit + (buffs[Util.FOCUS] ? Util.P_FOCUS_CRIT : 0);
+            float crit = MathUtils.clamp(critChance, 0, 100) / 100f;
+            int critDamage = damage * Util.CRIT_MULTIPLIER;
+            if (!invert) {
+                damage = previewReduceDamage(damage);
+                critDamage = previewReduceDamage(critDamage);
+            }
+            value = crit * critDamage + (1 - crit) * damage;
+        }
+        // heals are never reduced
+        else if (move.type == 3) {
+            value = (Math.round(move.minHeal) + Math.round(move.maxHeal)) / 2f;
+        }
+
+        return hit * value;
+    }
+
+    /**
+     * Returns if a move heals the player this turn
+     *
+     * @param move
+     * @return
+     */
+    public boolean isHealing(Move move) {
+        return (move.type == 3) != buffs[Util.INVERT];
+    }
+
+    /**
+     * Applies the damage buffs of special moves
+     */
+    private int buffDamage(int damage) {
+        if (buffs[Util.INTIMIDATE]) damage *= Util.INTIMIDATE_MULT;
+        if (buffs[Util.SACRIFICE]) damage *= psacrifice;
+        return damage;
+    }
+
+    /**
+     * Reduces damage the same way as reduceDamage without using up the reduction
+     */
+    private int previewReduceDamage(int damage) {
+        int dmg = damage;
+        if (playerRed != -1) dmg -= ((playerRed / 100f) * damage);
+        else if (enemyRed != -1) dmg -= ((enemyRed / 100f) * damage);
+        return dmg;
+    }
+
     /**
      * Reduces the damage of an entity by the heal damage reduction
      *
@@ -489,9 +565,8 @@ public class Battle {
         int gold = 0;
         int diff = player.getLevel() - opponent.getLevel();
 
-        for (int i = 0; i < opponent.getLevel(); i++) {
-            gold += MathUtils.random(2) + 1;
-        }
+        // 1-3 gold per level
+        gold += UniformSum.random(opponent.getLevel(), 1, 3);
         gold -= (opponent.getLevel() * diff);
         if (gold <= 0) gold = 1;
 
@@ -507,42 +582,11 @@ public class Battle {
      * @return
      */
     public Item getItemObtained(ResourceManager rm) {
-        if (opponent.isElite()) {
-            if (Util.isSuccess(Util.ELITE_ITEM_DROP)) {
-                // elite will drop rare, epic, and legendary items at 60/30/10 chances
-                int k = MathUtils.random(99);
-                // rare
-                if (k < 60) {
-                    return rm.getItem(1, opponent.getLevel());
-                }
-                else if (k < 90) {
-                    return rm.getItem(2, opponent.getLevel());
-                }
-                else if (k < 100) {
-                    return rm.getItem(3, opponent.getLevel());
-                }
-            }
-        }
-        else if (opponent.isBoss()) {
-            if (Util.isSuccess(Util.BOSS_ITEM_DROP)) {
-                // boss will only drop epic and legendary items at 70/30 chances
-                int k = MathUtils.random(99);
-                // epic
-                if (k < 70) {
-                    return rm.getItem(2, opponent.getLevel());
-                }
-                // legendary
-                else {
-                    return rm.getItem(3, opponent.getLevel());
-                }
-            }
-        }
-        else {
-            if (Util.isSuccess(Util.NORMAL_ITEM_DROP)) {
-                return rm.getRandomItem(opponent.getLevel());
-            }
-        }
-        return null;
+        String source;
+        if (opponent.isElite()) source = LootTable.ELITE;
+        else if (opponent.isBoss()) source = LootTable.BOSS;
+        else source = LootTable.NORMAL;
+        return rm.loot.roll(source, gameScreen.gameMap.worldIndex, opponent.getLevel());
     }
 
     public String getItemDialog(Item item) {
@@ -575,7 +619,7 @@ public class Battle {
      */
     public void end() {
         opponent = null;
-        tileMap.removeEntity(tileMap.toTileCoords(player.getPosition()));
+        tileMap.removeEncounteredEnemy();
         player.finishBattling();
         gameScreen.setCurrentEvent(EventState.MOVING);
         gameScreen.hud.toggle(true);
@@ -0,0 +1,101 @@
+package com.unlucky.inventory;
+
+import com.badlogic.gdx.utils.IntMap;
+import com.unlucky.resource.Util;
+
+/**
+ * Calculates the expected cost and the risk of enchanting an equip up to its next rarity
+ *
+ * Each enchant level is an absorbing Markov chain: an attempt succeeds with chance p,
+ * destroys the item with chance (1 - p) * d or leaves it intact to try again.
+ * Absorbing into success takes 1 / (p + (1 - p) * d) attempts on average and happens
+ * with probability p / (p + (1 - p) * d). The levels are chained from the last one back.
+ *
+ * Costs are solved as multiples of the item's current enchant cost so one solution
+ * is shared by every item with the same rarity, enchants and scroll bonus.
+ *
+ * @author Ming Li
+ */
+public class EnchantCalculator {
+
+    // every 5 enchants an item goes up 1 rarity
+    private static final int ENCHANTS_PER_RARITY = 5;
+
+    // solutions by rarity, enchants towards the next rarity and scroll bonus
+    private static final IntMap<Odds> cache = new IntMap<Odds>();
+
+    public static class Odds {
+        // the enchant level the odds are for
+        public int target;
+        // expected gold as a multiple of the current enchant cost
+        public float goldFactor;
+        // expected number of scrolls after the one on the item if one is used for every level
+        public float scrolls;
+        // chance the item is destroyed before reaching the target
+        public float destroyChance;
+    }
+
+    /**
+     * Returns the odds of enchanting an equip to its next multiple of 5 enchants
+     * A scroll bonus on the item is assumed to be reapplied for every level
+     *
+     * @param item
+     * @return
+     */
+    public static Odds get(Item item) {
+        int step = item.enchants % ENCHANTS_PER_RARITY;
+        int key = (item.bonusEnchantChance * 4 + item.rarity) * ENCHANTS_PER_RARITY + step;
+        Odds odds = cache.get(key);
+        if (odds == null) {
+            odds = solve(item.rarity, step, item.bonusEnchantChance);
+            cache.put(key, odds);
+        }
+        // target depends on the actual enchants which aren't part of the key
+        Odds ret = new Odds();
+        ret.target = item.enchants + ENCHANTS_PER_RARITY - step;
+        ret.goldFactor = odds.goldFactor;
+        ret.scrolls = odds.scrolls;
+        ret.destroyChance = odds.destroyChance;
+        return ret;
+    }
+
+    private static Odds solve(int rarity, int step, int bonus) {
+        float p = Math.min(100, Util.ENCHANT + bonus) / 100f;
+        float d = Util.DESTROY_ITEM_IF_FAIL / 100f;
+        // chance an attempt ends the level one way or the other
+        float absorb = p + (1 - p) * d;
+        float attempts = 1 / absorb;
+        float success = p / absorb;
+
+        int levels = ENCHANTS_PER_RARITY - step;
+        // rarity only goes up after the last level so every level uses the same multiplier
+        float multiplier = expectedMultiplier(rarity);
+
+        // working backwards, gold and scrolls still to spend from the start of each level
+        float gold = 0;
+        float scrolls = 0;
+        float reach = 1;
+        for (int i = levels - 1; i >= 0; i--) {
+            gold = attempts + success * multiplier * gold;
+            scrolls = (bonus > 0 ? 1 : 0) + success * scrolls;
+            reach *= success;
+        }
+
+        Odds odds = new Odds();
+        odds.goldFactor = gold;
+        // the first level uses the scroll that's already on the item
+        odds.scrolls = Math.max(0, scrolls - 1);
+        odds.destroyChance = 1 - reach;
+        return odds;
+    }
+
+    private static float expectedMultiplier(int rarity) {
+        switch (rarity) {
+            case 0: return (Util.COMMON_ENCHANT_MIN + Util.COMMON_ENCHANT_MAX) / 2;
+            case 1: return (Util.RARE_ENCHANT_MIN + Util.RARE_ENCHANT_MAX) / 2;
+            case 2: return (Util.EPIC_ENCHANT_MIN + Util.EPIC_ENCHANT_MAX) / 2;
+            default: return (Util.LEGENDARY_ENCHANT_MIN + Util.LEGENDARY_ENCHANT_MAX) / 2;
+        }
+    }
+
+}
@@ -72,6 +72,16 @@ public class Equipment {
         return null;
     }
 
+    /**
+     * Unequips every equip
+     */
+    public void clear() {
+        for (int i = 0; i < NUM_SLOTS; i++) {
+            if (equips[i] != null) equips[i].equipped = false;
+            equips[i] = null;
+        }
+    }
+
     /**
      * Returns the equip from a specific index but does not remove it
      *
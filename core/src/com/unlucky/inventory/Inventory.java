@@ -1,20 +1,51 @@
 package com.unlucky.inventory;
 
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectIntMap;
+
 /**
  * An Inventory is a collection of Items arranged in a grid
  * This acts mainly as a collection class and functions to implement inventory management
  *
+ * Free slots are tracked in a bitmap so finding a free slot doesn't scan the items
+ * and each item's slot is kept in a map so items can be found without a search.
+ *
  * @author Ming Li
  */
 public class Inventory {
 
     // inventory dimensions
     public static final int NUM_SLOTS = 24;
+    // items kept in the menu that aren't carried into maps
+    public static final int STASH_SLOTS = 48;
 
+    // change slots through the methods so the free slots stay in sync
     public Item[] items;
+    public final int capacity;
+
+    // a set bit means the slot is free
+    private long[] free;
+    private int numItems = 0;
+    // slot of every item in the inventory
+    private ObjectIntMap<Item> slots;
+    // for sorting, filtering and searching
+    public final InventoryIndex indexes = new InventoryIndex();
 
     public Inventory() {
-        items = new Item[NUM_SLOTS];
+        this(NUM_SLOTS);
+    }
+
+    /**
+     * An inventory with any number of slots such as a stash
+     *
+     * @param capacity
+     */
+    public Inventory(int capacity) {
+        this.capacity = capacity;
+        items = new Item[capacity];
+        slots = new ObjectIntMap<Item>(capacity);
+        free = new long[(capacity + 63) / 64];
+        for (int i = 0; i < capacity; i++) free[i >> 6] |= 1L << i;
     }
 
     /**
@@ -24,8 +55,26 @@ public class Inventory {
      * @return
      */
     public int getFirstFreeSlotIndex() {
-        for (int i = 0; i < NUM_SLOTS; i++) {
-            if (items[i] == null) return i;
+        return getFirstFreeSlotIndex(0, capacity);
+    }
+
+    /**
+     * Returns the index of the first empty slot from index from up to but not including to
+     * Returns -1 if there are no free slots in that range
+     *
+     * @param from
+     * @param to
+     * @return
+     */
+    public int getFirstFreeSlotIndex(int from, int to) {
+        if (from >= to) return -1;
+        for (int w = from >> 6; w <= (to - 1) >> 6; w++) {
+            long bits = free[w];
+            if (w == from >> 6) bits &= -1L << (from & 63);
+            if (bits != 0) {
+                int i = (w << 6) + Long.numberOfTrailingZeros(bits);
+                return i < to ? i : -1;
+            }
         }
         return -1;
     }
@@ -41,6 +90,16 @@ public class Inventory {
         return items[index];
     }
 
+    /**
+     * Returns the slot of an Item or -1 if it isn't in the inventory
+     *
+     * @param item
+     * @return
+     */
+    public int indexOf(Item item) {
+        return slots.get(item, -1);
+    }
+
     /**
      * Returns whether or not a slot at an index is empty
      *
@@ -59,10 +118,23 @@ public class Inventory {
      * @return
      */
     public boolean addItem(Item item) {
-        int i = getFirstFreeSlotIndex();
+        return addItem(item, 0, capacity);
+    }
+
+    /**
+     * Adds an Item to the first available slot from index from up to but not including to
+     * such as a single page of a stash
+     * Returns false if item cannot be added
+     *
+     * @param item
+     * @param from
+     * @param to
+     * @return
+     */
+    public boolean addItem(Item item, int from, int to) {
+        int i = getFirstFreeSlotIndex(from, to);
         if (i != -1) {
-            items[i] = item;
-            item.index = i;
+            set(i, item);
             return true;
         }
         return false;
@@ -78,8 +150,7 @@ public class Inventory {
      */
     public boolean addItemAtIndex(Item item, int index) {
         if (isFreeSlot(index)) {
-            items[index] = item;
-            item.index = index;
+            set(index, item);
             return true;
         }
         return false;
@@ -91,7 +162,21 @@ public class Inventory {
      * @param index
      */
     public void removeItem(int index) {
-        if (items[index] != null) items[index] = null;
+        if (items[index] != null) takeItem(index);
+    }
+
+    /**
+     * Removes an Item from the inventory wherever it is
+     * Returns false if the item wasn't in the inventory
+     *
+     * @param item
+     * @return
+     */
+    public boolean removeItem(Item item) {
+        int index = indexOf(item);
+        if (index == -1) return false;
+        takeItem(index);
+        return true;
     }
 
     /**
@@ -101,13 +186,48 @@ public class Inventory {
      * @return
      */
     public Item takeItem(int index) {
-        Item ret = null;
-        if (items[index] != null) {
-            ret = items[index];
+        Item ret = items[index];
+        if (ret != null) {
             items[index] = null;
-            return ret;
+            slots.remove(ret, -1);
+            indexes.remove(ret);
+            free[index >> 6] |= 1L << index;
+            numItems--;
         }
-        return null;
+        return ret;
+    }
+
+    /**
+     * Updates the indexes of an item after its stats changed such as from enchanting
+     *
+     * @param item
+     */
+    public void reindex(Item item) {
+        if (indexOf(item) == -1) return;
+        indexes.remove(item);
+        indexes.add(item);
+    }
+
+    /**
+     * Moves items into the first slots in a given order
+     * Items not in the order keep their relative order after them
+     *
+     * @param order
+     */
+    public void arrange(Array<Item> order) {
+        // mark the slots of the ordered items so the rest are found in one pass
+        boolean[] ordered = new boolean[capacity];
+        for (int i = 0; i < order.size; i++) {
+            int index = indexOf(order.get(i));
+            if (index != -1) ordered[index] = true;
+        }
+        Array<Item> rest = new Array<Item>();
+        for (int i = 0; i < capacity; i++) {
+            if (items[i] != null && !ordered[i]) rest.add(items[i]);
+        }
+        clear();
+        for (int i = 0; i < order.size; i++) addItem(order.get(i));
+        for (int i = 0; i < rest.size; i++) addItem(rest.get(i));
     }
 
     /**
@@ -116,19 +236,27 @@ public class Inventory {
      * @return
      */
     public boolean isFull() {
-        for (int i = 0; i < NUM_SLOTS; i++) {
-            if (items[i] == null) return false;
-        }
-        return true;
+        return numItems == capacity;
     }
 
     /**
      * Clears every item in the inventory
      */
     public void clear() {
-        for (int i = 0; i < NUM_SLOTS; i++) {
-            removeItem(i);
-        }
+        for (int i = 0; i < capacity; i++) items[i] = null;
+        slots.clear();
+        indexes.clear();
+        for (int i = 0; i < capacity; i++) free[i >> 6] |= 1L << i;
+        numItems = 0;
+    }
+
+    private void set(int index, Item item) {
+        items[index] = item;
+        item.index = index;
+        slots.put(item, index);
+        free[index >> 6] &= ~(1L << index);
+        numItems++;
+        indexes.add(item);
     }
 
 }
@@ -0,0 +1,172 @@
+package com.unlucky.inventory;
+
+import com.badlogic.gdx.utils.Array;
+
+import java.util.Comparator;
+
+/**
+ * Secondary indexes over the items of an Inventory for sorting, filtering and searching
+ * The Inventory keeps them up to date as items are added, taken and enchanted
+ *
+ * Filtered queries start from the smallest matching type or rarity bucket and
+ * unfiltered sorted queries read a presorted index, so a query rarely looks at
+ * items it doesn't return.
+ *
+ * @author Ming Li
+ */
+public class InventoryIndex {
+
+    public static final int ANY = -1;
+
+    // sort orders
+    public static final int SORT_SLOT = 0;
+    // most valuable first
+    public static final int SORT_SELL = 1;
+    // most enchanted first
+    public static final int SORT_ENCHANTS = 2;
+
+    private static final int NUM_TYPES = 11;
+    private static final int NUM_RARITIES = 4;
+
+    /**
+     * What to look for in the inventory
+     * Fields left at their defaults don't filter anything
+     */
+    public static class Query {
+        public int type = ANY;
+        public int rarity = ANY;
+        public int minEnchants = 0;
+        // case insensitive part of the item name
+        public String text = null;
+        public int sort = SORT_SLOT;
+
+        public Query reset() {
+            type = rarity = ANY;
+            minEnchants = 0;
+            text = null;
+            sort = SORT_SLOT;
+            return this;
+        }
+    }
+
+    // ties are broken by slot so sorts are stable
+    private static final Comparator<Item> BY_SLOT = new Comparator<Item>() {
+        @Override
+        public int compare(Item a, Item b) {
+            return a.index - b.index;
+        }
+    };
+    private static final Comparator<Item> BY_SELL = new Comparator<Item>() {
+        @Override
+        public int compare(Item a, Item b) {
+            if (a.sell != b.sell) return a.sell > b.sell ? -1 : 1;
+            return a.index - b.index;
+        }
+    };
+    private static final Comparator<Item> BY_ENCHANTS = new Comparator<Item>() {
+        @Override
+        public int compare(Item a, Item b) {
+            if (a.enchants != b.enchants) return b.enchants - a.enchants;
+            return a.index - b.index;
+        }
+    };
+
+    private Array<Array<Item>> byType = new Array<Array<Item>>(NUM_TYPES);
+    private Array<Array<Item>> byRarity = new Array<Array<Item>>(NUM_RARITIES);
+    // kept sorted
+    private Array<Item> bySell = new Array<Item>();
+    private Array<Item> byEnchants = new Array<Item>();
+    private Array<Item> all = new Array<Item>(false, 16);
+
+    public InventoryIndex() {
+        for (int i = 0; i < NUM_TYPES; i++) byType.add(new Array<Item>(false, 8));
+        for (int i = 0; i < NUM_RARITIES; i++) byRarity.add(new Array<Item>(false, 8));
+    }
+
+    void add(Item item) {
+        all.add(item);
+        byType.get(item.type).add(item);
+        byRarity.get(item.rarity).add(item);
+        insertSorted(bySell, item, BY_SELL);
+        insertSorted(byEnchants, item, BY_ENCHANTS);
+    }
+
+    void remove(Item item) {
+        all.removeValue(item, true);
+        byType.get(item.type).removeValue(item, true);
+        // rarity may have changed since the item was indexed
+        for (int i = 0; i < NUM_RARITIES; i++) {
+            if (byRarity.get(i).removeValue(item, true)) break;
+        }
+        bySell.removeValue(item, true);
+        byEnchants.removeValue(item, true);
+    }
+
+    void clear() {
+        all.clear();
+        for (int i = 0; i < NUM_TYPES; i++) byType.get(i).clear();
+        for (int i = 0; i < NUM_RARITIES; i++) byRarity.get(i).clear();
+        bySell.clear();
+        byEnchants.clear();
+    }
+
+    /**
+     * Adds the items matching a query to an array in the query's order
+     *
+     * @param query
+     * @param out
+     */
+    public void find(Query query, Array<Item> out) {
+        out.clear();
+        Array<Item> source;
+        boolean presorted = false;
+        if (query.type != ANY || query.rarity != ANY) {
+            source = query.type == ANY ? byRarity.get(query.rarity) : byType.get(query.type);
+            if (query.rarity != ANY && query.type != ANY && byRarity.get(query.rarity).size < source.size)
+                source = byRarity.get(query.rarity);
+        }
+        else if (query.sort == SORT_SELL) {
+            source = bySell;
+            presorted = true;
+        }
+        else if (query.sort == SORT_ENCHANTS) {
+            source = byEnchants;
+            presorted = true;
+        }
+        else source = all;
+
+        String text = query.text == null ? null : query.text.toLowerCase();
+        for (int i = 0; i < source.size; i++) {
+            Item item = source.get(i);
+            if (query.type != ANY && item.type != query.type) continue;
+            if (query.rarity != ANY && item.rarity != query.rarity) continue;
+            if (item.enchants < query.minEnchants) continue;
+            if (text != null && !item.name.toLowerCase().contains(text)) continue;
+            out.add(item);
+        }
+
+        if (!presorted) out.sort(getComparator(query.sort));
+    }
+
+    private static Comparator<Item> getComparator(int sort) {
+        switch (sort) {
+            case SORT_SELL: return BY_SELL;
+            case SORT_ENCHANTS: return BY_ENCHANTS;
+            default: return BY_SLOT;
+        }
+    }
+
+    /**
+     * Binary search for the insert position so the array stays sorted
+     */
+    private static void insertSorted(Array<Item> array, Item item, Comparator<Item> comparator) {
+        int lo = 0, hi = array.size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (comparator.compare(array.get(mid), item) <= 0) lo = mid + 1;
+            else hi = mid;
+        }
+        array.insert(lo, item);
+    }
+
+}
@@ -1,5 +1,6 @@
 package com.unlucky.inventory;
 
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.scenes.scene2d.ui.Image;
 import com.unlucky.resource.ResourceManager;
@@ -73,11 +74,40 @@ public class Item {
     public int bonusEnchantChance = 0;
     // for enchant scrolls representing the bonus enchant percentage that the scroll gives
     public int eChance = 0;
+    // incremented whenever a saved field changes after the item is created
+    public int version = 0;
 
     // rendering
-    public Image actor;
+    // the actor is only created once the item is shown in a ui
+    private Image actor;
+    protected TextureRegion sprite;
     public int imgIndex;
 
+    /**
+     * Rolls a new item from a template of the item pool
+     *
+     * @param rm
+     * @param template
+     */
+    public Item(ResourceManager rm, ItemTemplate template) {
+        name = template.name;
+        desc = template.desc;
+        type = template.type;
+        rarity = template.rarity;
+        imgIndex = template.imgIndex;
+        minLevel = template.minLevel;
+        maxLevel = template.maxLevel;
+        hp = template.hp;
+        mhp = template.mhp;
+        dmg = template.dmg;
+        acc = template.acc;
+        exp = template.exp;
+        eChance = template.eChance;
+        sell = template.sell;
+        sprite = rm.items20x20[type][imgIndex];
+        labelName = name;
+    }
+
     /**
      * For potions
      * Only can be consumed for hp or sold for gold
@@ -100,7 +130,7 @@ public class Item {
         this.exp = exp;
         this.sell = sell;
         type = 0;
-        actor = new Image(rm.items20x20[0][imgIndex]);
+        sprite = rm.items20x20[0][imgIndex];
         labelName = name;
     }
 
@@ -123,7 +153,7 @@ public class Item {
         this.maxLevel = maxLevel;
         this.sell = sell;
         type = 1;
-        actor = new Image(rm.items20x20[1][imgIndex]);
+        sprite = rm.items20x20[1][imgIndex];
         labelName = name;
     }
 
@@ -154,7 +184,7 @@ public class Item {
         this.dmg = dmg;
         this.acc = acc;
         this.sell = sell;
-        actor = new Image(rm.items20x20[type][imgIndex]);
+        sprite = rm.items20x20[type][imgIndex];
         labelName = name;
     }
 
@@ -179,10 +209,27 @@ public class Item {
         this.eChance = eChance;
         this.sell = sell;
         type = 10;
-        actor = new Image(rm.items20x20[10][imgIndex]);
+        sprite = rm.items20x20[10][imgIndex];
         labelName = name;
     }
 
+    /**
+     * Returns the actor of the item, creating it the first time it's needed
+     *
+     * @return
+     */
+    public Image getActor() {
+        if (actor == null) actor = new Image(sprite);
+        return actor;
+    }
+
+    /**
+     * Removes the actor from its stage if it was ever created
+     */
+    public void removeActor() {
+        if (actor != null) actor.remove();
+    }
+
     /**
      * Adjusts the stats/attributes of an Item based on a given level
      * Only called once per item's existence
@@ -198,14 +245,12 @@ public class Item {
         int enchantSeed = MathUtils.random(50, 100);
         int sellSeed = sell / MathUtils.random(10, 15);
 
-        for (int i = 0; i < level - 1; i++) {
-            mhp += mhpSeed;
-            dmg += dmgSeed;
-            sell += sellSeed;
-        }
-        for (int i = 0; i < level; i++) {
-            enchantCost += enchantSeed;
+        if (level > 1) {
+            mhp += mhpSeed * (level - 1);
+            dmg += dmgSeed * (level - 1);
+            sell += sellSeed * (level - 1);
         }
+        if (level > 0) enchantCost += enchantSeed * level;
     }
 
     /**
@@ -285,6 +330,7 @@ public class Item {
         if (rarity > 3) rarity = 3;
         // enchant number indicator
         labelName = "+" + enchants + " " + name;
+        version++;
     }
 
     /**
@@ -0,0 +1,49 @@
+package com.unlucky.inventory;
+
+/**
+ * The static data of an item from items.json shared by every Item rolled from it
+ * Templates never change and have no actor so the item pool is cheap to load
+ *
+ * @author Ming Li
+ */
+public class ItemTemplate {
+
+    public final String name;
+    public final String desc;
+    // same values as Item.type
+    public final int type;
+    public final int rarity;
+    public final int imgIndex;
+
+    // the range of enemy levels that can drop this item
+    public final int minLevel;
+    public final int maxLevel;
+
+    // base stats
+    public final int hp;
+    public final int mhp;
+    public final int dmg;
+    public final int acc;
+    public final int exp;
+    public final int eChance;
+    public final int sell;
+
+    public ItemTemplate(String name, String desc, int type, int rarity, int imgIndex, int minLevel, int maxLevel,
+                        int hp, int mhp, int dmg, int acc, int exp, int eChance, int sell) {
+        this.name = name;
+        this.desc = desc;
+        this.type = type;
+        this.rarity = rarity;
+        this.imgIndex = imgIndex;
+        this.minLevel = minLevel;
+        this.maxLevel = maxLevel;
+        this.hp = hp;
+        this.mhp = mhp;
+        this.dmg = dmg;
+        this.acc = acc;
+        this.exp = exp;
+        this.eChance = eChance;
+        this.sell = sell;
+    }
+
+}
@@ -1,7 +1,6 @@
 package com.unlucky.inventory;
 
 import com.badlogic.gdx.math.MathUtils;
-import com.badlogic.gdx.scenes.scene2d.ui.Image;
 import com.unlucky.resource.ResourceManager;
 
 /**
@@ -30,7 +29,7 @@ public class ShopItem extends Item {
                     int imgIndex, int level, int hp, int exp, int sell, int price) {
         super(rm, name, desc, rarity, imgIndex, level, level, hp, exp, sell);
         this.price = price;
-        actor = new Image(rm.shopitems[0][imgIndex]);
+        sprite = rm.shopitems[0][imgIndex];
     }
 
     /**
@@ -51,7 +50,7 @@ public class ShopItem extends Item {
                     int imgIndex, int level, int mhp, int dmg, int acc, int sell, int price) {
         super(rm, name, desc, type, rarity, imgIndex, level, level, mhp, dmg, acc, sell);
         this.price = price;
-        actor = new Image(rm.shopitems[type - 1][imgIndex]);
+        sprite = rm.shopitems[type - 1][imgIndex];
         int enchantSeed = MathUtils.random(75, 225);
         for (int i = 0; i < level; i++) enchantCost += enchantSeed;
     }
@@ -72,7 +71,7 @@ public class ShopItem extends Item {
                     int eChance, int sell, int price) {
         super(rm, name, desc, rarity, imgIndex, level, level, eChance, sell);
         this.price = price;
-        actor = new Image(rm.shopitems[9][imgIndex]);
+        sprite = rm.shopitems[9][imgIndex];
     }
 
 }
@@ -2,6 +2,7 @@ package com.unlucky.main;
 
 import com.badlogic.gdx.Game;
 import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Screen;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.OrthographicCamera;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
@@ -11,6 +12,8 @@ import com.badlogic.gdx.scenes.scene2d.ui.Label;
 import com.unlucky.entity.Player;
 import com.unlucky.parallax.Background;
 import com.unlucky.resource.ResourceManager;
+import com.unlucky.resource.StartupProfiler;
+import com.unlucky.save.ProfileStore;
 import com.unlucky.save.Save;
 import com.unlucky.screen.*;
 import com.unlucky.screen.game.VictoryScreen;
@@ -37,30 +40,31 @@ public class Unlucky extends Game {
     public static final int V_HEIGHT = 120;
     public static final int V_SCALE = 6;
 
+    // max time spent loading assets each frame while the game is running in ms
+    private static final int BACKGROUND_LOAD_BUDGET = 4;
+
     // Rendering utilities
     public SpriteBatch batch;
 
     // Resources
     public ResourceManager rm;
+    public StartupProfiler startup;
 
     // Universal player
     public Player player;
 
-    // Game save
+    // Game save of the current profile
     public Save save;
+    public ProfileStore profiles;
+    // time played since the last whole second was added to the player's stats
+    private float playTime = 0;
 
     // Screens
-    public MenuScreen menuScreen;
-    public GameScreen gameScreen;
-    public WorldSelectScreen worldSelectScreen;
-    public LevelSelectScreen levelSelectScreen;
-    public InventoryScreen inventoryScreen;
-    public ShopScreen shopScreen;
-    public SpecialMoveScreen smoveScreen;
-    public StatisticsScreen statisticsScreen;
-    public InventoryUI inventoryUI;
-    public VictoryScreen victoryScreen;
-    public SettingsScreen settingsScreen;
+    public LoadingScreen loadingScreen;
+    // every other screen is created when it's first used
+    private ScreenRegistry screens;
+    // shared by the inventory screen and the in game inventory
+    private InventoryUI inventoryUI;
 
     // main bg
     public Background[] menuBackground;
@@ -69,31 +73,61 @@ public class Unlucky extends Game {
     public Label fps;
 
 	public void create() {
+        startup = new StartupProfiler();
+        startup.begin("batch");
         batch = new SpriteBatch();
-        rm = new ResourceManager();
+        startup.end();
+        // only loads what the loading screen needs
+        startup.begin("boot assets");
+        rm = new ResourceManager(startup);
+        startup.end();
+
+        startup.begin("loading screen");
+        loadingScreen = new LoadingScreen(this, rm);
+        startup.end();
+        loadingScreen.waitFor(ResourceManager.STAGE_MENU, new Runnable() {
+            @Override
+            public void run() {
+                createGame();
+            }
+        });
+
+        // profiler
+        GLProfiler.enable();
+
+        this.setScreen(loadingScreen);
+        // ends in createGame, spans the frames the loading screen is shown
+        startup.begin("menu assets");
+	}
+
+    /**
+     * Creates the player and screens once the assets for the menus are loaded
+     * The assets for maps and battles keep loading in the background
+     */
+    private void createGame() {
+        startup.end();
+        startup.begin("player");
         player = new Player("player", rm);
+        startup.end();
 
-        save = new Save(player, "save.json");
-        save.load(rm);
+        startup.begin("save load");
+        profiles = new ProfileStore(player, rm);
+        save = profiles.load();
+        startup.end();
 
         // debugging
         fps = new Label("", new Label.LabelStyle(rm.pixel10, Color.RED));
         fps.setFontScale(0.5f);
         fps.setVisible(player.settings.showFps);
 
-        inventoryUI = new InventoryUI(this, player, rm);
-        menuScreen = new MenuScreen(this, rm);
-        gameScreen = new GameScreen(this, rm);
-        worldSelectScreen = new WorldSelectScreen(this, rm);
-        levelSelectScreen = new LevelSelectScreen(this, rm);
-        inventoryScreen = new InventoryScreen(this, rm);
-        shopScreen = new ShopScreen(this, rm);
-        smoveScreen = new SpecialMoveScreen(this, rm);
-        statisticsScreen = new StatisticsScreen(this, rm);
-        victoryScreen = new VictoryScreen(this, rm);
-        settingsScreen = new SettingsScreen(this, rm);
+        startup.begin("menu screen");
+        screens = new ScreenRegistry(this, rm);
+        // the menu backgrounds use its camera
+        MenuScreen menuScreen = getMenuScreen();
+        startup.end();
 
         // create parallax background
+        startup.begin("background");
         menuBackground = new Background[3];
 
         // ordered by depth
@@ -109,33 +143,115 @@ public class Unlucky extends Game {
         menuBackground[2] = new Background(rm.titleScreenBackground[1],
             (OrthographicCamera) menuScreen.getStage().getCamera(), new Vector2(0.3f, 0));
         menuBackground[2].setVector(60, 0);
-
-        // profiler
-        GLProfiler.enable();
+        startup.end();
 
         this.setScreen(menuScreen);
-	}
+        startup.finish();
+    }
+
+    @Override
+    public void setScreen(Screen screen) {
+        super.setScreen(screen);
+        if (screens != null) screens.shown(screen);
+    }
+
+    public MenuScreen getMenuScreen() {
+        return (MenuScreen) screens.get(ScreenRegistry.MENU);
+    }
+
+    public GameScreen getGameScreen() {
+        return (GameScreen) screens.get(ScreenRegistry.GAME);
+    }
+
+    public WorldSelectScreen getWorldSelectScreen() {
+        return (WorldSelectScreen) screens.get(ScreenRegistry.WORLD_SELECT);
+    }
+
+    public LevelSelectScreen getLevelSelectScreen() {
+        return (LevelSelectScreen) screens.get(ScreenRegistry.LEVEL_SELECT);
+    }
+
+    public VictoryScreen getVictoryScreen() {
+        return (VictoryScreen) screens.get(ScreenRegistry.VICTORY);
+    }
+
+    public InventoryScreen getInventoryScreen() {
+        return (InventoryScreen) screens.get(ScreenRegistry.INVENTORY);
+    }
+
+    public ShopScreen getShopScreen() {
+        return (ShopScreen) screens.get(ScreenRegistry.SHOP);
+    }
+
+    public SpecialMoveScreen getSmoveScreen() {
+        return (SpecialMoveScreen) screens.get(ScreenRegistry.SMOVE);
+    }
+
+    public StatisticsScreen getStatisticsScreen() {
+        return (StatisticsScreen) screens.get(ScreenRegistry.STATISTICS);
+    }
+
+    public SettingsScreen getSettingsScreen() {
+        return (SettingsScreen) screens.get(ScreenRegistry.SETTINGS);
+    }
+
+    public InventoryUI getInventoryUI() {
+        if (inventoryUI == null) inventoryUI = new InventoryUI(this, player, rm);
+        return inventoryUI;
+    }
 
 	public void render() {
+        // still loading the menus
+        if (player == null) {
+            super.render();
+            return;
+        }
+
+        // stream in the rest of the assets while the menus are shown
+        if (getScreen() != loadingScreen) rm.update(BACKGROUND_LOAD_BUDGET);
+        rm.audio.update();
+
+        playTime += Gdx.graphics.getDeltaTime();
+        if (playTime >= 1) {
+            player.stats.playTime += (int) playTime;
+            playTime -= (int) playTime;
+        }
+        // switch to a profile that finished loading
+        if (profiles.update()) {
+            save = profiles.getSave();
+            fps.setVisible(player.settings.showFps);
+        }
+
         fps.setText(Gdx.graphics.getFramesPerSecond() + " fps");
         super.render();
     }
 
+    @Override
+    public void pause() {
+        super.pause();
+        if (profiles == null) return;
+        // the game may be killed while paused
+        profiles.updateMeta();
+        profiles.flush();
+    }
+
 	public void dispose() {
+        // the game may be closed before the menus finished loading
+        boolean created = player != null;
+        if (created) {
+            profiles.updateMeta();
+            profiles.flush();
+            save.profile();
+        }
         batch.dispose();
         super.dispose();
 
         rm.dispose();
-        menuScreen.dispose();
-        gameScreen.dispose();
-        worldSelectScreen.dispose();
-        levelSelectScreen.dispose();
-        inventoryScreen.dispose();
-        shopScreen.dispose();
-        statisticsScreen.dispose();
-        inventoryUI.dispose();
-        victoryScreen.dispose();
-        settingsScreen.dispose();
+        loadingScreen.dispose();
+        if (created) {
+            screens.dispose();
+            if (inventoryUI != null) inventoryUI.dispose();
+        }
 
         GLProfiler.disable();
 	}
@@ -1,5 +1,6 @@
 package com.unlucky.map;
 
+import com.badlogic.ashley.core.Entity;
 import com.badlogic.gdx.audio.Music;
 import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.OrthographicCamera;
@@ -11,9 +12,10 @@ import com.badlogic.gdx.utils.Array;
 import com.unlucky.effects.Particle;
 import com.unlucky.effects.ParticleFactory;
 import com.unlucky.entity.Player;
+import com.unlucky.entity.enemy.EnemyPool;
 import com.unlucky.event.EventState;
-import com.unlucky.inventory.Inventory;
 import com.unlucky.inventory.Item;
+import com.unlucky.map.component.WeatherComponent;
 import com.unlucky.resource.ResourceManager;
 import com.unlucky.resource.Util;
 import com.unlucky.screen.GameScreen;
@@ -36,24 +38,22 @@ public class GameMap {
     public int levelIndex;
     public int avgLevel;
 
-    // weather of map
-    public WeatherType weather;
+    // weather of map, updated by the tile map's WeatherSystem
+    private WeatherComponent weather;
     public boolean isDark;
 
     public TileMap tileMap;
     public Player player;
     private ParticleFactory particleFactory;
+    // recycles enemies between battles and maps
+    private EnemyPool enemyPool;
     public GameScreen gameScreen;
     private ResourceManager rm;
 
     public boolean renderLight;
-    private float lightningTime = 0;
-    private float durationTime = 0;
 
     // music
     public Music mapTheme;
-    // sfx
-    public long soundId;
 
     // what the player obtained during the map
     public Array<Item> itemsObtained;
@@ -72,6 +72,8 @@ public class GameMap {
         this.rm = rm;
         itemsObtained = new Array<Item>();
         particleFactory = new ParticleFactory(gameScreen.getCamera(), rm);
+        weather = new WeatherComponent(particleFactory);
+        enemyPool = new EnemyPool(rm);
     }
 
     /**
@@ -84,9 +86,8 @@ public class GameMap {
         this.levelIndex = levelIndex;
         this.avgLevel = rm.worlds.get(worldIndex).levels[levelIndex].avgLevel;
 
-        if (worldIndex == 0) mapTheme = rm.slimeForestTheme;
-        else if (worldIndex == 1) mapTheme = rm.spookyGraveyardTheme;
-        else if (worldIndex == 2) mapTheme = rm.frostyCaveTheme;
+        // the theme was usually prefetched when the world was selected
+        mapTheme = rm.retainWorldTheme(worldIndex);
 
         // reset
         itemsObtained.clear();
@@ -96,24 +97,18 @@ public class GameMap {
         player.completedMap = false;
         player.getAm().setAnimation(0);
 
-        tileMap = new TileMap(16, "maps/w" + worldIndex + "_l" + levelIndex + ".txt", new Vector2(0, 0), rm);
+        // pick up tuned drop rates
+        rm.loot.reloadIfModified();
+
+        tileMap = new TileMap(16, "maps/w" + worldIndex + "_l" + levelIndex + ".txt", new Vector2(0, 0), enemyPool, rm);
+        tileMap.engine.addEntity(new Entity().add(weather));
         // set lighting
         setDarkness(tileMap.dark);
         // set weather
         if (player.settings.showWeatherAnimations) setWeather(tileMap.weather);
         else setWeather(0);
 
-        // rain ambient sound
-        if (!player.settings.muteSfx) {
-            if (weather == WeatherType.RAIN) {
-                soundId = rm.lightrain.play(player.settings.sfxVolume);
-                rm.lightrain.setLooping(soundId, true);
-            }
-            else if (weather == WeatherType.HEAVY_RAIN || weather == WeatherType.THUNDERSTORM) {
-                soundId = rm.heavyrain.play(player.settings.sfxVolume);
-                rm.heavyrain.setLooping(soundId, true);
-            }
-        }
+        startAmbience();
 
         player.setMap(tileMap);
 
@@ -123,31 +118,59 @@ public class GameMap {
         }
     }
 
+    /**
+     * Starts looping the rain ambient sound of the weather
+     */
+    public void startAmbience() {
+        if (weather.type == WeatherType.RAIN) rm.audio.loop(rm.lightrain);
+        else if (weather.type == WeatherType.HEAVY_RAIN || weather.type == WeatherType.THUNDERSTORM) rm.audio.loop(rm.heavyrain);
+    }
+
+    public void stopAmbience() {
+        rm.audio.stopLoop(rm.lightrain);
+        rm.audio.stopLoop(rm.heavyrain);
+    }
+
+    /**
+     * Stops the map's music and lets its world theme be unloaded
+     * Called when the player leaves the map
+     */
+    public void exit() {
+        if (mapTheme == null) return;
+        mapTheme.stop();
+        mapTheme = null;
+        rm.releaseWorldTheme(worldIndex);
+    }
+
+    public WeatherType getWeather() {
+        return weather.type;
+    }
+
     /**
      * Changes the weather and sets the particle factory according to the weather
      *
      * @param weather
      */
     public void setWeather(int weather) {
-        if (weather == 0) this.weather = WeatherType.NORMAL;
+        if (weather == 0) this.weather.type = WeatherType.NORMAL;
         else if (weather == 1) {
-            this.weather = WeatherType.RAIN;
+            this.weather.type = WeatherType.RAIN;
             particleFactory.set(Particle.RAINDROP, 40, Util.RAIN_VELOCITY);
         }
         else if (weather == 2) {
-            this.weather = WeatherType.HEAVY_RAIN;
+            this.weather.type = WeatherType.HEAVY_RAIN;
             particleFactory.set(Particle.RAINDROP, 75, Util.HEAVY_RAIN_VELOCITY);
         }
         else if (weather == 3) {
-            this.weather = WeatherType.THUNDERSTORM;
+            this.weather.type = WeatherType.THUNDERSTORM;
             particleFactory.set(Particle.RAINDROP, 75, Util.HEAVY_RAIN_VELOCITY);
         }
         else if (weather == 4) {
-            this.weather = WeatherType.SNOW;
+            this.weather.type = WeatherType.SNOW;
             particleFactory.set(Particle.SNOWFLAKE, 100, Util.SNOW_VELOCITY);
         }
         else if (weather == 5) {
-            this.weather = WeatherType.BLIZZARD;
+            this.weather.type = WeatherType.BLIZZARD;
             particleFactory.set(Particle.SNOWFLAKE, 300, Util.BLIZZARD_VELOCITY);
         }
     }
@@ -165,10 +188,7 @@ public class GameMap {
      * Applies the penalties to the player
      */
     public void setDeath() {
-        if (weather != WeatherType.NORMAL) {
-            rm.lightrain.stop();
-            rm.heavyrain.stop();
-        }
+        rm.audio.stopLoops();
 
         // gold and exp lost
         int goldLost = (int) ((Util.DEATH_PENALTY / 100f) * (float) player.getGold());
@@ -192,12 +212,7 @@ public class GameMap {
         player.addGold(-goldLost);
         player.addExp(-expLost);
         if (itemsObtained.size != 0) {
-            for (Item item : itemsObtained) {
-                for (int i = 0; i < Inventory.NUM_SLOTS; i++) {
-                    if (player.inventory.getItem(i) == item)
-                        player.inventory.removeItem(i);
-                }
-            }
+            for (Item item : itemsObtained) player.inventory.removeItem(item);
         }
     }
 
@@ -209,11 +224,8 @@ public class GameMap {
         if (player.isBattling()) {
             gameScreen.hud.toggle(false);
             mapTheme.pause();
-            if (!player.settings.muteMusic) rm.battlestart.play(player.settings.musicVolume);
-            if (weather != WeatherType.NORMAL) {
-                rm.lightrain.stop(soundId);
-                rm.heavyrain.stop(soundId);
-            }
+            rm.audio.play(rm.battlestart);
+            stopAmbience();
             gameScreen.setCurrentEvent(EventState.TRANSITION);
             gameScreen.transition.start(EventState.MOVING, EventState.BATTLING);
         }
@@ -233,7 +245,7 @@ public class GameMap {
         // player stepped on teleport tile
         if (player.isTeleporting()) {
             gameScreen.hud.toggle(false);
-            if (!player.settings.muteSfx) rm.teleport.play(player.settings.sfxVolume);
+            rm.audio.play(rm.teleport);
             player.stats.numTeleports++;
             gameScreen.setCurrentEvent(EventState.TRANSITION);
             gameScreen.transition.start(EventState.MOVING, EventState.MOVING);
@@ -243,7 +255,7 @@ public class GameMap {
             player.getAm().stopAnimation();
             player.setHp(player.getMaxHp());
             player.inMap = false;
-            if (!player.settings.muteSfx) rm.finish.play(player.settings.sfxVolume);
+            rm.audio.play(rm.finish);
             // if the player beat this map and there are remaining maps in this world
             if (this.levelIndex == player.maxLevel && this.worldIndex == player.maxWorld &&
                 this.levelIndex != rm.worlds.get(worldIndex).numLevels - 1) {
@@ -257,17 +269,14 @@ public class GameMap {
                     player.maxLevel = 0;
                 }
             }
-            if (weather != WeatherType.NORMAL) {
-                rm.lightrain.stop(soundId);
-                rm.heavyrain.stop(soundId);
-            }
+            rm.audio.stopLoops();
             player.stats.numDungeonsWon++;
             player.stats.goldGainedFromMaps += goldObtained;
             gameScreen.getGame().save.save();
 
             gameScreen.setCurrentEvent(EventState.PAUSE);
             player.moving = -1;
-            gameScreen.getGame().victoryScreen.init(this);
+            gameScreen.getGame().getVictoryScreen().init(this);
             if (switchable) {
                 switchable = false;
                 gameScreen.hud.getStage().addAction(Actions.sequence(Actions.fadeOut(0.3f),
@@ -276,20 +285,15 @@ public class GameMap {
                         public void run() {
                             switchable = true;
                             gameScreen.setClickable(true);
-                            mapTheme.stop();
-                            gameScreen.getGame().setScreen(gameScreen.getGame().victoryScreen);
+                            exit();
+                            gameScreen.getGame().setScreen(gameScreen.getGame().getVictoryScreen());
                         }
                     })));
             }
         }
 
-        // update particles
-        if (weather != WeatherType.NORMAL) particleFactory.update(dt);
-        if (weather == WeatherType.THUNDERSTORM) lightningTime += dt;
     }
 
-    private boolean sfxPlayed = false;
-
     public void render(float dt, SpriteBatch batch, OrthographicCamera cam) {
         tileMap.renderBottomLayer(batch, cam);
 
@@ -299,26 +303,17 @@ public class GameMap {
         tileMap.renderTopLayer(batch, cam);
 
         // render particles
-        if (weather != WeatherType.NORMAL) particleFactory.render(batch);
+        if (weather.type != WeatherType.NORMAL) particleFactory.render(batch);
 
-        if (weather == WeatherType.THUNDERSTORM) {
+        if (weather.type == WeatherType.THUNDERSTORM) {
             // render flash of white lightning
-            if (lightningTime >= 7) {
-                durationTime += dt;
-                if (durationTime < 0.2f) {
-                    if (isDark) renderLight = false;
-                    if (!player.settings.muteSfx && !sfxPlayed) {
-                        rm.thunder.play(player.settings.sfxVolume);
-                        sfxPlayed = true;
-                    }
-                    batch.draw(rm.lightning, player.getPosition().x - 182, player.getPosition().y - 102);
-                }
-                if (durationTime > 0.2f) {
-                    lightningTime = 0;
-                    durationTime = 0;
-                    sfxPlayed = false;
-                    if (isDark) renderLight = true;
+            if (isDark) renderLight = !weather.flashing;
+            if (weather.flashing) {
+                if (!weather.thunderPlayed) {
+                    rm.audio.play(rm.thunder);
+                    weather.thunderPlayed = true;
                 }
+                batch.draw(rm.lightning, player.getPosition().x - 182, player.getPosition().y - 102);
             }
         }
 
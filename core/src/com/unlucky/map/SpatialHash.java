@@ -0,0 +1,113 @@
+package com.unlucky.map;
+
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+import com.unlucky.map.component.Mappers;
+import com.unlucky.map.component.PositionComponent;
+
+/**
+ * Uniform grid of map entities used to find the entities near a position
+ * without going through every entity on the map
+ * Only entities with a PositionComponent can be added
+ *
+ * @author Ming Li
+ */
+public class SpatialHash {
+
+    // size of a cell in map coordinates
+    private int cellSize;
+    private int cols;
+    private int rows;
+    private Array<Array<Entity>> cells;
+
+    public SpatialHash(int width, int height, int cellSize) {
+        this.cellSize = cellSize;
+        cols = Math.max(1, (width + cellSize - 1) / cellSize);
+        rows = Math.max(1, (height + cellSize - 1) / cellSize);
+        cells = new Array<Array<Entity>>(true, cols * rows);
+        for (int i = 0; i < cols * rows; i++) cells.add(new Array<Entity>(false, 4));
+    }
+
+    public void insert(Entity entity) {
+        PositionComponent p = Mappers.position.get(entity);
+        p.cell = cellOf(p.position.x, p.position.y);
+        cells.get(p.cell).add(entity);
+    }
+
+    public void remove(Entity entity) {
+        PositionComponent p = Mappers.position.get(entity);
+        if (p.cell == -1) return;
+        cells.get(p.cell).removeValue(entity, true);
+        p.cell = -1;
+    }
+
+    /**
+     * Moves an entity to a new cell if its position changed cells
+     *
+     * @param entity
+     */
+    public void update(Entity entity) {
+        PositionComponent p = Mappers.position.get(entity);
+        int cell = cellOf(p.position.x, p.position.y);
+        if (cell == p.cell) return;
+        remove(entity);
+        p.cell = cell;
+        cells.get(cell).add(entity);
+    }
+
+    /**
+     * Adds every entity in the cells overlapping a rectangle to an array
+     *
+     * @param x
+     * @param y
+     * @param width
+     * @param height
+     * @param out
+     */
+    public void query(float x, float y, float width, float height, Array<Entity> out) {
+        int c0 = clampCol(x), c1 = clampCol(x + width);
+        int r0 = clampRow(y), r1 = clampRow(y + height);
+        for (int r = r0; r <= r1; r++) {
+            for (int c = c0; c <= c1; c++) {
+                out.addAll(cells.get(r * cols + c));
+            }
+        }
+    }
+
+    /**
+     * Returns an entity within a distance of a position on both axes or null if there isn't one
+     *
+     * @param x
+     * @param y
+     * @param radius
+     * @return
+     */
+    public Entity find(float x, float y, float radius) {
+        int c0 = clampCol(x - radius), c1 = clampCol(x + radius);
+        int r0 = clampRow(y - radius), r1 = clampRow(y + radius);
+        for (int r = r0; r <= r1; r++) {
+            for (int c = c0; c <= c1; c++) {
+                Array<Entity> cell = cells.get(r * cols + c);
+                for (int i = 0; i < cell.size; i++) {
+                    Vector2 p = Mappers.position.get(cell.get(i)).position;
+                    if (Math.abs(p.x - x) < radius && Math.abs(p.y - y) < radius) return cell.get(i);
+                }
+            }
+        }
+        return null;
+    }
+
+    private int cellOf(float x, float y) {
+        return clampRow(y) * cols + clampCol(x);
+    }
+
+    private int clampCol(float x) {
+        return Math.max(0, Math.min(cols - 1, (int) Math.floor(x / cellSize)));
+    }
+
+    private int clampRow(float y) {
+        return Math.max(0, Math.min(rows - 1, (int) Math.floor(y / cellSize)));
+    }
+
+}
@@ -3,12 +3,10 @@ package com.unlucky.map;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.Vector2;
 import com.unlucky.animation.AnimationManager;
-import com.unlucky.entity.Entity;
 import com.unlucky.resource.Util;
 
 /**
- * Stores information about each tile on a map, including what it contains (Entity)
- * and how the player interacts with it
+ * Stores information about each tile on a map and how the player interacts with it
  *
  * @author Ming Li
  */
@@ -60,9 +58,6 @@ public class Tile {
     // coords
     public Vector2 tilePosition;
 
-    // The Entity a Tile could contain
-    public Entity hold;
-
     /**
      * A regular non-animated tile
      *
@@ -75,9 +70,6 @@ public class Tile {
         this.sprite = sprite;
         this.tilePosition = tilePosition;
 
-        // a Tile originally has no Entity
-        hold = null;
-
         animated = false;
 
         if (Util.isBlockedTile(id)) type = BLOCKED;
@@ -98,8 +90,6 @@ public class Tile {
         this.anim = anim;
         this.tilePosition = tilePosition;
 
-        hold = null;
-
         animated = true;
 
         if (Util.isBlockedAnimatedTile(id)) type = BLOCKED;
@@ -117,20 +107,6 @@ public class Tile {
         else type = NORMAL;
     }
 
-    public void addEntity(Entity e) {
-        if (!containsEntity()) hold = e;
-    }
-
-    public void removeEntity() {
-        if (hold != null) hold = null;
-    }
-
-    public Entity getEntity() { return hold; }
-
-    public boolean containsEntity() {
-        return hold != null;
-    }
-
     public boolean isBlocked() {
         return type == BLOCKED;
     }
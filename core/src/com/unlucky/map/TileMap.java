@@ -1,5 +1,7 @@
 package com.unlucky.map;
 
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.Entity;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.graphics.OrthographicCamera;
@@ -7,10 +9,20 @@ import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectMap;
 import com.unlucky.animation.AnimationManager;
-import com.unlucky.entity.Entity;
+import com.unlucky.entity.enemy.Enemy;
+import com.unlucky.entity.enemy.EnemyPool;
+import com.unlucky.map.component.EncounterComponent;
+import com.unlucky.map.component.Mappers;
+import com.unlucky.map.component.PositionComponent;
+import com.unlucky.map.component.RoamComponent;
+import com.unlucky.map.component.TileAnimationComponent;
+import com.unlucky.map.system.EncounterSystem;
+import com.unlucky.map.system.RoamSystem;
+import com.unlucky.map.system.TileAnimationSystem;
+import com.unlucky.map.system.WeatherSystem;
 import com.unlucky.resource.ResourceManager;
-import com.unlucky.resource.Util;
 
 /**
  * Creates a tilemap from a text file.
@@ -53,6 +65,9 @@ import com.unlucky.resource.Util;
  * A map will always have a bottom layer and tile map layer but does
  * not need to have a top layer
  *
+ * Enemies, animated tiles and the weather are entities in an Ashley engine
+ * and are updated by its systems
+ *
  * @author Ming Li
  */
 public class TileMap {
@@ -71,6 +86,8 @@ public class TileMap {
     public int mapWidth;
     public int mapHeight;
     public boolean[] collisionMap;
+    // tiles roaming enemies can walk on
+    private boolean[] walkable;
 
     public Vector2 origin;
     public Vector2 playerSpawn;
@@ -78,12 +95,28 @@ public class TileMap {
     public boolean dark;
     public int weather;
 
+    // entities on the map
+    public final Engine engine = new Engine();
+    private EncounterSystem encounters;
+
+    // creates enemies from map entities when they're encountered
+    private EnemyPool enemyPool;
+    // the enemy the player is battling
+    private Entity encountered;
+    // enemies visible to the camera, reused every frame
+    private Array<Entity> visibleEnemies = new Array<Entity>();
+
+    // one animation for every distinct animated tile format, shared by its tiles
+    // so updating doesn't go through every tile of the map
+    private ObjectMap<String, AnimationManager> tileAnimsByFormat = new ObjectMap<String, AnimationManager>();
+
     // res
     private ResourceManager rm;
 
-    public TileMap(int tileSize, String path, Vector2 origin, ResourceManager rm) {
+    public TileMap(int tileSize, String path, Vector2 origin, EnemyPool enemyPool, ResourceManager rm) {
         this.tileSize = tileSize;
         this.origin = origin;
+        this.enemyPool = enemyPool;
         this.rm = rm;
 
         playerSpawn = new Vector2();
@@ -103,6 +136,13 @@ public class TileMap {
 
         bottomLayer = new TextureRegion[mapWidth * mapHeight];
         tileMap = new Tile[mapWidth * mapHeight];
+        walkable = new boolean[mapWidth * mapHeight];
+        // spatial hash cells are 4x4 tiles
+        encounters = new EncounterSystem(mapWidth * tileSize, mapHeight * tileSize, tileSize * 4);
+        engine.addSystem(encounters);
+        engine.addSystem(new RoamSystem(mapWidth, mapHeight, tileSize, walkable));
+        engine.addSystem(new TileAnimationSystem());
+        engine.addSystem(new WeatherSystem());
         topLayer = new TextureRegion[mapWidth * mapHeight];
 
         createBottomLayer();
@@ -112,6 +152,7 @@ public class TileMap {
         collisionMap = new boolean[mapWidth * mapHeight];
         for (int i = 0; i < collisionMap.length; i++) {
             collisionMap[i] = tileMap[i].isBlocked();
+            updateWalkable(i);
         }
     }
 
@@ -172,7 +213,13 @@ public class TileMap {
                     TextureRegion none = null;
                     // an entity is placed onto a tile with id -1 meaning empty tile with no texture
                     t = new Tile(-1, none, new Vector2(x, y));
-                    t.addEntity(Util.getEntity(entityID, toMapCoords(x, y), this, rm));
+                    // the enemy itself is only created when it's encountered
+                    Entity enemy = new Entity();
+                    enemy.add(new PositionComponent(x * tileSize, y * tileSize));
+                    enemy.add(new EncounterComponent(entityID, enemyPool.getWalkAnimation(entityID)));
+                    // bosses stay on their spawn tile
+                    if (!enemyPool.isBoss(entityID)) enemy.add(new RoamComponent(x, y));
+                    engine.addEntity(enemy);
                 }
                 // check for animated tile format
                 else if (temp.startsWith("a")) {
@@ -183,7 +230,13 @@ public class TileMap {
                     int numFrames = Integer.parseInt(trivalue[1]);
                     int fps = Integer.parseInt(trivalue[2]);
 
-                    AnimationManager anim = new AnimationManager(rm.atiles16x16, numFrames, animIndex, (float) 1 / fps);
+                    // tiles with the same format animate in sync so they can share one animation
+                    AnimationManager anim = tileAnimsByFormat.get(removeSymbol);
+                    if (anim == null) {
+                        anim = new AnimationManager(rm.atiles16x16, numFrames, animIndex, (float) 1 / fps);
+                        tileAnimsByFormat.put(removeSymbol, anim);
+                        engine.addEntity(new Entity().add(new TileAnimationComponent(anim)));
+                    }
 
                     t = new Tile(animIndex + 96, anim, new Vector2(x, y));
                 }
@@ -232,14 +285,8 @@ public class TileMap {
     }
 
     public void update(float dt) {
-        for (int i = 0; i < tileMap.length; i++) {
-            if (tileMap[i].containsEntity()) {
-                tileMap[i].getEntity().update(dt);
-            }
-            if (tileMap[i].animated) {
-                tileMap[i].anim.update(dt);
-            }
-        }
+        enemyPool.update(dt);
+        engine.update(dt);
     }
 
     /**
@@ -263,12 +310,31 @@ public class TileMap {
                 if (!tileMap[i].animated && tileMap[i].isSpecial() && tileMap[i].sprite != null) {
                     batch.draw(tileMap[i].sprite, origin.x + c * tileSize, origin.y + r * tileSize);
                 }
-                // drawing an entity on a Tile
-                if (tileMap[i].containsEntity()) {
-                    tileMap[i].getEntity().render(batch, true);
-                }
             }
         }
+        renderEnemies(batch, cam);
+    }
+
+    /**
+     * Renders the enemies near the camera using the spatial hash
+     *
+     * @param batch
+     * @param cam map camera
+     */
+    private void renderEnemies(SpriteBatch batch, OrthographicCamera cam) {
+        // same bounds as tileInsideCamera
+        int xOffset = tileSize * 7;
+        int yOffset = tileSize * 5;
+        visibleEnemies.clear();
+        encounters.query(cam.position.x - xOffset - tileSize, cam.position.y - yOffset,
+            2 * xOffset + tileSize, 2 * yOffset, visibleEnemies);
+        for (int i = 0; i < visibleEnemies.size; i++) {
+            Entity enemy = visibleEnemies.get(i);
+            Vector2 position = Mappers.position.get(enemy).position;
+            // draw shadow
+            batch.draw(rm.shadow11x6, position.x + 3, position.y - 3);
+            batch.draw(Mappers.encounter.get(enemy).walkAnim.getKeyFrame(true), position.x, position.y);
+        }
     }
 
     /**
@@ -353,85 +419,36 @@ public class TileMap {
     }
 
     /**
-     * Adds an Entity to a specific tile on the map
+     * Returns the Enemy the player runs into at a position or null if there isn't one
+     * The full Enemy is created from its spawn here
      *
-     * @param entity
-     * @param tileX
-     * @param tileY
-     */
-    public void addEntity(Entity entity, int tileX, int tileY) {
-        tileMap[tileY * mapWidth + tileX].addEntity(entity);
-    }
-
-    /**
-     * Vector2 version
-     *
-     * @param entity
-     * @param coords
-     */
-    public void addEntity(Entity entity, Vector2 coords) {
-        tileMap[(int) (coords.y * mapWidth + coords.x)].addEntity(entity);
-    }
-
-    /**
-     * Removes an Entity at a specific tile on the map
-     *
-     * @param tileX
-     * @param tileY
-     */
-    public void removeEntity(int tileX, int tileY) {
-        tileMap[tileY * mapWidth + tileX].removeEntity();
-    }
-
-    /**
-     * Vector2 version
-     *
-     * @param coords
-     */
-    public void removeEntity(Vector2 coords) {
-        tileMap[(int) (coords.y * mapWidth + coords.x)].removeEntity();
-    }
-
-    /**
-     * Gets an Entity from a specific tile on the map
-     *
-     * @param tileX
-     * @param tileY
+     * @param position player position in map coordinates
      * @return
      */
-    public Entity getEntity(int tileX, int tileY) {
-        return tileMap[tileY * mapWidth + tileX].getEntity();
+    public Enemy encounterEnemy(Vector2 position) {
+        Entity entity = encounters.find(position.x, position.y, tileSize / 2f);
+        if (entity == null) return null;
+        encountered = entity;
+        // line the enemy up with the player's tile for the battle
+        RoamComponent roam = Mappers.roam.get(entity);
+        if (roam != null) roam.moving = false;
+        PositionComponent p = Mappers.position.get(entity);
+        p.position.set(position);
+        encounters.moved(entity);
+
+        EncounterComponent encounter = Mappers.encounter.get(entity);
+        if (encounter.enemy != null) return encounter.enemy;
+        return enemyPool.obtain(encounter, p.position, this);
     }
 
     /**
-     * Vector2 version
-     *
-     * @param coords
-     * @return
+     * Removes the enemy the player battled and recycles its Enemy
      */
-    public Entity getEntity(Vector2 coords) {
-        return tileMap[(int) (coords.y * mapWidth + coords.x)].getEntity();
-    }
-
-    /**
-     * Determines if there's an Entity on a specific tile on the map
-     *
-     * @param tileX
-     * @param tileY
-     * @return
-     */
-    public boolean containsEntity(int tileX, int tileY) {
-        return tileMap[tileY * mapWidth + tileX].containsEntity();
-    }
-
-    /**
-     * Vector2 version
-     *
-     * @param coords
-     * @return
-     */
-    public boolean containsEntity(Vector2 coords) {
-        return tileMap[(int) (coords.y * mapWidth + coords.x)].containsEntity();
+    public void removeEncounteredEnemy() {
+        if (encountered == null) return;
+        enemyPool.free(Mappers.encounter.get(encountered));
+        engine.removeEntity(encountered);
+        encountered = null;
     }
 
     /**
@@ -442,6 +459,7 @@ public class TileMap {
      */
     public void setTile(int tileX, int tileY, Tile tile) {
         tileMap[tileY * mapWidth + tileX] = tile;
+        updateWalkable(tileY * mapWidth + tileX);
     }
 
     /**
@@ -451,7 +469,7 @@ public class TileMap {
      * @param tile
      */
     public void setTile(Vector2 tilePosition, Tile tile) {
-        tileMap[(int) (tilePosition.y * mapWidth + tilePosition.x)] = tile;
+        setTile((int) tilePosition.x, (int) tilePosition.y, tile);
     }
 
     /**
@@ -464,7 +482,17 @@ public class TileMap {
     public void setTile(int tileX, int tileY, int id) {
         int r = id / rm.tiles16x16[0].length;
         int c = id % rm.tiles16x16.length;
-        tileMap[tileY * mapWidth + tileX] = new Tile(id, rm.tiles16x16[r][c], new Vector2(tileX, tileY));
+        setTile(tileX, tileY, new Tile(id, rm.tiles16x16[r][c], new Vector2(tileX, tileY)));
+    }
+
+    /**
+     * Roaming enemies only walk on normal tiles
+     *
+     * @param index
+     */
+    private void updateWalkable(int index) {
+        Tile t = tileMap[index];
+        walkable[index] = !t.isBlocked() && !t.isSpecial();
     }
 
     /**
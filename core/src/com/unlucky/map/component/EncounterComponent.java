@@ -0,0 +1,32 @@
+package com.unlucky.map.component;
+
+import com.badlogic.ashley.core.Component;
+import com.unlucky.animation.AnimationManager;
+import com.unlucky.entity.enemy.Enemy;
+import com.unlucky.resource.Util;
+
+/**
+ * An enemy on the map that the player battles by running into it
+ * The full Enemy is only created from an EnemyPool when the player encounters it
+ *
+ * @author Ming Li
+ */
+public class EncounterComponent implements Component {
+
+    // entity id from the map file
+    public int type;
+    // elite status is rolled when the map is created
+    public boolean elite;
+
+    // walking animation shared with every enemy of the same type
+    public AnimationManager walkAnim;
+    // the enemy this was materialized into if it's being battled
+    public Enemy enemy;
+
+    public EncounterComponent(int type, AnimationManager walkAnim) {
+        this.type = type;
+        this.walkAnim = walkAnim;
+        elite = Util.isSuccess(Util.ELITE_CHANCE);
+    }
+
+}
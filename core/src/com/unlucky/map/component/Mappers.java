@@ -0,0 +1,18 @@
+package com.unlucky.map.component;
+
+import com.badlogic.ashley.core.ComponentMapper;
+
+/**
+ * Component lookups shared by every system
+ *
+ * @author Ming Li
+ */
+public class Mappers {
+
+    public static final ComponentMapper<PositionComponent> position = ComponentMapper.getFor(PositionComponent.class);
+    public static final ComponentMapper<EncounterComponent> encounter = ComponentMapper.getFor(EncounterComponent.class);
+    public static final ComponentMapper<RoamComponent> roam = ComponentMapper.getFor(RoamComponent.class);
+    public static final ComponentMapper<TileAnimationComponent> tileAnimation = ComponentMapper.getFor(TileAnimationComponent.class);
+    public static final ComponentMapper<WeatherComponent> weather = ComponentMapper.getFor(WeatherComponent.class);
+
+}
@@ -0,0 +1,21 @@
+package com.unlucky.map.component;
+
+import com.badlogic.ashley.core.Component;
+import com.badlogic.gdx.math.Vector2;
+
+/**
+ * Position of a map entity in map coordinates
+ *
+ * @author Ming Li
+ */
+public class PositionComponent implements Component {
+
+    public final Vector2 position = new Vector2();
+    // index of the spatial hash cell the entity is in
+    public int cell = -1;
+
+    public PositionComponent(float x, float y) {
+        position.set(x, y);
+    }
+
+}
@@ -0,0 +1,29 @@
+package com.unlucky.map.component;
+
+import com.badlogic.ashley.core.Component;
+import com.badlogic.gdx.math.Vector2;
+
+/**
+ * A map entity that wanders around the tile it was placed on
+ *
+ * @author Ming Li
+ */
+public class RoamComponent implements Component {
+
+    // the tile the entity was placed on in the map file
+    public int homeX;
+    public int homeY;
+    // position the entity is walking to in map coordinates
+    public final Vector2 target = new Vector2();
+    public boolean moving = false;
+    // time when the entity decides where to go next
+    public float nextStep;
+    // time the entity last stepped towards its target
+    public float lastStep;
+
+    public RoamComponent(int homeX, int homeY) {
+        this.homeX = homeX;
+        this.homeY = homeY;
+    }
+
+}
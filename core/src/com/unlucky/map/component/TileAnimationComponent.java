@@ -0,0 +1,19 @@
+package com.unlucky.map.component;
+
+import com.badlogic.ashley.core.Component;
+import com.unlucky.animation.AnimationManager;
+
+/**
+ * An animation shared by every animated tile of the same format
+ *
+ * @author Ming Li
+ */
+public class TileAnimationComponent implements Component {
+
+    public AnimationManager anim;
+
+    public TileAnimationComponent(AnimationManager anim) {
+        this.anim = anim;
+    }
+
+}
@@ -0,0 +1,31 @@
+package com.unlucky.map.component;
+
+import com.badlogic.ashley.core.Component;
+import com.unlucky.effects.ParticleFactory;
+import com.unlucky.map.WeatherType;
+
+/**
+ * Weather of a map with its particles and lightning timer
+ *
+ * @author Ming Li
+ */
+public class WeatherComponent implements Component {
+
+    public WeatherType type = WeatherType.NORMAL;
+    // rain or snow, can be null for maps that never show particles
+    public ParticleFactory particles;
+
+    // time since the last lightning flash in a thunderstorm
+    public float lightningTime = 0;
+    // time the current flash has been shown
+    public float flashTime = 0;
+    // a lightning flash is being shown
+    public boolean flashing = false;
+    // the thunder of the current flash was played
+    public boolean thunderPlayed = false;
+
+    public WeatherComponent(ParticleFactory particles) {
+        this.particles = particles;
+    }
+
+}
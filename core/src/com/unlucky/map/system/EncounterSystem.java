@@ -0,0 +1,92 @@
+package com.unlucky.map.system;
+
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.EntityListener;
+import com.badlogic.ashley.core.EntitySystem;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.ashley.utils.ImmutableArray;
+import com.badlogic.gdx.utils.Array;
+import com.unlucky.map.SpatialHash;
+import com.unlucky.map.component.EncounterComponent;
+import com.unlucky.map.component.PositionComponent;
+
+/**
+ * Keeps the enemies on the map in a spatial hash so the ones the player runs into
+ * or the camera sees are found without going through every enemy
+ *
+ * @author Ming Li
+ */
+public class EncounterSystem extends EntitySystem implements EntityListener {
+
+    private final Family family = Family.all(PositionComponent.class, EncounterComponent.class).get();
+    private final SpatialHash hash;
+
+    /**
+     * @param width of the map in map coordinates
+     * @param height of the map in map coordinates
+     * @param cellSize of the spatial hash
+     */
+    public EncounterSystem(int width, int height, int cellSize) {
+        hash = new SpatialHash(width, height, cellSize);
+        // only reacts to entities being added or removed
+        setProcessing(false);
+    }
+
+    @Override
+    public void addedToEngine(Engine engine) {
+        ImmutableArray<Entity> entities = engine.getEntitiesFor(family);
+        for (int i = 0; i < entities.size(); i++) hash.insert(entities.get(i));
+        engine.addEntityListener(family, this);
+    }
+
+    @Override
+    public void removedFromEngine(Engine engine) {
+        engine.removeEntityListener(this);
+    }
+
+    @Override
+    public void entityAdded(Entity entity) {
+        hash.insert(entity);
+    }
+
+    @Override
+    public void entityRemoved(Entity entity) {
+        hash.remove(entity);
+    }
+
+    /**
+     * Returns an enemy within a distance of a position on both axes or null if there isn't one
+     *
+     * @param x
+     * @param y
+     * @param radius
+     * @return
+     */
+    public Entity find(float x, float y, float radius) {
+        return hash.find(x, y, radius);
+    }
+
+    /**
+     * Adds every enemy that could be in a rectangle to an array
+     *
+     * @param x
+     * @param y
+     * @param width
+     * @param height
+     * @param out
+     */
+    public void query(float x, float y, float width, float height, Array<Entity> out) {
+        hash.query(x, y, width, height, out);
+    }
+
+    /**
+     * Moves an enemy to the right cell after its position changed
+     *
+     * @param entity
+     */
+    public void moved(Entity entity) {
+        hash.update(entity);
+    }
+
+}
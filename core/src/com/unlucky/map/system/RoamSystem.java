@@ -0,0 +1,185 @@
+package com.unlucky.map.system;
+
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.EntityListener;
+import com.badlogic.ashley.core.EntitySystem;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.ashley.utils.ImmutableArray;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+import com.unlucky.map.component.EncounterComponent;
+import com.unlucky.map.component.Mappers;
+import com.unlucky.map.component.PositionComponent;
+import com.unlucky.map.component.RoamComponent;
+
+/**
+ * Moves roaming enemies around their spawn tile
+ *
+ * Moving enemies step towards their target tile and idle enemies decide where to go next.
+ * Both are spread over frames: enemies are visited round robin until a fixed time budget
+ * per frame runs out and the next frame continues where the last one stopped. A moving
+ * enemy covers the distance for all the time since it last moved so skipped frames don't
+ * slow it down, and its spatial hash cell is updated on every step.
+ * Enemies being battled don't move. Needs an EncounterSystem added to the engine first.
+ *
+ * @author Ming Li
+ */
+public class RoamSystem extends EntitySystem implements EntityListener {
+
+    // time moving and deciding can take each frame in nanoseconds
+    private static final long BUDGET = 500000L;
+    // how many enemies are visited between checks of the clock
+    private static final int CHECK_INTERVAL = 32;
+    // max distance from the spawn tile in tiles
+    private static final int ROAM_RADIUS = 3;
+    // map units per second
+    private static final float ROAM_SPEED = 20.f;
+    // seconds an enemy waits between steps
+    private static final float MIN_IDLE = 1.f;
+    private static final float MAX_IDLE = 4.f;
+
+    private final Family family = Family.all(PositionComponent.class, RoamComponent.class, EncounterComponent.class).get();
+
+    // tiles enemies can walk on
+    private int mapWidth;
+    private int mapHeight;
+    private int tileSize;
+    private boolean[] walkable;
+
+    private EncounterSystem encounters;
+    private ImmutableArray<Entity> roamers;
+    // roamers walking to their target, unordered
+    private Array<Entity> walkers = new Array<Entity>(false, 16);
+
+    // next roamer to visit
+    private int cursor = 0;
+    // next walker to visit
+    private int walkCursor = 0;
+    // seconds since the map started
+    private float clock = 0;
+
+    /**
+     * @param mapWidth in tiles
+     * @param mapHeight in tiles
+     * @param tileSize
+     * @param walkable for every tile if enemies can walk on it, updated by the map when tiles change
+     */
+    public RoamSystem(int mapWidth, int mapHeight, int tileSize, boolean[] walkable) {
+        this.mapWidth = mapWidth;
+        this.mapHeight = mapHeight;
+        this.tileSize = tileSize;
+        this.walkable = walkable;
+    }
+
+    @Override
+    public void addedToEngine(Engine engine) {
+        encounters = engine.getSystem(EncounterSystem.class);
+        roamers = engine.getEntitiesFor(family);
+        for (int i = 0; i < roamers.size(); i++) entityAdded(roamers.get(i));
+        engine.addEntityListener(family, this);
+    }
+
+    @Override
+    public void removedFromEngine(Engine engine) {
+        engine.removeEntityListener(this);
+        walkers.clear();
+    }
+
+    @Override
+    public void entityAdded(Entity entity) {
+        Mappers.roam.get(entity).nextStep = clock + MathUtils.random(MIN_IDLE, MAX_IDLE);
+    }
+
+    @Override
+    public void entityRemoved(Entity entity) {
+        walkers.removeValue(entity, true);
+    }
+
+    @Override
+    public void update(float dt) {
+        clock += dt;
+        int n = roamers.size();
+        if (n == 0) return;
+
+        long start = System.nanoTime();
+
+        // movement
+        int numWalkers = walkers.size;
+        for (int i = 0; i < numWalkers && walkers.size > 0; i++) {
+            if (i % CHECK_INTERVAL == 0 && System.nanoTime() - start > BUDGET) return;
+            if (walkCursor >= walkers.size) walkCursor = 0;
+            // a walker that stopped is replaced by the last one which is visited next
+            if (!walk(walkers.get(walkCursor))) walkers.removeIndex(walkCursor);
+            else walkCursor++;
+        }
+
+        // decisions
+        for (int i = 0; i < n; i++) {
+            if (i % CHECK_INTERVAL == 0 && System.nanoTime() - start > BUDGET) break;
+            if (cursor >= n) cursor = 0;
+            Entity entity = roamers.get(cursor++);
+            RoamComponent roam = Mappers.roam.get(entity);
+            if (!roam.moving && Mappers.encounter.get(entity).enemy == null && clock >= roam.nextStep) {
+                chooseStep(entity, roam);
+            }
+        }
+    }
+
+    /**
+     * Steps a walker towards its target
+     *
+     * @param entity
+     * @return false if the walker stopped
+     */
+    private boolean walk(Entity entity) {
+        RoamComponent roam = Mappers.roam.get(entity);
+        // stopped by an encounter
+        if (!roam.moving) return false;
+        Vector2 position = Mappers.position.get(entity).position;
+        float step = ROAM_SPEED * (clock - roam.lastStep);
+        roam.lastStep = clock;
+        position.x = approach(position.x, roam.target.x, step);
+        position.y = approach(position.y, roam.target.y, step);
+        encounters.moved(entity);
+        if (position.x == roam.target.x && position.y == roam.target.y) {
+            roam.moving = false;
+            roam.nextStep = clock + MathUtils.random(MIN_IDLE, MAX_IDLE);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Picks a random adjacent tile to walk to
+     * Enemies only walk on walkable tiles near their spawn
+     */
+    private void chooseStep(Entity entity, RoamComponent roam) {
+        Vector2 position = Mappers.position.get(entity).position;
+        int x = (int) (position.x / tileSize);
+        int y = (int) (position.y / tileSize);
+        switch (MathUtils.random(3)) {
+            case 0: y--; break;
+            case 1: y++; break;
+            case 2: x--; break;
+            case 3: x++; break;
+        }
+        roam.nextStep = clock + MathUtils.random(MIN_IDLE, MAX_IDLE);
+
+        if (x < 0 || y < 0 || x >= mapWidth || y >= mapHeight) return;
+        if (Math.abs(x - roam.homeX) > ROAM_RADIUS || Math.abs(y - roam.homeY) > ROAM_RADIUS) return;
+        if (!walkable[y * mapWidth + x]) return;
+
+        roam.target.set(x * tileSize, y * tileSize);
+        roam.moving = true;
+        roam.lastStep = clock;
+        walkers.add(entity);
+    }
+
+    private static float approach(float value, float target, float step) {
+        if (Math.abs(target - value) <= step) return target;
+        return value < target ? value + step : value - step;
+    }
+
+}
@@ -0,0 +1,26 @@
+package com.unlucky.map.system;
+
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.ashley.systems.IteratingSystem;
+import com.unlucky.map.component.Mappers;
+import com.unlucky.map.component.TileAnimationComponent;
+
+/**
+ * Updates the animations of animated tiles
+ * There is one entity per distinct animated tile format so this doesn't grow with the map size
+ *
+ * @author Ming Li
+ */
+public class TileAnimationSystem extends IteratingSystem {
+
+    public TileAnimationSystem() {
+        super(Family.all(TileAnimationComponent.class).get());
+    }
+
+    @Override
+    protected void processEntity(Entity entity, float dt) {
+        Mappers.tileAnimation.get(entity).anim.update(dt);
+    }
+
+}
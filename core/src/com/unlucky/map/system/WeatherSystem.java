@@ -0,0 +1,46 @@
+package com.unlucky.map.system;
+
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.ashley.systems.IteratingSystem;
+import com.unlucky.map.WeatherType;
+import com.unlucky.map.component.Mappers;
+import com.unlucky.map.component.WeatherComponent;
+
+/**
+ * Moves weather particles and times the lightning flashes of thunderstorms
+ *
+ * @author Ming Li
+ */
+public class WeatherSystem extends IteratingSystem {
+
+    // seconds between lightning flashes
+    public static final float LIGHTNING_INTERVAL = 7;
+    // seconds a flash is shown
+    public static final float FLASH_LENGTH = 0.2f;
+
+    public WeatherSystem() {
+        super(Family.all(WeatherComponent.class).get());
+    }
+
+    @Override
+    protected void processEntity(Entity entity, float dt) {
+        WeatherComponent w = Mappers.weather.get(entity);
+        if (w.type != WeatherType.NORMAL && w.particles != null) w.particles.update(dt);
+
+        if (w.type != WeatherType.THUNDERSTORM) {
+            w.flashing = false;
+            return;
+        }
+        w.lightningTime += dt;
+        if (w.lightningTime < LIGHTNING_INTERVAL) return;
+        w.flashTime += dt;
+        w.flashing = w.flashTime < FLASH_LENGTH;
+        if (!w.flashing) {
+            w.lightningTime = 0;
+            w.flashTime = 0;
+            w.thunderPlayed = false;
+        }
+    }
+
+}
@@ -0,0 +1,65 @@
+package com.unlucky.resource;
+
+import com.badlogic.gdx.math.MathUtils;
+
+/**
+ * Samples an index from a discrete distribution in constant time with Vose's alias method
+ * Building the table is linear in the number of outcomes
+ *
+ * @author Ming Li
+ */
+public class AliasTable {
+
+    private double[] prob;
+    private int[] alias;
+
+    /**
+     * Weights don't have to add up to 1 but at least one has to be positive
+     *
+     * @param weights
+     */
+    public AliasTable(double[] weights) {
+        int n = weights.length;
+        prob = new double[n];
+        alias = new int[n];
+
+        double total = 0;
+        for (int i = 0; i < n; i++) total += weights[i];
+
+        double[] scaled = new double[n];
+        int[] small = new int[n];
+        int[] large = new int[n];
+        int ns = 0, nl = 0;
+        for (int i = 0; i < n; i++) {
+            scaled[i] = weights[i] / total * n;
+            if (scaled[i] < 1) small[ns++] = i;
+            else large[nl++] = i;
+        }
+        while (ns > 0 && nl > 0) {
+            int s = small[--ns];
+            int l = large[--nl];
+            prob[s] = scaled[s];
+            alias[s] = l;
+            scaled[l] = (scaled[l] + scaled[s]) - 1;
+            if (scaled[l] < 1) small[ns++] = l;
+            else large[nl++] = l;
+        }
+        // leftovers are only off from 1 by rounding error
+        while (nl > 0) prob[large[--nl]] = 1;
+        while (ns > 0) prob[small[--ns]] = 1;
+    }
+
+    /**
+     * Returns a random index with probability proportional to its weight
+     *
+     * @return
+     */
+    public int sample() {
+        // the integer part picks a column and the fraction picks between it and its alias
+        double u = MathUtils.random.nextDouble() * prob.length;
+        int i = (int) u;
+        if (i >= prob.length) i = prob.length - 1;
+        return u - i < prob[i] ? i : alias[i];
+    }
+
+}
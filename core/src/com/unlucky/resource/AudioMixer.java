@@ -0,0 +1,248 @@
+package com.unlucky.resource;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.audio.Sound;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.TimeUtils;
+import com.unlucky.save.Settings;
+
+/**
+ * Plays every sound effect in the game so the mute and volume settings are applied in one place
+ *
+ * Each sound is registered with a max number of voices, a priority and its length.
+ * A sound requested more than once in the same frame only plays once and a sound at its
+ * voice cap cuts off its own oldest voice. When too many sounds are playing at once the
+ * oldest voice of the least important sound is stopped for the new one, or the new one
+ * is dropped if everything playing is more important. Sounds can't report when they end
+ * so a voice is counted as playing until its length has passed.
+ *
+ * Looping sounds are tracked here so they can be stopped without keeping their ids around
+ * and they are stopped and restarted when sfx are muted and unmuted.
+ *
+ * @author Ming Li
+ */
+public class AudioMixer {
+
+    public static final int PRIORITY_LOW = 0;
+    public static final int PRIORITY_NORMAL = 1;
+    public static final int PRIORITY_HIGH = 2;
+
+    // max voices playing at once across every sound not counting loops
+    private static final int MAX_VOICES = 8;
+
+    private static class Channel {
+        Sound sound;
+        int priority;
+        // in ms
+        long length;
+        // uses the music settings instead of the sfx settings
+        boolean music;
+
+        // ring buffer of the voices playing with the oldest at head
+        long[] ids;
+        long[] started;
+        int head;
+        int count;
+
+        // to only play once per frame
+        long lastFrame = -1;
+        long lastId = -1;
+
+        // id of the looping instance or -1 if it isn't playing
+        long loopId = -1;
+        float loopVolume;
+    }
+
+    private final ObjectMap<Sound, Channel> channels = new ObjectMap<Sound, Channel>();
+    // every channel sorted by priority for finding a voice to steal
+    private final Array<Channel> order = new Array<Channel>();
+    private final Array<Channel> loops = new Array<Channel>();
+    private int numVoices;
+
+    private Settings settings;
+
+    /**
+     * Adds a sound that can be played by the mixer
+     *
+     * @param sound
+     * @param maxVoices the max number of this sound playing at once
+     * @param priority
+     * @param length in seconds
+     * @param music if the sound is part of the music and uses the music volume
+     */
+    public void register(Sound sound, int maxVoices, int priority, float length, boolean music) {
+        Channel c = new Channel();
+        c.sound = sound;
+        c.priority = priority;
+        c.length = (long) (length * 1000);
+        c.music = music;
+        c.ids = new long[maxVoices];
+        c.started = new long[maxVoices];
+        channels.put(sound, c);
+
+        int i = 0;
+        while (i < order.size && order.get(i).priority <= priority) i++;
+        order.insert(i, c);
+    }
+
+    public void register(Sound sound, int maxVoices, int priority, float length) {
+        register(sound, maxVoices, priority, length, false);
+    }
+
+    /**
+     * Sets the settings every sound is played with
+     * Called whenever the player's settings object changes
+     *
+     * @param settings
+     */
+    public void setSettings(Settings settings) {
+        this.settings = settings;
+    }
+
+    /**
+     * Plays a registered sound once if it isn't muted
+     *
+     * @param sound
+     * @return the id of the voice or -1 if the sound didn't play
+     */
+    public long play(Sound sound) {
+        Channel c = channels.get(sound);
+        if (c == null || isMuted(c)) return -1;
+
+        long frame = Gdx.graphics.getFrameId();
+        if (c.lastFrame == frame) return c.lastId;
+
+        long now = TimeUtils.millis();
+        expire(c, now);
+        if (c.count == c.ids.length) stopOldest(c);
+        else if (numVoices >= MAX_VOICES && !steal(c.priority, now)) return -1;
+
+        long id = sound.play(getVolume(c));
+        c.lastFrame = frame;
+        c.lastId = id;
+        if (id == -1) return -1;
+
+        int i = (c.head + c.count) % c.ids.length;
+        c.ids[i] = id;
+        c.started[i] = now;
+        c.count++;
+        numVoices++;
+        return id;
+    }
+
+    /**
+     * Starts looping a registered sound if it isn't already
+     * The loop is only audible while sfx aren't muted
+     *
+     * @param sound
+     */
+    public void loop(Sound sound) {
+        Channel c = channels.get(sound);
+        if (c == null || loops.contains(c, true)) return;
+        loops.add(c);
+        if (!isMuted(c)) startLoop(c);
+    }
+
+    /**
+     * Stops a sound started with loop
+     *
+     * @param sound
+     */
+    public void stopLoop(Sound sound) {
+        Channel c = channels.get(sound);
+        if (c == null || !loops.removeValue(c, true)) return;
+        endLoop(c);
+    }
+
+    /**
+     * Stops every sound started with loop
+     * Called when the player leaves a map
+     */
+    public void stopLoops() {
+        for (int i = 0; i < loops.size; i++) endLoop(loops.get(i));
+        loops.clear();
+    }
+
+    /**
+     * Forgets voices that finished and applies setting changes to loops
+     * Called once per frame
+     */
+    public void update() {
+        long now = TimeUtils.millis();
+        for (int i = 0; i < order.size; i++) expire(order.get(i), now);
+
+        for (int i = 0; i < loops.size; i++) {
+            Channel c = loops.get(i);
+            if (isMuted(c)) endLoop(c);
+            else if (c.loopId == -1) startLoop(c);
+            else if (c.loopVolume != getVolume(c)) {
+                c.loopVolume = getVolume(c);
+                c.sound.setVolume(c.loopId, c.loopVolume);
+            }
+        }
+    }
+
+    private boolean isMuted(Channel c) {
+        if (settings == null) return true;
+        return c.music ? settings.muteMusic : settings.muteSfx;
+    }
+
+    private float getVolume(Channel c) {
+        return c.music ? settings.musicVolume : settings.sfxVolume;
+    }
+
+    private void startLoop(Channel c) {
+        c.loopVolume = getVolume(c);
+        c.loopId = c.sound.loop(c.loopVolume);
+    }
+
+    private void endLoop(Channel c) {
+        if (c.loopId == -1) return;
+        c.sound.stop(c.loopId);
+        c.loopId = -1;
+    }
+
+    /**
+     * Removes the voices of a channel that have played for their full length
+     * Voices in a channel all have the same length so they end in the order they started
+     */
+    private void expire(Channel c, long now) {
+        while (c.count > 0 && now - c.started[c.head] >= c.length) {
+            c.head = (c.head + 1) % c.ids.length;
+            c.count--;
+            numVoices--;
+        }
+    }
+
+    private void stopOldest(Channel c) {
+        c.sound.stop(c.ids[c.head]);
+        c.head = (c.head + 1) % c.ids.length;
+        c.count--;
+        numVoices--;
+    }
+
+    /**
+     * Frees a voice for a sound of the given priority by stopping the oldest
+     * voice of the least important sound that is playing
+     * The number of channels is fixed so this doesn't grow with the voices playing
+     *
+     * @param priority
+     * @param now
+     * @return false if every voice playing is more important
+     */
+    private boolean steal(int priority, long now) {
+        for (int i = 0; i < order.size; i++) {
+            Channel c = order.get(i);
+            if (c.priority > priority) return false;
+            expire(c, now);
+            if (numVoices < MAX_VOICES) return true;
+            if (c.count > 0) {
+                stopOldest(c);
+                return true;
+            }
+        }
+        return false;
+    }
+
+}
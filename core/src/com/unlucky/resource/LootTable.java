@@ -0,0 +1,150 @@
+package com.unlucky.resource;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.IntMap;
+import com.badlogic.gdx.utils.JsonReader;
+import com.badlogic.gdx.utils.JsonValue;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.unlucky.inventory.Item;
+
+/**
+ * Rolls item drops from the drop profiles in items/loot.json
+ *
+ * A profile has a percentage chance to drop anything, a weight for each rarity
+ * and whether the enemy level limits which items can drop. A profile named
+ * [source]_w[world index] overrides [source] in that world.
+ *
+ * Each profile and level gets one AliasTable over every item that can drop and
+ * "nothing", so a roll is a single constant time sample.
+ *
+ * @author Ming Li
+ */
+public class LootTable {
+
+    public static final String NORMAL = "normal";
+    public static final String ELITE = "elite";
+    public static final String BOSS = "boss";
+    public static final String QUESTION_MARK = "question";
+
+    private static final String PATH = "items/loot.json";
+
+    private ResourceManager rm;
+    private ObjectMap<String, Profile> profiles = new ObjectMap<String, Profile>();
+    // when the file was last loaded
+    private long lastModified;
+
+    private static class Profile {
+        int dropChance;
+        int[] rarityWeights;
+        boolean anyLevel;
+        // alias tables by level built on the first roll at that level
+        IntMap<Drops> drops = new IntMap<Drops>();
+    }
+
+    private static class Drops {
+        AliasTable table;
+        // rarity and pool index of each outcome, -1 rarity for no drop
+        int[] rarity;
+        int[] index;
+    }
+
+    public LootTable(ResourceManager rm) {
+        this.rm = rm;
+        load();
+    }
+
+    /**
+     * Reloads the profiles if the file changed since they were loaded
+     * Lets drop rates be tuned without restarting the game
+     * Only works on desktop since internal files always have a last modified time of 0 on Android
+     */
+    public void reloadIfModified() {
+        if (Gdx.files.internal(PATH).lastModified() != lastModified) load();
+    }
+
+    private void load() {
+        FileHandle file = Gdx.files.internal(PATH);
+        lastModified = file.lastModified();
+        profiles.clear();
+        for (JsonValue p : new JsonReader().parse(file)) {
+            Profile profile = new Profile();
+            profile.dropChance = p.getInt("dropChance");
+            profile.rarityWeights = p.get("rarity").asIntArray();
+            profile.anyLevel = p.getBoolean("anyLevel", false);
+            profiles.put(p.name, profile);
+        }
+    }
+
+    /**
+     * Returns the item dropped by a source or null if nothing dropped
+     *
+     * @param source one of the profile names
+     * @param world the world index
+     * @param level the level of the enemy or map
+     * @return
+     */
+    public Item roll(String source, int world, int level) {
+        Profile profile = profiles.get(source + "_w" + world);
+        if (profile == null) profile = profiles.get(source);
+        if (profile == null) return null;
+
+        int key = profile.anyLevel ? 0 : level;
+        Drops drops = profile.drops.get(key);
+        if (drops == null) {
+            drops = build(profile, level);
+            profile.drops.put(key, drops);
+        }
+
+        int i = drops.table.sample();
+        if (drops.rarity[i] == -1) return null;
+        return rm.getItemFromKey(drops.rarity[i], drops.index[i]);
+    }
+
+    /**
+     * Each item gets its rarity's share of the drop chance split evenly between the items
+     * of that rarity, and rarities with no items at the level count as no drop
+     */
+    private Drops build(Profile profile, int level) {
+        int numRarities = Math.min(profile.rarityWeights.length, rm.items.size);
+        int[][] candidates = new int[numRarities][];
+        int n = 1;
+        double totalWeight = 0;
+        for (int r = 0; r < numRarities; r++) {
+            candidates[r] = profile.anyLevel ? rm.getItemIndexes(r) : rm.getItemIndexes(r, level);
+            n += candidates[r].length;
+            totalWeight += profile.rarityWeights[r];
+        }
+
+        Drops drops = new Drops();
+        drops.rarity = new int[n];
+        drops.index = new int[n];
+        double[] weights = new double[n];
+
+        double dropChance = profile.dropChance / 100.0;
+        double none = 1 - dropChance;
+        int k = 1;
+        for (int r = 0; r < numRarities; r++) {
+            double share = totalWeight > 0 ? dropChance * profile.rarityWeights[r] / totalWeight : 0;
+            if (candidates[r].length == 0) {
+                none += share;
+                continue;
+            }
+            for (int i = 0; i < candidates[r].length; i++) {
+                drops.rarity[k] = r;
+                drops.index[k] = candidates[r][i];
+                weights[k] = share / candidates[r].length;
+                k++;
+            }
+        }
+        // outcome 0 is no drop
+        drops.rarity[0] = -1;
+        weights[0] = Math.max(0, none);
+        // a profile that never drops anything still needs a positive weight
+        if (totalWeight <= 0 || dropChance <= 0) weights[0] = 1;
+
+        drops.table = new AliasTable(weights);
+        return drops;
+    }
+
+}
@@ -13,10 +13,13 @@ import com.badlogic.gdx.scenes.scene2d.ui.ImageButton;
 import com.badlogic.gdx.scenes.scene2d.ui.Skin;
 import com.badlogic.gdx.scenes.scene2d.utils.TextureRegionDrawable;
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntMap;
 import com.badlogic.gdx.utils.JsonReader;
 import com.badlogic.gdx.utils.JsonValue;
+import com.badlogic.gdx.utils.TimeUtils;
 import com.unlucky.battle.Move;
 import com.unlucky.inventory.Item;
+import com.unlucky.inventory.ItemTemplate;
 import com.unlucky.inventory.ShopItem;
 import com.unlucky.map.Level;
 import com.unlucky.map.World;
@@ -25,6 +28,9 @@ import com.unlucky.map.World;
  * Main resource loading and storage class. Uses an AssetManager to manage textures, sounds,
  * musics, etc. Contains convenience methods to load and get resources from the asset manager.
  *
+ * Assets are loaded in stages so the game can show a loading screen right away. Only the
+ * atlas and font are loaded in the constructor, the rest stream in through update.
+ *
  * @author Ming Li
  */
 public class ResourceManager {
@@ -100,10 +106,19 @@ public class ResourceManager {
 
     // Music
     public Music menuTheme;
-    public Music slimeForestTheme;
-    public Music spookyGraveyardTheme;
-    public Music frostyCaveTheme;
     public Music battleTheme;
+    // world themes by world index, only loaded while a world is being played
+    private static final String[] WORLD_THEMES = {
+        "music/slime_forest_theme.ogg", "music/spooky_graveyard_theme.ogg", "music/frosty_cave_theme.ogg"
+    };
+    // how long a world theme stays loaded after it's no longer used in ms
+    private static final long WORLD_THEME_GRACE_PERIOD = 30000;
+    private final Music[] worldThemes = new Music[WORLD_THEMES.length];
+    // number of maps using each world theme
+    private final int[] worldThemeRefs = new int[WORLD_THEMES.length];
+    // when each world theme stopped being used
+    private final long[] worldThemeReleased = new long[WORLD_THEMES.length];
+    private final boolean[] worldThemeQueued = new boolean[WORLD_THEMES.length];
 
     // Sound Effects
     public Sound buttonclick0;
@@ -125,6 +140,8 @@ public class ResourceManager {
     public Sound movement;
     public Sound finish;
     public Sound battlestart;
+    // plays the sound effects with the player's settings
+    public final AudioMixer audio = new AudioMixer();
 
     // Worlds
     public Array<World> worlds = new Array<World>();
@@ -135,52 +152,56 @@ public class ResourceManager {
     public final Array<Move> wideMoves = new Array<Move>();
     public final Array<Move> critMoves = new Array<Move>();
     public final Array<Move> healMoves = new Array<Move>();
+    // every non boss move in a single array in the order accurate, wide, crit, heal
+    // these are templates that should never be modified
+    public Move[] movePool;
 
     // contains the movepools of each boss referenced by bossIndex
     public final Array<Array<Move>> bossMoves = new Array<Array<Move>>();
 
     // contains all the items separated by rarity
-    public final Array<Array<Item>> items = new Array<Array<Item>>();
+    public final Array<Array<ItemTemplate>> items = new Array<Array<ItemTemplate>>();
+    // indexes of the items in each rarity pool that can drop at each level
+    // itemsByLevel[rarity][level]
+    private int[][][] itemsByLevel;
+    // item drop profiles
+    public LootTable loot;
+    // items by type and image index which identify them in saves
+    private IntMap<ItemTemplate> itemsBySprite = new IntMap<ItemTemplate>();
+    private IntMap<ShopItem> shopItemsBySprite = new IntMap<ShopItem>();
     // contains all the shop items separated by rarity
     public final Array<Array<ShopItem>> shopItems = new Array<Array<ShopItem>>();
 
     // Fonts
     public final BitmapFont pixel10;
 
-    public ResourceManager() {
+    // loading stages, each one starts loading after the previous one finishes
+    // the atlas and font for the loading screen, loaded in the constructor
+    public static final int STAGE_BOOT = 0;
+    // skins, menu music, ui sounds and game data
+    public static final int STAGE_MENU = 1;
+    // map and battle music and sounds
+    public static final int STAGE_GAME = 2;
+    private static final String[] STAGE_NAMES = { "boot", "menu", "game" };
+
+    // the last stage that finished loading
+    private int loadedStage = -1;
+    private long stageStart;
+    // how long each stage took to load in ms
+    public final long[] stageMillis = new long[3];
+    // applied to music when it's loaded
+    private float musicVolume = 1.f;
+    // times the parts of the menu stage, does nothing once the game has started
+    private final StartupProfiler startup;
+
+    public ResourceManager(StartupProfiler startup) {
+        this.startup = startup;
+        stageStart = TimeUtils.nanoTime();
         assetManager = new AssetManager();
         jsonReader = new JsonReader();
 
+        // only what the loading screen needs is loaded right away
         assetManager.load("textures.atlas", TextureAtlas.class);
-        assetManager.load("skins/ui.atlas", TextureAtlas.class);
-        assetManager.load("skins/dialog.atlas", TextureAtlas.class);
-
-        assetManager.load("music/menu_theme.ogg", Music.class);
-        assetManager.load("music/slime_forest_theme.ogg", Music.class);
-        assetManager.load("music/spooky_graveyard_theme.ogg", Music.class);
-        assetManager.load("music/frosty_cave_theme.ogg", Music.class);
-        assetManager.load("music/battle_theme.ogg", Music.class);
-
-        assetManager.load("sfx/button_click0.ogg", Sound.class);
-        assetManager.load("sfx/button_click1.ogg", Sound.class);
-        assetManager.load("sfx/button_click2.ogg", Sound.class);
-        assetManager.load("sfx/inventory_select_click.ogg", Sound.class);
-        assetManager.load("sfx/move_select_click.ogg", Sound.class);
-        assetManager.load("sfx/text_progression.wav", Sound.class);
-        assetManager.load("sfx/hit.ogg", Sound.class);
-        assetManager.load("sfx/blue_attack.ogg", Sound.class);
-        assetManager.load("sfx/red_attack.ogg", Sound.class);
-        assetManager.load("sfx/yellow_attack.ogg", Sound.class);
-        assetManager.load("sfx/heal.ogg", Sound.class);
-        assetManager.load("sfx/death.ogg", Sound.class);
-        assetManager.load("sfx/thunder.ogg", Sound.class);
-        assetManager.load("sfx/light_rain.ogg", Sound.class);
-        assetManager.load("sfx/heavy_rain.ogg", Sound.class);
-        assetManager.load("sfx/teleport.ogg", Sound.class);
-        assetManager.load("sfx/movement.ogg", Sound.class);
-        assetManager.load("sfx/finish.ogg", Sound.class);
-        assetManager.load("sfx/battle_start.ogg", Sound.class);
-
         assetManager.finishLoading();
 
         atlas = assetManager.get("textures.atlas", TextureAtlas.class);
@@ -188,14 +209,6 @@ public class ResourceManager {
         // load font
         pixel10 = new BitmapFont(Gdx.files.internal("fonts/pixel.fnt"), atlas.findRegion("pixel"), false);
 
-        skin = new Skin(atlas);
-        skin.add("default-font", pixel10);
-        skin.load(Gdx.files.internal("skins/ui.json"));
-
-        dialogSkin = new Skin(assetManager.get("skins/dialog.atlas", TextureAtlas.class));
-        dialogSkin.add("default-font", pixel10);
-        dialogSkin.load(Gdx.files.internal("skins/dialog.json"));
-
         // sprites
         sprites16x16 = atlas.findRegion("16x16_sprites").split(16, 16);
         tiles16x16 = atlas.findRegion("16x16_tiles").split(16, 16);
@@ -255,18 +268,191 @@ public class ResourceManager {
         // fix font spacing
         pixel10.setUseIntegerPositions(false);
 
-        // load music
-        menuTheme = assetManager.get("music/menu_theme.ogg", Music.class);
-        slimeForestTheme = assetManager.get("music/slime_forest_theme.ogg", Music.class);
-        spookyGraveyardTheme = assetManager.get("music/spooky_graveyard_theme.ogg", Music.class);
-        frostyCaveTheme = assetManager.get("music/frosty_cave_theme.ogg", Music.class);
-        battleTheme = assetManager.get("music/battle_theme.ogg", Music.class);
+        finishStage(STAGE_BOOT);
 
-        // load sfx
+        assetManager.load("skins/ui.atlas", TextureAtlas.class);
+        assetManager.load("skins/dialog.atlas", TextureAtlas.class);
+        assetManager.load("music/menu_theme.ogg", Music.class);
+        assetManager.load("sfx/button_click0.ogg", Sound.class);
+        assetManager.load("sfx/button_click1.ogg", Sound.class);
+        assetManager.load("sfx/button_click2.ogg", Sound.class);
+        assetManager.load("sfx/inventory_select_click.ogg", Sound.class);
+    }
+
+    /**
+     * Continues loading assets for up to a number of ms
+     * Must be called every frame on the render thread until it returns true
+     *
+     * @param budget ms that can be spent loading this frame
+     * @return whether every stage is loaded
+     */
+    public boolean update(int budget) {
+        unloadWorldThemes();
+        if (loadedStage == STAGE_GAME) {
+            // world themes that were prefetched or retained
+            if (assetManager.getQueuedAssets() > 0) assetManager.update(budget);
+            return true;
+        }
+        if (!assetManager.update(budget)) return false;
+
+        if (loadedStage == STAGE_BOOT) {
+            loadMenuStage();
+            finishStage(STAGE_MENU);
+
+            assetManager.load("music/battle_theme.ogg", Music.class);
+
+            assetManager.load("sfx/move_select_click.ogg", Sound.class);
+            assetManager.load("sfx/text_progression.wav", Sound.class);
+            assetManager.load("sfx/hit.ogg", Sound.class);
+            assetManager.load("sfx/blue_attack.ogg", Sound.class);
+            assetManager.load("sfx/red_attack.ogg", Sound.class);
+            assetManager.load("sfx/yellow_attack.ogg", Sound.class);
+            assetManager.load("sfx/heal.ogg", Sound.class);
+            assetManager.load("sfx/death.ogg", Sound.class);
+            assetManager.load("sfx/thunder.ogg", Sound.class);
+            assetManager.load("sfx/light_rain.ogg", Sound.class);
+            assetManager.load("sfx/heavy_rain.ogg", Sound.class);
+            assetManager.load("sfx/teleport.ogg", Sound.class);
+            assetManager.load("sfx/movement.ogg", Sound.class);
+            assetManager.load("sfx/finish.ogg", Sound.class);
+            assetManager.load("sfx/battle_start.ogg", Sound.class);
+            return false;
+        }
+
+        loadGameStage();
+        finishStage(STAGE_GAME);
+        return true;
+    }
+
+    /**
+     * Returns whether a stage and every stage before it is loaded
+     *
+     * @param stage
+     * @return
+     */
+    public boolean isLoaded(int stage) {
+        return loadedStage >= stage;
+    }
+
+    /**
+     * Returns the progress of the stage currently loading from 0 to 1
+     *
+     * @return
+     */
+    public float getProgress() {
+        return loadedStage == STAGE_GAME ? 1 : assetManager.getProgress();
+    }
+
+    /**
+     * Starts loading a world theme in the background if it's not loaded
+     * It's unloaded after a while if no map retains it
+     *
+     * @param world
+     */
+    public void prefetchWorldTheme(int world) {
+        if (world < 0 || world >= WORLD_THEMES.length) return;
+        if (worldThemeRefs[world] == 0) worldThemeReleased[world] = TimeUtils.millis();
+        if (!worldThemeQueued[world]) {
+            assetManager.load(WORLD_THEMES[world], Music.class);
+            worldThemeQueued[world] = true;
+        }
+    }
+
+    /**
+     * Marks a world theme as used until it's released and returns it
+     * If it hasn't finished loading the render thread waits for it
+     * Returns null if the world has no theme
+     *
+     * @param world
+     * @return
+     */
+    public Music retainWorldTheme(int world) {
+        if (world < 0 || world >= WORLD_THEMES.length) return null;
+        prefetchWorldTheme(world);
+        worldThemeRefs[world]++;
+        if (worldThemes[world] == null) {
+            assetManager.finishLoadingAsset(WORLD_THEMES[world]);
+            worldThemes[world] = assetManager.get(WORLD_THEMES[world], Music.class);
+            worldThemes[world].setVolume(musicVolume);
+        }
+        return worldThemes[world];
+    }
+
+    /**
+     * Releases a world theme retained by retainWorldTheme
+     *
+     * @param world
+     */
+    public void releaseWorldTheme(int world) {
+        if (world < 0 || world >= WORLD_THEMES.length || worldThemeRefs[world] == 0) return;
+        if (--worldThemeRefs[world] == 0) worldThemeReleased[world] = TimeUtils.millis();
+    }
+
+    /**
+     * Unloads world themes that haven't been used for the grace period
+     */
+    private void unloadWorldThemes() {
+        for (int i = 0; i < WORLD_THEMES.length; i++) {
+            if (worldThemeQueued[i] && worldThemeRefs[i] == 0 &&
+                TimeUtils.timeSinceMillis(worldThemeReleased[i]) > WORLD_THEME_GRACE_PERIOD) {
+                assetManager.unload(WORLD_THEMES[i]);
+                worldThemes[i] = null;
+                worldThemeQueued[i] = false;
+            }
+        }
+    }
+
+    private void finishStage(int stage) {
+        loadedStage = stage;
+        stageMillis[stage] = TimeUtils.timeSinceNanos(stageStart) / 1000000;
+        stageStart = TimeUtils.nanoTime();
+        System.out.println("Loaded " + STAGE_NAMES[stage] + " assets in " + stageMillis[stage] + " ms");
+    }
+
+    private void loadMenuStage() {
+        startup.begin("skins");
+        skin = new Skin(atlas);
+        skin.add("default-font", pixel10);
+        skin.load(Gdx.files.internal("skins/ui.json"));
+
+        dialogSkin = new Skin(assetManager.get("skins/dialog.atlas", TextureAtlas.class));
+        dialogSkin.add("default-font", pixel10);
+        dialogSkin.load(Gdx.files.internal("skins/dialog.json"));
+        startup.end();
+
+        menuTheme = assetManager.get("music/menu_theme.ogg", Music.class);
+        menuTheme.setVolume(musicVolume);
         buttonclick0 = assetManager.get("sfx/button_click0.ogg", Sound.class);
         buttonclick1 = assetManager.get("sfx/button_click1.ogg", Sound.class);
         buttonclick2 = assetManager.get("sfx/button_click2.ogg", Sound.class);
         invselectclick = assetManager.get("sfx/inventory_select_click.ogg", Sound.class);
+        audio.register(buttonclick0, 2, AudioMixer.PRIORITY_HIGH, 0.25f);
+        audio.register(buttonclick1, 2, AudioMixer.PRIORITY_HIGH, 0.16f);
+        audio.register(buttonclick2, 2, AudioMixer.PRIORITY_HIGH, 0.05f);
+        audio.register(invselectclick, 2, AudioMixer.PRIORITY_HIGH, 0.53f);
+
+        startup.begin("worlds json");
+        loadWorlds();
+        startup.end();
+        startup.begin("moves json");
+        loadMoves();
+        startup.end();
+        startup.begin("items json");
+        loadItems();
+        loot = new LootTable(this);
+        startup.end();
+
+        // set smove icons
+        for (int i = 0; i < Util.SMOVES_ORDER_BY_ID.length; i++) {
+            Util.SMOVES_ORDER_BY_ID[i].icon = new Image(smoveicons[i]);
+        }
+    }
+
+    private void loadGameStage() {
+        // load music
+        battleTheme = assetManager.get("music/battle_theme.ogg", Music.class);
+
+        // load sfx
         moveselectclick = assetManager.get("sfx/move_select_click.ogg", Sound.class);
         textprogression = assetManager.get("sfx/text_progression.wav", Sound.class);
         hit = assetManager.get("sfx/hit.ogg", Sound.class);
@@ -282,15 +468,24 @@ public class ResourceManager {
         movement = assetManager.get("sfx/movement.ogg", Sound.class);
         finish = assetManager.get("sfx/finish.ogg", Sound.class);
         battlestart = assetManager.get("sfx/battle_start.ogg", Sound.class);
-
-        loadWorlds();
-        loadMoves();
-        loadItems();
-
-        // set smove icons
-        for (int i = 0; i < Util.SMOVES_ORDER_BY_ID.length; i++) {
-            Util.SMOVES_ORDER_BY_ID[i].icon = new Image(smoveicons[i]);
-        }
+        // voice caps, priorities and lengths of each sound
+        audio.register(moveselectclick, 2, AudioMixer.PRIORITY_HIGH, 0.27f);
+        audio.register(textprogression, 1, AudioMixer.PRIORITY_LOW, 0.1f);
+        audio.register(movement, 1, AudioMixer.PRIORITY_LOW, 0.54f);
+        audio.register(hit, 2, AudioMixer.PRIORITY_NORMAL, 0.48f);
+        audio.register(blueattack, 2, AudioMixer.PRIORITY_NORMAL, 0.96f);
+        audio.register(redattack, 2, AudioMixer.PRIORITY_NORMAL, 1.22f);
+        audio.register(yellowattack, 2, AudioMixer.PRIORITY_NORMAL, 1.02f);
+        audio.register(heal, 2, AudioMixer.PRIORITY_NORMAL, 2.69f);
+        audio.register(thunder, 1, AudioMixer.PRIORITY_NORMAL, 2.78f);
+        audio.register(teleport, 1, AudioMixer.PRIORITY_NORMAL, 3.61f);
+        audio.register(death, 1, AudioMixer.PRIORITY_HIGH, 2.95f);
+        audio.register(finish, 1, AudioMixer.PRIORITY_HIGH, 1.08f);
+        audio.register(battlestart, 1, AudioMixer.PRIORITY_HIGH, 1.72f, true);
+        // only played as loops
+        audio.register(lightrain, 1, AudioMixer.PRIORITY_LOW, 3.36f);
+        audio.register(heavyrain, 1, AudioMixer.PRIORITY_LOW, 3.93f);
+        setMusicVolume(musicVolume);
     }
 
     /**
@@ -367,6 +562,14 @@ public class ResourceManager {
         }
         //System.out.println("heal: " + healMoves.size);
 
+        // combine the pools once so movesets can sample by index
+        movePool = new Move[accurateMoves.size + wideMoves.size + critMoves.size + healMoves.size];
+        int poolIndex = 0;
+        for (Move m : accurateMoves) movePool[poolIndex++] = m;
+        for (Move m : wideMoves) movePool[poolIndex++] = m;
+        for (Move m : critMoves) movePool[poolIndex++] = m;
+        for (Move m : healMoves) movePool[poolIndex++] = m;
+
         Array<Move> slimeMoves = new Array<Move>();
         // load boss moves
         for (JsonValue move : boss.get("slime")) {
@@ -411,32 +614,49 @@ public class ResourceManager {
             loadItems(itemPool, i, "rare" + i);
             loadShopItems(shopitemPool, i, "rare" + i);
         }
+        indexItemsByLevel();
     }
 
-    private void loadItems(JsonValue itemPool, int rarity, String r) {
-        Array<Item> rare = new Array<Item>();
-        for (JsonValue i : itemPool.get(r)) {
-            int type = i.getInt("type");
-            if (type == 0) {
-                rare.add(new Item(this, i.getString("name"), i.getString("desc"),
-                    rarity, i.getInt("imgIndex"), i.getInt("minLevel"), i.getInt("maxLevel"),
-                    i.getInt("hp"), i.getInt("exp"), i.getInt("sell")));
-            }
-            else if (type == 1) {
-                rare.add(new Item(this, i.getString("name"), i.getString("desc"),
-                    rarity, i.getInt("imgIndex"), i.getInt("minLevel"), i.getInt("maxLevel"), i.getInt("sell")));
-            }
-            else if (type >= 2 && type <= 9) {
-                rare.add(new Item(this, i.getString("name"), i.getString("desc"),
-                    i.getInt("type"), rarity, i.getInt("imgIndex"), i.getInt("minLevel"), i.getInt("maxLevel"),
-                    i.getInt("mhp"), i.getInt("dmg"), i.getInt("acc"), i.getInt("sell")));
+    /**
+     * Precomputes the items that can drop at every level so a drop roll
+     * doesn't have to scan the pool
+     */
+    private void indexItemsByLevel() {
+        itemsByLevel = new int[items.size][][];
+        for (int r = 0; r < items.size; r++) {
+            Array<ItemTemplate> pool = items.get(r);
+            int maxLevel = 0;
+            for (ItemTemplate item : pool) maxLevel = Math.max(maxLevel, item.maxLevel);
+
+            // count then fill so each level gets an exact size array
+            int[] counts = new int[maxLevel + 1];
+            for (ItemTemplate item : pool) {
+                for (int l = Math.max(0, item.minLevel); l <= item.maxLevel; l++) counts[l]++;
             }
-            else if (type == 10) {
-                rare.add(new Item(this, i.getString("name"), i.getString("desc"), rarity, i.getInt("imgIndex"),
-                    i.getInt("minLevel"), i.getInt("maxLevel"), i.getInt("eChance"), i.getInt("sell")));
+            itemsByLevel[r] = new int[maxLevel + 1][];
+            for (int l = 0; l <= maxLevel; l++) itemsByLevel[r][l] = new int[counts[l]];
+            // candidates keep the pool order
+            int[] filled = new int[maxLevel + 1];
+            for (int i = 0; i < pool.size; i++) {
+                ItemTemplate item = pool.get(i);
+                for (int l = Math.max(0, item.minLevel); l <= item.maxLevel; l++) {
+                    itemsByLevel[r][l][filled[l]++] = i;
+                }
             }
         }
+    }
+
+    private void loadItems(JsonValue itemPool, int rarity, String r) {
+        Array<ItemTemplate> rare = new Array<ItemTemplate>();
+        for (JsonValue i : itemPool.get(r)) {
+            // stats that don't apply to an item's type default to 0
+            rare.add(new ItemTemplate(i.getString("name"), i.getString("desc"), i.getInt("type"), rarity,
+                i.getInt("imgIndex"), i.getInt("minLevel"), i.getInt("maxLevel"),
+                i.getInt("hp", 0), i.getInt("mhp", 0), i.getInt("dmg", 0), i.getInt("acc", 0),
+                i.getInt("exp", 0), i.getInt("eChance", 0), i.getInt("sell")));
+        }
         items.add(rare);
+        for (ItemTemplate item : rare) itemsBySprite.put(item.type * 256 + item.imgIndex, item);
     }
 
     private void loadShopItems(JsonValue itemPool, int rarity, String r) {
@@ -458,18 +678,58 @@ public class ResourceManager {
             }
         }
         shopItems.add(rare);
+        for (ShopItem item : rare) shopItemsBySprite.put(item.type * 256 + item.imgIndex, item);
+    }
+
+    /**
+     * Returns the item in items.json with a type and image index or null if there isn't one
+     *
+     * @param type
+     * @param imgIndex
+     * @return
+     */
+    public ItemTemplate findItemTemplate(int type, int imgIndex) {
+        return itemsBySprite.get(type * 256 + imgIndex);
+    }
+
+    /**
+     * Returns the item in shopitems.json with a type and image index or null if there isn't one
+     *
+     * @param type
+     * @param imgIndex
+     * @return
+     */
+    public ShopItem findShopItem(int type, int imgIndex) {
+        return shopItemsBySprite.get(type * 256 + imgIndex);
+    }
+
+    private Item getItemCopy(ItemTemplate template) {
+        return new Item(this, template);
     }
 
-    private Item getItemCopy(Item item) {
-        if (item.type == 0)
-            return new Item(this, item.name, item.desc, item.rarity, item.imgIndex, item.minLevel, item.maxLevel, item.hp, item.exp, item.sell);
-        else if (item.type == 1)
-            return new Item(this, item.name, item.desc, item.rarity, item.imgIndex, item.minLevel, item.maxLevel, item.sell);
-        else if (item.type >= 2 && item.type <= 9)
-            return new Item(this, item.name, item.desc, item.type, item.rarity, item.imgIndex, item.minLevel, item.maxLevel,
-                item.mhp, item.dmg, item.acc, item.sell);
-        else
-            return new Item(this, item.name, item.desc, item.rarity, item.imgIndex, item.minLevel, item.maxLevel, item.eChance, item.sell);
+    /**
+     * Returns the pool indexes of the items of a rarity that can drop at a level
+     *
+     * @param rarity
+     * @param level
+     * @return
+     */
+    int[] getItemIndexes(int rarity, int level) {
+        int[][] levels = itemsByLevel[rarity];
+        if (level < 0 || level >= levels.length) return new int[0];
+        return levels[level];
+    }
+
+    /**
+     * Returns the pool indexes of every item of a rarity
+     *
+     * @param rarity
+     * @return
+     */
+    int[] getItemIndexes(int rarity) {
+        int[] indexes = new int[items.get(rarity).size];
+        for (int i = 0; i < indexes.length; i++) indexes[i] = i;
+        return indexes;
     }
 
     /**
@@ -483,27 +743,21 @@ public class ResourceManager {
      * @return
      */
     public Item getItem(int rarity, int level) {
-        // items sorted by level range and rarity
-        Array<Item> levelItems = new Array<Item>();
-        for (Item item : items.get(rarity)) {
-            if (level >= item.minLevel && level <= item.maxLevel) {
-                levelItems.add(item);
-            }
-        }
-        if (levelItems.size == 0) return null;
-        Item selected = levelItems.get(MathUtils.random(levelItems.size - 1));
-        return getItemCopy(selected);
+        int[][] levels = itemsByLevel[rarity];
+        if (level < 0 || level >= levels.length || levels[level].length == 0) return null;
+        int[] candidates = levels[level];
+        return getItemCopy(items.get(rarity).get(candidates[MathUtils.random(candidates.length - 1)]));
     }
 
     /**
      * Returns a copy of a random item from the item pool given rarity
-     * This was made so that duplicate Item actors could be created
+     * Each call rolls a new Item so items never share state
      *
      * @param rarity
      * @return
      */
     public Item getItem(int rarity) {
-        Item item = items.get(rarity).get(MathUtils.random(items.get(rarity).size - 1));
+        ItemTemplate item = items.get(rarity).get(MathUtils.random(items.get(rarity).size - 1));
         return getItemCopy(item);
     }
 
@@ -515,48 +769,10 @@ public class ResourceManager {
      * @return
      */
     public Item getItemFromKey(int rarity, int index) {
-        Item item = items.get(rarity).get(index);
+        ItemTemplate item = items.get(rarity).get(index);
         return getItemCopy(item);
     }
 
-    /**
-     * Returns a random Item from the pool with weighted rarity and in a given level range
-     * @param level
-     * @return
-     */
-    public Item getRandomItem(int level) {
-        int k = MathUtils.random(99);
-        // common
-        if (k < Util.COMMON_ITEM_RNG_INDEX) return getItem(0, level);
-            // rare
-        else if (k < Util.RARE_ITEM_RNG_INDEX) return getItem(1, level);
-            // epic
-        else if (k < Util.EPIC_ITEM_RNG_INDEX) return getItem(2, level);
-            // legendary
-        else if (k < Util.LEGENDARY_ITEM_RNG_INDEX) return getItem(3, level);
-
-        return null;
-    }
-
-    /**
-     * Returns a random Item from the item pool with weighted rarity
-     *
-     * @return
-     */
-    public Item getRandomItem() {
-        int k = MathUtils.random(99);
-        // common
-        if (k < Util.COMMON_ITEM_RNG_INDEX) return getItem(0);
-        // rare
-        else if (k < Util.RARE_ITEM_RNG_INDEX) return getItem(1);
-        // epic
-        else if (k < Util.EPIC_ITEM_RNG_INDEX) return getItem(2);
-        // legendary
-        else if (k < Util.LEGENDARY_ITEM_RNG_INDEX) return getItem(3);
-
-        return null;
-    }
-
     /**
      * Returns a random Item from the item pool regardless of rarity
      *
@@ -571,43 +787,48 @@ public class ResourceManager {
      * @param volume
      */
     public void setMusicVolume(float volume) {
-        menuTheme.setVolume(volume);
-        slimeForestTheme.setVolume(volume);
-        spookyGraveyardTheme.setVolume(volume);
+        musicVolume = volume;
+        if (menuTheme != null) menuTheme.setVolume(volume);
+        for (int i = 0; i < worldThemes.length; i++) {
+            if (worldThemes[i] != null) worldThemes[i].setVolume(volume);
+        }
     }
 
     public void dispose() {
         assetManager.dispose();
         pixel10.dispose();
         atlas.dispose();
-        skin.dispose();
-        dialogSkin.dispose();
-
-        menuTheme.dispose();
-        slimeForestTheme.dispose();
-        spookyGraveyardTheme.dispose();
-        frostyCaveTheme.dispose();
-        battleTheme.dispose();
-
-        buttonclick0.dispose();
-        buttonclick1.dispose();
-        buttonclick2.dispose();
-        invselectclick.dispose();
-        moveselectclick.dispose();
-        textprogression.dispose();
-        hit.dispose();
-        blueattack.dispose();
-        redattack.dispose();
-        yellowattack.dispose();
-        heal.dispose();
-        death.dispose();
-        thunder.dispose();
-        lightrain.dispose();
-        heavyrain.dispose();
-        teleport.dispose();
-        movement.dispose();
-        finish.dispose();
-        battlestart.dispose();
+
+        // the game may be closed before every stage is loaded
+        if (isLoaded(STAGE_MENU)) {
+            skin.dispose();
+            dialogSkin.dispose();
+            menuTheme.dispose();
+            buttonclick0.dispose();
+            buttonclick1.dispose();
+            buttonclick2.dispose();
+            invselectclick.dispose();
+        }
+
+        if (isLoaded(STAGE_GAME)) {
+            battleTheme.dispose();
+
+            moveselectclick.dispose();
+            textprogression.dispose();
+            hit.dispose();
+            blueattack.dispose();
+            redattack.dispose();
+            yellowattack.dispose();
+            heal.dispose();
+            death.dispose();
+            thunder.dispose();
+            lightrain.dispose();
+            heavyrain.dispose();
+            teleport.dispose();
+            movement.dispose();
+            finish.dispose();
+            battlestart.dispose();
+        }
     }
 
 }
@@ -0,0 +1,146 @@
+package com.unlucky.resource;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.LongArray;
+import com.badlogic.gdx.utils.TimeUtils;
+
+/**
+ * Times the phases of starting the game and reports them once the menu is shown
+ *
+ * Phases can be nested and a phase only counts the time spent in it and not in the
+ * phases started inside it, so the phases add up to the total boot time. A phase that
+ * is started more than once adds to its previous time. The heap growth during each
+ * phase is reported as an estimate of its allocations, it is lower if the garbage
+ * collector ran during the phase.
+ *
+ * @author Ming Li
+ */
+public class StartupProfiler {
+
+    // max total boot time in ms, checked by the startup test
+    public static final long BUDGET = 3000;
+
+    private final long bootStart;
+
+    // phases in the order they were first started
+    private final Array<String> names = new Array<String>();
+    private final LongArray nanos = new LongArray();
+    private final LongArray heap = new LongArray();
+
+    // indices of the running phase and the phases it interrupted
+    private final IntArray running = new IntArray();
+    private long markTime;
+    private long markHeap;
+
+    private long totalMillis = -1;
+
+    public StartupProfiler() {
+        bootStart = TimeUtils.nanoTime();
+        markTime = bootStart;
+        markHeap = usedHeap();
+    }
+
+    /**
+     * Starts a phase pausing the running one until this one ends
+     * Does nothing after the profiler is finished
+     *
+     * @param phase
+     */
+    public void begin(String phase) {
+        if (isFinished()) return;
+        mark();
+        int index = names.indexOf(phase, false);
+        if (index == -1) {
+            index = names.size;
+            names.add(phase);
+            nanos.add(0);
+            heap.add(0);
+        }
+        running.add(index);
+    }
+
+    /**
+     * Ends the running phase and resumes the one it interrupted
+     */
+    public void end() {
+        if (isFinished() || running.size == 0) return;
+        mark();
+        running.pop();
+    }
+
+    /**
+     * Ends every phase and logs the report
+     *
+     * @return the total boot time in ms
+     */
+    public long finish() {
+        if (isFinished()) return totalMillis;
+        while (running.size > 0) end();
+        totalMillis = TimeUtils.timeSinceNanos(bootStart) / 1000000;
+
+        System.out.println(getReport());
+        return totalMillis;
+    }
+
+    public boolean isFinished() {
+        return totalMillis != -1;
+    }
+
+    public boolean isOverBudget() {
+        return totalMillis > BUDGET;
+    }
+
+    /**
+     * Returns the time spent in a phase in ms or -1 if it never ran
+     *
+     * @param phase
+     * @return
+     */
+    public long getMillis(String phase) {
+        int index = names.indexOf(phase, false);
+        return index == -1 ? -1 : nanos.get(index) / 1000000;
+    }
+
+    public long getTotalMillis() {
+        return totalMillis;
+    }
+
+    /**
+     * One line per phase with its time and heap growth
+     * Time outside of any phase is reported as other
+     *
+     * @return
+     */
+    public String getReport() {
+        long phaseNanos = 0;
+        String ret = "Startup report, total: " + totalMillis + " ms, budget: " + BUDGET + " ms";
+        for (int i = 0; i < names.size; i++) {
+            phaseNanos += nanos.get(i);
+            ret += "\n  " + names.get(i) + ": " + nanos.get(i) / 1000000 + " ms, heap: +" + heap.get(i) / 1024 + " KB";
+        }
+        if (totalMillis != -1) ret += "\n  other: " + (totalMillis - phaseNanos / 1000000) + " ms";
+        return ret;
+    }
+
+    /**
+     * Adds the time and heap growth since the last mark to the running phase
+     */
+    private void mark() {
+        long time = TimeUtils.nanoTime();
+        long used = usedHeap();
+        if (running.size > 0) {
+            int index = running.peek();
+            nanos.incr(index, time - markTime);
+            heap.incr(index, Math.max(0, used - markHeap));
+        }
+        markTime = time;
+        markHeap = used;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+}
@@ -81,6 +81,9 @@ public class Statistics {
     // number of boss enemies encountered
     public int bossEncountered;
 
+    // total time played in seconds
+    public int playTime;
+
     public Statistics() {
         maxGold = new MaxStat();
         maxDamageSingleBattle = new MaxStat();
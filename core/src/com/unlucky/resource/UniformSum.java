@@ -0,0 +1,68 @@
+package com.unlucky.resource;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.LongMap;
+
+/**
+ * Samples the sum of k independent random integers in [min, max] with a single random number
+ * instead of drawing k numbers in a loop.
+ *
+ * The exact distribution of each sum is calculated once by convolution and sampled in constant time
+ * with an AliasTable so the results have the same distribution as the loop.
+ *
+ * @author Ming Li
+ */
+public class UniformSum {
+
+    // tables keyed by their min, max and number of draws
+    private static final LongMap<UniformSum> tables = new LongMap<UniformSum>();
+
+    // the smallest possible sum
+    private int offset;
+    private AliasTable table;
+
+    /**
+     * Returns the sum of k random integers from min to max inclusive
+     *
+     * @param k
+     * @param min
+     * @param max
+     * @return
+     */
+    public static int random(int k, int min, int max) {
+        if (k <= 0) return 0;
+        if (min == max) return k * min;
+        if (k == 1) return MathUtils.random(min, max);
+
+        long key = ((long) k << 32) | ((long) (min & 0xFFFF) << 16) | (max & 0xFFFF);
+        UniformSum table = tables.get(key);
+        if (table == null) {
+            table = new UniformSum(k, min, max);
+            tables.put(key, table);
+        }
+        return table.sample();
+    }
+
+    private UniformSum(int k, int min, int max) {
+        int width = max - min + 1;
+        offset = k * min;
+
+        // probability of each sum minus the offset by repeatedly convolving with a uniform distribution
+        double[] pmf = { 1 };
+        for (int i = 0; i < k; i++) {
+            double[] next = new double[pmf.length + width - 1];
+            for (int s = 0; s < pmf.length; s++) {
+                double p = pmf[s] / width;
+                for (int j = 0; j < width; j++) next[s + j] += p;
+            }
+            pmf = next;
+        }
+
+        table = new AliasTable(pmf);
+    }
+
+    private int sample() {
+        return offset + table.sample();
+    }
+
+}
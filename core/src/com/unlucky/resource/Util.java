@@ -106,13 +106,7 @@ public class Util {
     public static final float MIN_ELITE_MULTIPLIER = 1.3f;
     public static final float MAX_ELITE_MULTIPLIER = 1.6f;
 
-    public static final int NORMAL_ITEM_DROP = 30;
-    public static final int ELITE_ITEM_DROP = 60;
-    public static final int BOSS_ITEM_DROP = 80;
-    public static final int COMMON_ITEM_RNG_INDEX = 60;
-    public static final int RARE_ITEM_RNG_INDEX = 90;
-    public static final int EPIC_ITEM_RNG_INDEX = 99;
-    public static final int LEGENDARY_ITEM_RNG_INDEX = 100;
+    // item drop chances are in items/loot.json
 
     public static final float COMMON_ENCHANT_MIN = 1.f;
     public static final float COMMON_ENCHANT_MAX = 1.2f;
@@ -34,6 +34,7 @@ public class PlayerAccessor  {
     // inventory and equips consist of ItemAccessors to reduce unnecessary fields
     public ItemAccessor[] inventory;
     public ItemAccessor[] equips;
+    public ItemAccessor[] stash;
 
     // smoveset is simply an array of integers representing smove ids
     // -1 if no smove in slot
@@ -45,81 +46,162 @@ public class PlayerAccessor  {
     // settings
     public Settings settings;
 
+    // sections that changed in the last load
+    public static final int DIRTY_FIELDS = 1;
+    public static final int DIRTY_SMOVES = 2;
+    public static final int DIRTY_STATS = 4;
+    public static final int DIRTY_SETTINGS = 8;
+    public static final int DIRTY_ALL = 15;
+
+    public transient int dirty = DIRTY_ALL;
+    // bit i is set if inventory or equip slot i changed in the last load
+    public transient int dirtyInventory = -1;
+    public transient int dirtyEquips = -1;
+    public transient long dirtyStash = -1;
+
+    // what was loaded last time to detect changes without comparing every item field
+    private transient Item[] loadedInventory;
+    private transient int[] loadedInventoryVersions;
+    private transient Item[] loadedEquips;
+    private transient int[] loadedEquipVersions;
+    private transient Item[] loadedStash;
+    private transient int[] loadedStashVersions;
+    private transient int[] loadedStats;
+    private transient Settings loadedSettings;
+
     public PlayerAccessor() {
         inventory = new ItemAccessor[Inventory.NUM_SLOTS];
         equips = new ItemAccessor[Equipment.NUM_SLOTS];
+        stash = new ItemAccessor[Inventory.STASH_SLOTS];
         smoveset = new int[SpecialMoveset.MAX_MOVES];
         Arrays.fill(smoveset, -1);
     }
 
     /**
      * Updates the fields of this accessor with data from the player
+     * Only items that were added, moved or changed since the last load get new accessors
+     * and the sections and slots that changed are marked dirty
+     *
      * @param player
      */
     public void load(Player player) {
+        dirty = 0;
+
         // load atomic fields
-        this.hp = player.getHp();
-        this.maxHp = player.getMaxHp();
-        this.level = player.getLevel();
-        this.exp = player.getExp();
-        this.maxExp = player.getMaxExp();
-        this.gold = player.getGold();
-        this.minDamage = player.getMinDamage();
-        this.maxDamage = player.getMaxDamage();
-        this.accuracy = player.getAccuracy();
-        this.smoveCd = player.smoveCd;
-        this.maxWorld = player.maxWorld;
-        this.maxLevel = player.maxLevel;
-
-        // load inventory and equips
+        if (hp != player.getHp() || maxHp != player.getMaxHp() || level != player.getLevel()
+            || exp != player.getExp() || maxExp != player.getMaxExp() || gold != player.getGold()
+            || minDamage != player.getMinDamage() || maxDamage != player.getMaxDamage()
+            || accuracy != player.getAccuracy() || smoveCd != player.smoveCd
+            || maxWorld != player.maxWorld || maxLevel != player.maxLevel) {
+            this.hp = player.getHp();
+            this.maxHp = player.getMaxHp();
+            this.level = player.getLevel();
+            this.exp = player.getExp();
+            this.maxExp = player.getMaxExp();
+            this.gold = player.getGold();
+            this.minDamage = player.getMinDamage();
+            this.maxDamage = player.getMaxDamage();
+            this.accuracy = player.getAccuracy();
+            this.smoveCd = player.smoveCd;
+            this.maxWorld = player.maxWorld;
+            this.maxLevel = player.maxLevel;
+            dirty |= DIRTY_FIELDS;
+        }
+
+        // load inventory, equips and stash
+        if (loadedInventory == null) {
+            loadedInventory = new Item[Inventory.NUM_SLOTS];
+            loadedInventoryVersions = new int[Inventory.NUM_SLOTS];
+            loadedEquips = new Item[Equipment.NUM_SLOTS];
+            loadedEquipVersions = new int[Equipment.NUM_SLOTS];
+            loadedStash = new Item[Inventory.STASH_SLOTS];
+            loadedStashVersions = new int[Inventory.STASH_SLOTS];
+            dirtyInventory = dirtyEquips = -1;
+            dirtyStash = -1;
+        }
+        else {
+            dirtyInventory = dirtyEquips = 0;
+            dirtyStash = 0;
+        }
         for (int i = 0; i < Inventory.NUM_SLOTS; i++) {
-            if (!player.inventory.isFreeSlot(i)) {
-                Item item = player.inventory.getItem(i);
-                if (item instanceof ShopItem) {
-                    ShopItemAccessor sia = new ShopItemAccessor();
-                    sia.load((ShopItem) item);
-                    inventory[i] = sia;
-                }
-                else {
-                    ItemAccessor ia = new ItemAccessor();
-                    ia.load(item);
-                    inventory[i] = ia;
-                }
-            }
-            else {
-                inventory[i] = null;
-            }
+            Item item = player.inventory.isFreeSlot(i) ? null : player.inventory.getItem(i);
+            if (loadItem(item, i, inventory, loadedInventory, loadedInventoryVersions)) dirtyInventory |= 1 << i;
         }
         for (int i = 0; i < Equipment.NUM_SLOTS; i++) {
-            if (player.equips.getEquipAt(i) != null) {
-                Item equip = player.equips.getEquipAt(i);
-                if (equip instanceof ShopItem) {
-                    ShopItemAccessor sia = new ShopItemAccessor();
-                    sia.load((ShopItem) equip);
-                    equips[i] = sia;
-                }
-                else {
-                    ItemAccessor ia = new ItemAccessor();
-                    ia.load(equip);
-                    equips[i] = ia;
-                }
-            }
-            else {
-                equips[i] = null;
-            }
+            if (loadItem(player.equips.getEquipAt(i), i, equips, loadedEquips, loadedEquipVersions)) dirtyEquips |= 1 << i;
+        }
+        for (int i = 0; i < Inventory.STASH_SLOTS; i++) {
+            if (loadItem(player.stash.getItem(i), i, stash, loadedStash, loadedStashVersions)) dirtyStash |= 1L << i;
         }
 
-        Arrays.fill(smoveset, -1);
         // load smoveset
-        for (int i = 0; i < player.smoveset.smoveset.size; i++) {
-            smoveset[i] = player.smoveset.getMoveAt(i).id;
+        for (int i = 0; i < smoveset.length; i++) {
+            int id = i < player.smoveset.smoveset.size ? player.smoveset.getMoveAt(i).id : -1;
+            if (smoveset[i] != id) {
+                smoveset[i] = id;
+                dirty |= DIRTY_SMOVES;
+            }
         }
 
         // statistics
         this.stats = player.stats;
+        int[] statValues = SaveFormat.getStats(stats);
+        if (!Arrays.equals(statValues, loadedStats)) {
+            loadedStats = statValues;
+            dirty |= DIRTY_STATS;
+        }
 
         // settings
         this.settings = player.settings;
+        if (loadedSettings == null || !sameSettings(settings, loadedSettings)) {
+            if (loadedSettings == null) loadedSettings = new Settings();
+            copySettings(settings, loadedSettings);
+            dirty |= DIRTY_SETTINGS;
+        }
+    }
+
+    /**
+     * Creates an accessor for an item if it's not the same item as last load or it changed
+     * Returns true if the slot changed
+     */
+    private boolean loadItem(Item item, int i, ItemAccessor[] out, Item[] loaded, int[] versions) {
+        if (item == loaded[i] && (item == null || item.version == versions[i]) && (item == null) == (out[i] == null)) {
+            return false;
+        }
+        if (item == null) {
+            out[i] = null;
+        }
+        else if (item instanceof ShopItem) {
+            ShopItemAccessor sia = new ShopItemAccessor();
+            sia.load((ShopItem) item);
+            out[i] = sia;
+        }
+        else {
+            ItemAccessor ia = new ItemAccessor();
+            ia.load(item);
+            out[i] = ia;
+        }
+        loaded[i] = item;
+        versions[i] = item == null ? 0 : item.version;
+        return true;
+    }
+
+    private static boolean sameSettings(Settings a, Settings b) {
+        return a.musicVolume == b.musicVolume && a.sfxVolume == b.sfxVolume
+            && a.muteMusic == b.muteMusic && a.muteSfx == b.muteSfx
+            && a.showEnemyLevels == b.showEnemyLevels && a.showWeatherAnimations == b.showWeatherAnimations
+            && a.showFps == b.showFps && a.autoBattle == b.autoBattle;
+    }
+
+    private static void copySettings(Settings from, Settings to) {
+        to.musicVolume = from.musicVolume;
+        to.sfxVolume = from.sfxVolume;
+        to.muteMusic = from.muteMusic;
+        to.muteSfx = from.muteSfx;
+        to.showEnemyLevels = from.showEnemyLevels;
+        to.showWeatherAnimations = from.showWeatherAnimations;
+        to.showFps = from.showFps;
+        to.autoBattle = from.autoBattle;
     }
 
 }
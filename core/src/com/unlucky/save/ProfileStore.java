@@ -0,0 +1,253 @@
+package com.unlucky.save;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.unlucky.entity.Player;
+import com.unlucky.resource.ResourceManager;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Manages a fixed number of save slots each holding a separate player profile
+ *
+ * A small index file holds the last used slot and a summary of every slot so
+ * the slot picker never has to read a full save. A profile is only read when it's
+ * selected and that happens on a background thread, then the save data is applied
+ * to the same Player on the render thread so nothing else has to be recreated.
+ *
+ * @author Ming Li
+ */
+public class ProfileStore {
+
+    public static final int NUM_SLOTS = 3;
+
+    private static final byte[] INDEX_MAGIC = { 'U', 'N', 'L', 'I' };
+    private static final int INDEX_VERSION = 1;
+    // magic, version, active slot, then each slot's used flag and 5 ints
+    private static final int INDEX_SIZE = 4 + 1 + 1 + NUM_SLOTS * (1 + 5 * 4);
+
+    /**
+     * What the slot picker shows about a profile
+     */
+    public static class Meta {
+        public boolean used;
+        public int level;
+        public int gold;
+        public int maxWorld;
+        public int maxLevel;
+        // in seconds
+        public int playTime;
+    }
+
+    private final Player player;
+    private final ResourceManager rm;
+    private final FileHandle indexFile;
+    private final FileHandle indexTmp;
+
+    private final Meta[] index = new Meta[NUM_SLOTS];
+    // saves are created the first time their slot is used
+    private final Save[] saves = new Save[NUM_SLOTS];
+    private int active;
+
+    // background load
+    private final Object lock = new Object();
+    private int loadingSlot = -1;
+    private boolean loaded;
+    private PlayerAccessor loadedData;
+
+    public ProfileStore(Player player, ResourceManager rm) {
+        this.player = player;
+        this.rm = rm;
+        indexFile = Gdx.files.local("profiles.dat");
+        indexTmp = Gdx.files.local("profiles.dat.tmp");
+        for (int i = 0; i < NUM_SLOTS; i++) index[i] = new Meta();
+        readIndex();
+    }
+
+    /**
+     * Loads the last used profile on the current thread
+     * Used on startup when nothing can be shown without a player
+     *
+     * @return the save of the loaded profile
+     */
+    public Save load() {
+        Save save = getSave(active);
+        save.load(rm);
+        updateMeta();
+        return save;
+    }
+
+    /**
+     * Returns the summary of a slot from the index
+     *
+     * @param slot
+     * @return
+     */
+    public Meta getMeta(int slot) {
+        return index[slot];
+    }
+
+    public int getActive() {
+        return active;
+    }
+
+    public Save getSave() {
+        return getSave(active);
+    }
+
+    public boolean isLoading() {
+        synchronized (lock) {
+            return loadingSlot != -1;
+        }
+    }
+
+    /**
+     * Starts reading a profile in the background
+     * It's switched to by update once it's read
+     *
+     * @param slot
+     */
+    public void select(final int slot) {
+        if (slot == active || isLoading()) return;
+        final Save save = getSave(slot);
+        synchronized (lock) {
+            loadingSlot = slot;
+            loaded = false;
+        }
+        Thread loader = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                PlayerAccessor data = null;
+                boolean ok = true;
+                try {
+                    data = save.read(rm);
+                } catch (RuntimeException e) {
+                    System.err.println("Failed to read profile " + slot + ": " + e.getMessage());
+                    ok = false;
+                }
+                synchronized (lock) {
+                    if (ok) {
+                        loadedData = data;
+                        loaded = true;
+                    }
+                    else loadingSlot = -1;
+                }
+            }
+        }, "profile loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    /**
+     * Switches to the profile read in the background if it's ready
+     * Must be called on the render thread
+     *
+     * @return true if the player is now a different profile
+     */
+    public boolean update() {
+        int slot;
+        PlayerAccessor data;
+        synchronized (lock) {
+            if (!loaded) return false;
+            slot = loadingSlot;
+            data = loadedData;
+            loadingSlot = -1;
+            loaded = false;
+            loadedData = null;
+        }
+        // make sure the old profile is fully written before the player changes
+        getSave(active).flush();
+        updateMeta();
+
+        active = slot;
+        getSave(slot).apply(data, rm);
+        updateMeta();
+        return true;
+    }
+
+    /**
+     * Updates the index with the active profile and writes it
+     */
+    public void updateMeta() {
+        Meta meta = index[active];
+        meta.used = true;
+        meta.level = player.getLevel();
+        meta.gold = player.getGold();
+        meta.maxWorld = player.maxWorld;
+        meta.maxLevel = player.maxLevel;
+        meta.playTime = player.stats.playTime;
+        writeIndex();
+    }
+
+    /**
+     * Blocks until every profile's saves are written
+     */
+    public void flush() {
+        for (int i = 0; i < NUM_SLOTS; i++) {
+            if (saves[i] != null) saves[i].flush();
+        }
+    }
+
+    private Save getSave(int slot) {
+        if (saves[slot] == null) {
+            // the first slot keeps the file names from before there were profiles
+            if (slot == 0) saves[slot] = new Save(player, "save.dat", "save.json");
+            else saves[slot] = new Save(player, "save" + slot + ".dat", null);
+        }
+        return saves[slot];
+    }
+
+    private void readIndex() {
+        // the game closed after the old index was deleted but before the new one was renamed
+        if (!indexFile.exists() && indexTmp.exists()) {
+            if (isIndex(indexTmp.readBytes())) SaveStore.promote(indexFile, indexTmp);
+            else indexTmp.delete();
+        }
+        if (!indexFile.exists()) {
+            // older games only had the first slot
+            if (getSave(0).exists()) index[0].used = true;
+            return;
+        }
+        byte[] data = indexFile.readBytes();
+        if (!isIndex(data)) return;
+        ByteBuffer buf = ByteBuffer.wrap(data);
+        buf.position(5);
+        active = buf.get();
+        if (active < 0 || active >= NUM_SLOTS) active = 0;
+        for (int i = 0; i < NUM_SLOTS; i++) {
+            Meta meta = index[i];
+            meta.used = buf.get() != 0;
+            meta.level = buf.getInt();
+            meta.gold = buf.getInt();
+            meta.maxWorld = buf.getInt();
+            meta.maxLevel = buf.getInt();
+            meta.playTime = buf.getInt();
+        }
+    }
+
+    private static boolean isIndex(byte[] data) {
+        if (data.length < INDEX_SIZE || data[4] != INDEX_VERSION) return false;
+        for (int i = 0; i < INDEX_MAGIC.length; i++) {
+            if (data[i] != INDEX_MAGIC[i]) return false;
+        }
+        return true;
+    }
+
+    private void writeIndex() {
+        ByteBuffer buf = ByteBuffer.allocate(INDEX_SIZE);
+        buf.put(INDEX_MAGIC);
+        buf.put((byte) INDEX_VERSION);
+        buf.put((byte) active);
+        for (int i = 0; i < NUM_SLOTS; i++) {
+            Meta meta = index[i];
+            buf.put((byte) (meta.used ? 1 : 0));
+            buf.putInt(meta.level);
+            buf.putInt(meta.gold);
+            buf.putInt(meta.maxWorld);
+            buf.putInt(meta.maxLevel);
+            buf.putInt(meta.playTime);
+        }
+        SaveStore.replace(indexFile, indexTmp, buf.array());
+    }
+
+}
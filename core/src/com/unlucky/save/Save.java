@@ -3,8 +3,10 @@ package com.unlucky.save;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.utils.Base64Coder;
+import com.badlogic.gdx.utils.IntMap;
 import com.badlogic.gdx.utils.Json;
 import com.badlogic.gdx.utils.JsonWriter;
+import com.badlogic.gdx.utils.TimeUtils;
 import com.unlucky.battle.SpecialMoveset;
 import com.unlucky.entity.Player;
 import com.unlucky.inventory.Equipment;
@@ -14,7 +16,10 @@ import com.unlucky.inventory.ShopItem;
 import com.unlucky.resource.ResourceManager;
 
 /**
- * Handles the reading and writing of save data to json files.
+ * Handles the reading and writing of save data.
+ * Saves are written in the binary SaveFormat through a SaveStore which only
+ * appends what changed, and older Base64 json saves are read and converted
+ * the first time they're loaded.
  *
  * @author Ming Li
  */
@@ -24,35 +29,136 @@ public class Save {
     private Player player;
     public PlayerAccessor psave;
     private Json json;
-    private FileHandle file;
+    private SaveStore store;
+    // json save from before the binary format
+    private FileHandle legacyFile;
+    // writes saves in the background
+    private SaveWriter writer;
+    // to look up item templates
+    private ResourceManager rm;
+    // the save was converted from json or is new so it needs to be written
+    private boolean convert;
+    // how long decoding the save took in microseconds
+    private long loadMicros;
+    // the entries of the last save, reused for the parts of the player that didn't change
+    private IntMap<byte[]> entries;
+    // total time spent taking snapshots of the player to save
+    private long snapshotNanos;
+    private int numSnapshots;
 
-    public Save(Player player, String path) {
+    /**
+     * @param player
+     * @param path binary save snapshot, its journal is stored next to it
+     * @param legacyPath json save file to convert if there is no binary save, can be null
+     */
+    public Save(Player player, String path, String legacyPath) {
         this.player = player;
         psave = new PlayerAccessor();
         json = new Json();
         json.setOutputType(JsonWriter.OutputType.json);
         json.setUsePrototypes(false);
-        file = Gdx.files.local(path);
+        store = new SaveStore(Gdx.files.local(path));
+        legacyFile = legacyPath == null ? null : Gdx.files.local(legacyPath);
+        writer = new SaveWriter(store);
+    }
+
+    /**
+     * Returns whether there is save data to load
+     */
+    public boolean exists() {
+        return store.exists() || (legacyFile != null && legacyFile.exists());
     }
 
     /**
      * Loads the player data into the PlayerAccessor then
-     * writes the player save data to the json file
+     * queues the player save data to be written to the json file
+     *
+     * The save is encoded here so it's a consistent snapshot of the player,
+     * finding the entries that changed and writing them happens on the writer thread.
+     * Only the parts of the player that changed since the last save are encoded again.
      */
     public void save() {
+        long start = TimeUtils.nanoTime();
         // load player data
         psave.load(player);
-        // write data to save json
-        file.writeString(Base64Coder.encodeString(json.prettyPrint(psave)), false);
+        entries = SaveFormat.encode(psave, rm, entries);
+        snapshotNanos += TimeUtils.timeSinceNanos(start);
+        numSnapshots++;
+        writer.submit(entries);
     }
 
     /**
-     * Reads the player data from the save json file and then
+     * Blocks until every save is written to the file
+     */
+    public void flush() {
+        writer.flush();
+    }
+
+    /**
+     * Logs the median and 99th percentile time saves took to reach the file
+     * and the average time taken to snapshot the player
+     */
+    public void profile() {
+        System.out.println("Save latency p50: " + writer.getLatency(0.5f) + " ms, p99: " + writer.getLatency(0.99f) + " ms" +
+            ", snapshot: " + (numSnapshots == 0 ? 0 : snapshotNanos / numSnapshots / 1000) + " us" +
+            ", load: " + loadMicros + " us, journal records replayed: " + store.replayed);
+    }
+
+    /**
+     * Reads the player data from the save file and then
      * loads the data into the game through the player
      */
     public void load(ResourceManager rm) {
-        if (!file.exists()) save();
-        psave = json.fromJson(PlayerAccessor.class, Base64Coder.decodeString(file.readString()));
+        apply(read(rm), rm);
+    }
+
+    /**
+     * Reads the player data from the save file without changing the player
+     * so it can be done off the render thread
+     * Returns null if there is no save yet
+     *
+     * @param rm
+     * @return
+     */
+    public PlayerAccessor read(ResourceManager rm) {
+        PlayerAccessor ret = null;
+        convert = false;
+        long start = TimeUtils.nanoTime();
+        if (store.exists()) {
+            ret = SaveFormat.decode(store.load(rm), rm);
+        }
+        else if (legacyFile != null && legacyFile.exists()) {
+            // the old file is kept as a backup
+            ret = json.fromJson(PlayerAccessor.class, Base64Coder.decodeString(legacyFile.readString()));
+            convert = true;
+        }
+        loadMicros = TimeUtils.timeSinceNanos(start) / 1000;
+        return ret;
+    }
+
+    /**
+     * Replaces the player's data with save data from read
+     * The player starts over if there was no save
+     *
+     * @param data
+     * @param rm
+     */
+    public void apply(PlayerAccessor data, ResourceManager rm) {
+        this.rm = rm;
+        entries = null;
+        if (data == null) {
+            // new player
+            data = new PlayerAccessor();
+            data.load(new Player("player", rm));
+            convert = true;
+        }
+        psave = data;
+
+        // remove anything from a previously loaded save
+        player.inventory.clear();
+        player.stash.clear();
+        player.equips.clear();
+        player.smoveset.clear();
 
         // load atomic fields
         player.setHp(psave.hp);
@@ -68,9 +174,11 @@ public class Save {
         player.maxWorld = psave.maxWorld;
         player.maxLevel = psave.maxLevel;
 
-        // load inventory and equips
-        loadInventory(rm);
+        // load inventory, equips and stash
+        loadInventory(psave.inventory, player.inventory, rm);
         loadEquips(rm);
+        // json saves from before the stash don't have one
+        if (psave.stash != null) loadInventory(psave.stash, player.stash, rm);
 
         // load smoveset
         for (int i = 0; i < SpecialMoveset.MAX_MOVES; i++) {
@@ -86,14 +194,20 @@ public class Save {
         player.settings = psave.settings;
         if (player.settings.muteMusic) rm.setMusicVolume(0f);
         else rm.setMusicVolume(player.settings.musicVolume);
+        rm.audio.setSettings(player.settings);
+
+        if (convert) {
+            save();
+            flush();
+        }
     }
 
     /**
-     * Helper method for loading and converting ItemAccessors to Items in the inventory
+     * Helper method for loading and converting ItemAccessors to Items in the inventory or stash
      */
-    private void loadInventory(ResourceManager rm) {
-        for (int i = 0; i < Inventory.NUM_SLOTS; i++) {
-            ItemAccessor ia = psave.inventory[i];
+    private void loadInventory(ItemAccessor[] items, Inventory inventory, ResourceManager rm) {
+        for (int i = 0; i < items.length; i++) {
+            ItemAccessor ia = items[i];
             if (ia != null) {
                 // shop items
                 if (ia instanceof ShopItemAccessor) {
@@ -109,7 +223,8 @@ public class Save {
                     else if (ia.type == 10)
                         sitem = new ShopItem(rm, ia.name, ia.desc, ia.rarity, ia.imgIndex, 0,
                             ia.eChance, ia.sell, ((ShopItemAccessor) ia).price);
-                    player.inventory.addItemAtIndex(sitem, ia.index);
+                    restore(sitem, ia);
+                    inventory.addItemAtIndex(sitem, ia.index);
                 }
                 else {
                     Item item = null;
@@ -126,7 +241,8 @@ public class Save {
                     else if (ia.type == 10)
                         item = new Item(rm, ia.name, ia.desc, ia.rarity, ia.imgIndex, 0, 0,
                             ia.eChance, ia.sell);
-                    player.inventory.addItemAtIndex(item, ia.index);
+                    restore(item, ia);
+                    inventory.addItemAtIndex(item, ia.index);
                 }
             }
         }
@@ -151,6 +267,7 @@ public class Save {
                     else if (ia.type == 10)
                         sitem = new ShopItem(rm, ia.name, ia.desc, ia.rarity, ia.imgIndex, 0,
                             ia.eChance, ia.sell, ((ShopItemAccessor) ia).price);
+                    restore(sitem, ia);
                     player.equips.addEquip(sitem);
                 }
                 else {
@@ -166,10 +283,21 @@ public class Save {
                     else if (ia.type == 10)
                         item = new Item(rm, ia.name, ia.desc, ia.rarity, ia.imgIndex, 0, 0,
                             ia.eChance, ia.sell);
+                    restore(item, ia);
                     player.equips.addEquip(item);
                 }
             }
         }
     }
 
+    /**
+     * Restores the fields of an item that its constructors don't take
+     */
+    private void restore(Item item, ItemAccessor ia) {
+        item.enchantCost = ia.enchantCost;
+        item.enchants = ia.enchants;
+        item.bonusEnchantChance = ia.bonusEnchantChance;
+        if (ia.labelName != null) item.labelName = ia.labelName;
+    }
+
 }
@@ -0,0 +1,686 @@
+package com.unlucky.save;
+
+import com.badlogic.gdx.utils.IntMap;
+import com.unlucky.inventory.Equipment;
+import com.unlucky.inventory.Inventory;
+import com.unlucky.inventory.ItemTemplate;
+import com.unlucky.inventory.ShopItem;
+import com.unlucky.resource.ResourceManager;
+import com.unlucky.resource.Statistics;
+
+import java.io.ByteArrayOutputStream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Binary encoding of a PlayerAccessor
+ *
+ * A save is a set of entries keyed by an id (a stat, an inventory slot, the settings...)
+ * so a change to the player can be stored as just the entries that changed.
+ * Every number in an entry is a zigzag varint. Items are stored by their type and
+ * image index, which identify their entry in items.json or shopitems.json, followed
+ * by their rolled stats. Only items that aren't in the item pools store their name
+ * and description.
+ *
+ * A snapshot file starts with the magic "UNLK", a version byte and a flags byte
+ * (bit 0 - the rest is deflated) followed by its generation and every entry.
+ * Version 1 snapshots stored the fields in a fixed order and are converted on load.
+ *
+ * @author Ming Li
+ */
+public class SaveFormat {
+
+    private static final byte[] MAGIC = { 'U', 'N', 'L', 'K' };
+    public static final int VERSION = 2;
+    private static final int HEADER_SIZE = 6;
+    private static final int FLAG_DEFLATED = 1;
+
+    // item record flags
+    private static final int ITEM_SHOP = 1;
+    private static final int ITEM_INLINE = 2;
+
+    // entry ids
+    private static final int FIELDS = 0;
+    private static final int NUM_FIELDS = 12;
+    private static final int INVENTORY = 100;
+    private static final int EQUIPS = 200;
+    private static final int SMOVES = 300;
+    private static final int STATS = 400;
+    private static final int SETTINGS = 500;
+    private static final int STASH = 600;
+
+    /**
+     * A decoded snapshot file
+     */
+    public static class Snapshot {
+        public IntMap<byte[]> entries;
+        // increases every time the snapshot is rewritten
+        public long generation;
+        public int version;
+    }
+
+    /**
+     * Returns whether data is a snapshot rather than an old Base64 json save
+     *
+     * @param data
+     * @return
+     */
+    public static boolean isBinary(byte[] data) {
+        if (data.length < HEADER_SIZE) return false;
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (data[i] != MAGIC[i]) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Splits a save into entries
+     *
+     * @param p
+     * @param rm
+     * @return
+     */
+    public static IntMap<byte[]> encode(PlayerAccessor p, ResourceManager rm) {
+        return encode(p, rm, null);
+    }
+
+    /**
+     * Splits a save into entries, reusing the entries of the previous encoding
+     * for the sections and slots the accessor didn't mark dirty
+     *
+     * @param p
+     * @param rm
+     * @param previous entries encoded from the last load of p or null to encode everything
+     * @return
+     */
+    public static IntMap<byte[]> encode(PlayerAccessor p, ResourceManager rm, IntMap<byte[]> previous) {
+        IntMap<byte[]> entries = new IntMap<byte[]>(previous == null ? 64 : previous.size);
+        int dirty = previous == null ? PlayerAccessor.DIRTY_ALL : p.dirty;
+        int dirtyInventory = previous == null ? -1 : p.dirtyInventory;
+        int dirtyEquips = previous == null ? -1 : p.dirtyEquips;
+        long dirtyStash = previous == null ? -1 : p.dirtyStash;
+
+        if ((dirty & PlayerAccessor.DIRTY_FIELDS) != 0) {
+            int[] fields = {
+                p.hp, p.maxHp, p.level, p.exp, p.maxExp, p.gold, p.minDamage,
+                p.maxDamage, p.accuracy, p.smoveCd, p.maxWorld, p.maxLevel
+            };
+            for (int i = 0; i < NUM_FIELDS; i++) entries.put(FIELDS + i, encodeInt(fields[i]));
+        }
+        else reuse(previous, entries, FIELDS, NUM_FIELDS);
+
+        // empty slots have no entry
+        for (int i = 0; i < p.inventory.length; i++) {
+            if ((dirtyInventory & (1 << i)) == 0) reuse(previous, entries, INVENTORY + i, 1);
+            else if (p.inventory[i] != null) {
+                Writer w = new Writer();
+                writeItem(w, p.inventory[i], rm);
+                entries.put(INVENTORY + i, w.out.toByteArray());
+            }
+        }
+        for (int i = 0; i < p.equips.length; i++) {
+            if ((dirtyEquips & (1 << i)) == 0) reuse(previous, entries, EQUIPS + i, 1);
+            else if (p.equips[i] != null) {
+                Writer w = new Writer();
+                writeItem(w, p.equips[i], rm);
+                entries.put(EQUIPS + i, w.out.toByteArray());
+            }
+        }
+        for (int i = 0; i < p.stash.length; i++) {
+            if ((dirtyStash & (1L << i)) == 0) reuse(previous, entries, STASH + i, 1);
+            else if (p.stash[i] != null) {
+                Writer w = new Writer();
+                writeItem(w, p.stash[i], rm);
+                entries.put(STASH + i, w.out.toByteArray());
+            }
+        }
+
+        if ((dirty & PlayerAccessor.DIRTY_SMOVES) != 0) {
+            Writer w = new Writer();
+            int numSMoves = 0;
+            while (numSMoves < p.smoveset.length && p.smoveset[numSMoves] != -1) numSMoves++;
+            w.varint(numSMoves);
+            for (int i = 0; i < numSMoves; i++) w.varint(p.smoveset[i]);
+            entries.put(SMOVES, w.out.toByteArray());
+        }
+        else reuse(previous, entries, SMOVES, 1);
+
+        if ((dirty & PlayerAccessor.DIRTY_STATS) != 0) {
+            int[] stats = getStats(p.stats);
+            for (int i = 0; i < stats.length; i++) {
+                // most stats stay the same between saves
+                byte[] old = previous == null ? null : previous.get(STATS + i);
+                entries.put(STATS + i, old != null && decodeInt(old) == stats[i] ? old : encodeInt(stats[i]));
+            }
+        }
+        else {
+            for (int i = 0; previous.containsKey(STATS + i); i++) entries.put(STATS + i, previous.get(STATS + i));
+        }
+
+        if ((dirty & PlayerAccessor.DIRTY_SETTINGS) != 0) {
+            Settings s = p.settings;
+            Writer w = new Writer();
+            w.varint(Float.floatToIntBits(s.musicVolume));
+            w.varint(Float.floatToIntBits(s.sfxVolume));
+            w.varint((s.muteMusic ? 1 : 0) | (s.muteSfx ? 2 : 0) | (s.showEnemyLevels ? 4 : 0)
+                | (s.showWeatherAnimations ? 8 : 0) | (s.showFps ? 16 : 0));
+            w.varint(s.autoBattle);
+            entries.put(SETTINGS, w.out.toByteArray());
+        }
+        else reuse(previous, entries, SETTINGS, 1);
+
+        return entries;
+    }
+
+    private static void reuse(IntMap<byte[]> previous, IntMap<byte[]> entries, int id, int count) {
+        for (int i = id; i < id + count; i++) {
+            byte[] value = previous.get(i);
+            if (value != null) entries.put(i, value);
+        }
+    }
+
+    /**
+     * Builds a save from its entries
+     *
+     * @param entries
+     * @param rm
+     * @return
+     */
+    public static PlayerAccessor decode(IntMap<byte[]> entries, ResourceManager rm) {
+        PlayerAccessor p = new PlayerAccessor();
+        int[] fields = new int[NUM_FIELDS];
+        for (int i = 0; i < NUM_FIELDS; i++) fields[i] = decodeInt(entries.get(FIELDS + i));
+        p.hp = fields[0];
+        p.maxHp = fields[1];
+        p.level = fields[2];
+        p.exp = fields[3];
+        p.maxExp = fields[4];
+        p.gold = fields[5];
+        p.minDamage = fields[6];
+        p.maxDamage = fields[7];
+        p.accuracy = fields[8];
+        p.smoveCd = fields[9];
+        p.maxWorld = fields[10];
+        p.maxLevel = fields[11];
+
+        for (int i = 0; i < Inventory.NUM_SLOTS; i++) {
+            byte[] item = entries.get(INVENTORY + i);
+            if (item != null) {
+                p.inventory[i] = readItem(new Reader(item, 0), rm);
+                p.inventory[i].index = i;
+            }
+        }
+        for (int i = 0; i < Equipment.NUM_SLOTS; i++) {
+            byte[] item = entries.get(EQUIPS + i);
+            if (item != null) p.equips[i] = readItem(new Reader(item, 0), rm);
+        }
+        // saves from before the stash have no stash entries
+        for (int i = 0; i < Inventory.STASH_SLOTS; i++) {
+            byte[] item = entries.get(STASH + i);
+            if (item != null) {
+                p.stash[i] = readItem(new Reader(item, 0), rm);
+                p.stash[i].index = i;
+            }
+        }
+
+        byte[] smoves = entries.get(SMOVES);
+        if (smoves != null) {
+            Reader r = new Reader(smoves, 0);
+            int numSMoves = r.varint();
+            for (int i = 0; i < numSMoves; i++) {
+                int id = r.varint();
+                if (i < p.smoveset.length) p.smoveset[i] = id;
+            }
+        }
+
+        // saves from older versions may have fewer stats
+        int numStats = 0;
+        while (entries.containsKey(STATS + numStats)) numStats++;
+        int[] stats = new int[numStats];
+        for (int i = 0; i < numStats; i++) stats[i] = decodeInt(entries.get(STATS + i));
+        p.stats = new Statistics();
+        setStats(p.stats, stats);
+
+        Settings s = new Settings();
+        byte[] settings = entries.get(SETTINGS);
+        if (settings != null) {
+            Reader r = new Reader(settings, 0);
+            s.musicVolume = Float.intBitsToFloat(r.varint());
+            s.sfxVolume = Float.intBitsToFloat(r.varint());
+            int toggles = r.varint();
+            s.muteMusic = (toggles & 1) != 0;
+            s.muteSfx = (toggles & 2) != 0;
+            s.showEnemyLevels = (toggles & 4) != 0;
+            s.showWeatherAnimations = (toggles & 8) != 0;
+            s.showFps = (toggles & 16) != 0;
+            s.autoBattle = r.varint();
+        }
+        p.settings = s;
+
+        return p;
+    }
+
+    /**
+     * Encodes the entries that differ between two saves
+     * Entries that were removed are written with no bytes
+     * Returns null if nothing changed
+     *
+     * @param from
+     * @param to
+     * @return
+     */
+    public static byte[] diff(IntMap<byte[]> from, IntMap<byte[]> to) {
+        Writer w = new Writer();
+        int count = 0;
+        Writer body = new Writer();
+        for (IntMap.Entry<byte[]> e : to.entries()) {
+            byte[] old = from.get(e.key);
+            if (old == null || !java.util.Arrays.equals(old, e.value)) {
+                body.entry(e.key, e.value);
+                count++;
+            }
+        }
+        for (IntMap.Entry<byte[]> e : from.entries()) {
+            if (!to.containsKey(e.key)) {
+                body.entry(e.key, new byte[0]);
+                count++;
+            }
+        }
+        if (count == 0) return null;
+        w.varint(count);
+        byte[] bytes = body.out.toByteArray();
+        w.out.write(bytes, 0, bytes.length);
+        return w.out.toByteArray();
+    }
+
+    /**
+     * Applies entries encoded by diff
+     *
+     * @param batch
+     * @param entries
+     */
+    public static void apply(byte[] batch, IntMap<byte[]> entries) {
+        readEntries(new Reader(batch, 0), entries);
+    }
+
+    /**
+     * Encodes a deflated snapshot file of every entry
+     *
+     * @param entries
+     * @param generation
+     * @return
+     */
+    public static byte[] writeSnapshot(IntMap<byte[]> entries, long generation) {
+        Writer w = new Writer();
+        w.out.write(MAGIC, 0, MAGIC.length);
+        w.out.write(VERSION);
+        w.out.write(0);
+        w.varlong(generation);
+        w.varint(entries.size);
+        for (IntMap.Entry<byte[]> e : entries.entries()) w.entry(e.key, e.value);
+        return deflate(w.out.toByteArray());
+    }
+
+    /**
+     * Decodes a snapshot file of any version
+     *
+     * @param data
+     * @param rm
+     * @return
+     */
+    public static Snapshot readSnapshot(byte[] data, ResourceManager rm) {
+        if (!isBinary(data)) throw new IllegalArgumentException("Not a binary save");
+        int version = data[4];
+        if (version > VERSION) throw new IllegalArgumentException("Save version " + version + " is newer than the game");
+        if ((data[5] & FLAG_DEFLATED) != 0) data = inflate(data);
+
+        Snapshot snapshot = new Snapshot();
+        snapshot.version = version;
+        if (version == 1) {
+            snapshot.entries = encode(readV1(data, rm), rm);
+            return snapshot;
+        }
+        Reader r = new Reader(data, HEADER_SIZE);
+        snapshot.generation = r.varlong();
+        snapshot.entries = new IntMap<byte[]>();
+        readEntries(r, snapshot.entries);
+        return snapshot;
+    }
+
+    private static void readEntries(Reader r, IntMap<byte[]> entries) {
+        int count = r.varint();
+        for (int i = 0; i < count; i++) {
+            int id = r.varint();
+            byte[] value = r.bytes();
+            if (value.length == 0) entries.remove(id);
+            else entries.put(id, value);
+        }
+    }
+
+    private static byte[] encodeInt(int value) {
+        Writer w = new Writer();
+        w.varint(value);
+        return w.out.toByteArray();
+    }
+
+    private static int decodeInt(byte[] value) {
+        return value == null ? 0 : new Reader(value, 0).varint();
+    }
+
+    /**
+     * Decodes the body of a version 1 snapshot which had every field in a fixed order
+     */
+    private static PlayerAccessor readV1(byte[] data, ResourceManager rm) {
+        Reader r = new Reader(data, HEADER_SIZE);
+        PlayerAccessor p = new PlayerAccessor();
+        p.hp = r.varint();
+        p.maxHp = r.varint();
+        p.level = r.varint();
+        p.exp = r.varint();
+        p.maxExp = r.varint();
+        p.gold = r.varint();
+        p.minDamage = r.varint();
+        p.maxDamage = r.varint();
+        p.accuracy = r.varint();
+        p.smoveCd = r.varint();
+        p.maxWorld = r.varint();
+        p.maxLevel = r.varint();
+
+        int numItems = r.varint();
+        for (int i = 0; i < numItems; i++) {
+            int slot = r.varint();
+            ItemAccessor ia = readItem(r, rm);
+            ia.index = slot;
+            if (slot < Inventory.NUM_SLOTS) p.inventory[slot] = ia;
+        }
+        int numEquips = r.varint();
+        for (int i = 0; i < numEquips; i++) {
+            ItemAccessor ia = readItem(r, rm);
+            int slot = ia.type - 2;
+            if (slot >= 0 && slot < Equipment.NUM_SLOTS) p.equips[slot] = ia;
+        }
+
+        int numSMoves = r.varint();
+        for (int i = 0; i < numSMoves; i++) {
+            int id = r.varint();
+            if (i < p.smoveset.length) p.smoveset[i] = id;
+        }
+
+        // saves from older versions may have fewer stats and newer ones more
+        int numStats = r.varint();
+        int[] stats = new int[numStats];
+        for (int i = 0; i < numStats; i++) stats[i] = r.varint();
+        p.stats = new Statistics();
+        setStats(p.stats, stats);
+
+        Settings s = new Settings();
+        s.musicVolume = Float.intBitsToFloat(r.varint());
+        s.sfxVolume = Float.intBitsToFloat(r.varint());
+        int toggles = r.varint();
+        s.muteMusic = (toggles & 1) != 0;
+        s.muteSfx = (toggles & 2) != 0;
+        s.showEnemyLevels = (toggles & 4) != 0;
+        s.showWeatherAnimations = (toggles & 8) != 0;
+        s.showFps = (toggles & 16) != 0;
+        s.autoBattle = r.varint();
+        p.settings = s;
+
+        return p;
+    }
+
+
+    /**
+     * Compresses the body of an encoded save
+     *
+     * @param data
+     * @return
+     */
+    private static byte[] deflate(byte[] data) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        deflater.setInput(data, HEADER_SIZE, data.length - HEADER_SIZE);
+        deflater.finish();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length);
+        out.write(data, 0, HEADER_SIZE - 1);
+        out.write(data[HEADER_SIZE - 1] | FLAG_DEFLATED);
+        byte[] buffer = new byte[256];
+        while (!deflater.finished()) {
+            int n = deflater.deflate(buffer);
+            out.write(buffer, 0, n);
+        }
+        deflater.end();
+        return out.toByteArray();
+    }
+
+    private static byte[] inflate(byte[] data) {
+        Inflater inflater = new Inflater();
+        inflater.setInput(data, HEADER_SIZE, data.length - HEADER_SIZE);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length * 4);
+        out.write(data, 0, HEADER_SIZE - 1);
+        out.write(data[HEADER_SIZE - 1] & ~FLAG_DEFLATED);
+        byte[] buffer = new byte[256];
+        try {
+            while (!inflater.finished()) {
+                int n = inflater.inflate(buffer);
+                if (n == 0 && inflater.needsInput()) throw new IllegalArgumentException("Truncated save");
+                out.write(buffer, 0, n);
+            }
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("Corrupt save", e);
+        } finally {
+            inflater.end();
+        }
+        return out.toByteArray();
+    }
+
+    private static void writeItem(Writer w, ItemAccessor ia, ResourceManager rm) {
+        boolean shop = ia instanceof ShopItemAccessor;
+        boolean inline = shop ? rm.findShopItem(ia.type, ia.imgIndex) == null
+            : rm.findItemTemplate(ia.type, ia.imgIndex) == null;
+        w.varint((shop ? ITEM_SHOP : 0) | (inline ? ITEM_INLINE : 0));
+        w.varint(ia.type);
+        w.varint(ia.imgIndex);
+        if (inline) {
+            w.string(ia.name);
+            w.string(ia.desc);
+        }
+        w.varint(ia.rarity);
+        w.varint(ia.hp);
+        w.varint(ia.mhp);
+        w.varint(ia.dmg);
+        w.varint(ia.acc);
+        w.varint(ia.sell);
+        w.varint(ia.exp);
+        w.varint(ia.enchants);
+        w.varint(ia.enchantCost);
+        w.varint(ia.bonusEnchantChance);
+        w.varint(ia.eChance);
+        if (shop) w.varint(((ShopItemAccessor) ia).price);
+    }
+
+    private static ItemAccessor readItem(Reader r, ResourceManager rm) {
+        int flags = r.varint();
+        boolean shop = (flags & ITEM_SHOP) != 0;
+        ItemAccessor ia = shop ? new ShopItemAccessor() : new ItemAccessor();
+        ia.type = r.varint();
+        ia.imgIndex = r.varint();
+        if ((flags & ITEM_INLINE) != 0) {
+            ia.name = r.string();
+            ia.desc = r.string();
+        }
+        else if (shop) {
+            ShopItem template = rm.findShopItem(ia.type, ia.imgIndex);
+            ia.name = template.name;
+            ia.desc = template.desc;
+        }
+        else {
+            ItemTemplate template = rm.findItemTemplate(ia.type, ia.imgIndex);
+            ia.name = template.name;
+            ia.desc = template.desc;
+        }
+        ia.rarity = r.varint();
+        ia.hp = r.varint();
+        ia.mhp = r.varint();
+        ia.dmg = r.varint();
+        ia.acc = r.varint();
+        ia.sell = r.varint();
+        ia.exp = r.varint();
+        ia.enchants = r.varint();
+        ia.enchantCost = r.varint();
+        ia.bonusEnchantChance = r.varint();
+        ia.eChance = r.varint();
+        if (shop) ((ShopItemAccessor) ia).price = r.varint();
+        ia.labelName = ia.enchants > 0 ? "+" + ia.enchants + " " + ia.name : ia.name;
+        return ia;
+    }
+
+    // new statistics must be added at the end
+    static int[] getStats(Statistics s) {
+        return new int[] {
+            s.cumulativeExp, s.damageTaken, s.hpHealed, s.cumulativeGold, s.maxGold.stat,
+            s.numEnchants, s.numDeaths, s.numShopItemsBought, s.numSteps, s.numDungeonsWon,
+            s.numItemsFromMonsters, s.numCommonItems, s.numRareItems, s.numEpicItems,
+            s.numLegendaryItems, s.goldGainedFromMaps, s.numQuestionTiles, s.numExclamTiles,
+            s.numTeleports, s.damageDealt, s.maxDamageSingleHit.stat, s.maxDamageSingleBattle.stat,
+            s.maxHealSingleMove.stat, s.maxHealSingleBattle.stat, s.numMovesUsed, s.numMovesMissed,
+            s.numSMovesUsed, s.enemiesDefeated, s.elitesDefeated, s.bossesDefeated,
+            s.eliteEncountered, s.bossEncountered, s.playTime
+        };
+    }
+
+    private static void setStats(Statistics s, int[] v) {
+        int n = v.length;
+        int i = 0;
+        if (i < n) s.cumulativeExp = v[i++];
+        if (i < n) s.damageTaken = v[i++];
+        if (i < n) s.hpHealed = v[i++];
+        if (i < n) s.cumulativeGold = v[i++];
+        if (i < n) s.maxGold.stat = v[i++];
+        if (i < n) s.numEnchants = v[i++];
+        if (i < n) s.numDeaths = v[i++];
+        if (i < n) s.numShopItemsBought = v[i++];
+        if (i < n) s.numSteps = v[i++];
+        if (i < n) s.numDungeonsWon = v[i++];
+        if (i < n) s.numItemsFromMonsters = v[i++];
+        if (i < n) s.numCommonItems = v[i++];
+        if (i < n) s.numRareItems = v[i++];
+        if (i < n) s.numEpicItems = v[i++];
+        if (i < n) s.numLegendaryItems = v[i++];
+        if (i < n) s.goldGainedFromMaps = v[i++];
+        if (i < n) s.numQuestionTiles = v[i++];
+        if (i < n) s.numExclamTiles = v[i++];
+        if (i < n) s.numTeleports = v[i++];
+        if (i < n) s.damageDealt = v[i++];
+        if (i < n) s.maxDamageSingleHit.stat = v[i++];
+        if (i < n) s.maxDamageSingleBattle.stat = v[i++];
+        if (i < n) s.maxHealSingleMove.stat = v[i++];
+        if (i < n) s.maxHealSingleBattle.stat = v[i++];
+        if (i < n) s.numMovesUsed = v[i++];
+        if (i < n) s.numMovesMissed = v[i++];
+        if (i < n) s.numSMovesUsed = v[i++];
+        if (i < n) s.enemiesDefeated = v[i++];
+        if (i < n) s.elitesDefeated = v[i++];
+        if (i < n) s.bossesDefeated = v[i++];
+        if (i < n) s.eliteEncountered = v[i++];
+        if (i < n) s.bossEncountered = v[i++];
+        if (i < n) s.playTime = v[i];
+    }
+
+    private static class Writer {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(512);
+
+        void varint(int value) {
+            // zigzag so small negative numbers stay small
+            int v = (value << 1) ^ (value >> 31);
+            while ((v & ~0x7F) != 0) {
+                out.write((v & 0x7F) | 0x80);
+                v >>>= 7;
+            }
+            out.write(v);
+        }
+
+        void varlong(long value) {
+            while ((value & ~0x7FL) != 0) {
+                out.write((int) (value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            out.write((int) value);
+        }
+
+        void entry(int id, byte[] value) {
+            varint(id);
+            varint(value.length);
+            out.write(value, 0, value.length);
+        }
+
+        void string(String s) {
+            byte[] bytes;
+            try {
+                bytes = s.getBytes("UTF-8");
+            } catch (java.io.UnsupportedEncodingException e) {
+                throw new RuntimeException(e);
+            }
+            varint(bytes.length);
+            out.write(bytes, 0, bytes.length);
+        }
+    }
+
+    private static class Reader {
+        byte[] data;
+        int pos;
+
+        Reader(byte[] data, int pos) {
+            this.data = data;
+            this.pos = pos;
+        }
+
+        int varint() {
+            int v = 0;
+            int shift = 0;
+            while (true) {
+                if (pos >= data.length) throw new IllegalArgumentException("Truncated save");
+                int b = data[pos++];
+                v |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) break;
+                shift += 7;
+                if (shift > 28) throw new IllegalArgumentException("Corrupt save");
+            }
+            return (v >>> 1) ^ -(v & 1);
+        }
+
+        long varlong() {
+            long v = 0;
+            int shift = 0;
+            while (true) {
+                if (pos >= data.length) throw new IllegalArgumentException("Truncated save");
+                int b = data[pos++];
+                v |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) return v;
+                shift += 7;
+                if (shift > 63) throw new IllegalArgumentException("Corrupt save");
+            }
+        }
+
+        byte[] bytes() {
+            int length = varint();
+            if (length < 0 || pos + length > data.length) throw new IllegalArgumentException("Truncated save");
+            byte[] b = java.util.Arrays.copyOfRange(data, pos, pos + length);
+            pos += length;
+            return b;
+        }
+
+        String string() {
+            int length = varint();
+            if (length < 0 || pos + length > data.length) throw new IllegalArgumentException("Truncated save");
+            String s;
+            try {
+                s = new String(data, pos, length, "UTF-8");
+            } catch (java.io.UnsupportedEncodingException e) {
+                throw new RuntimeException(e);
+            }
+            pos += length;
+            return s;
+        }
+    }
+
+}
@@ -0,0 +1,268 @@
+package com.unlucky.save;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.IntMap;
+import com.unlucky.resource.ResourceManager;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
+
+/**
+ * Stores save entries as a snapshot file plus a journal of the entries that changed since
+ *
+ * Each save appends one record to the journal with the changed entries and a checksum
+ * then syncs it, so a crash can only lose the record being written. A torn or corrupt
+ * record at the end of the journal is dropped on load. Once the journal grows large the
+ * entries are compacted into a new snapshot which is written to a temporary file and
+ * renamed over the old one so the snapshot is never partially written.
+ *
+ * The journal starts with the generation of the snapshot it applies to so records
+ * that were already compacted are ignored if the game closed mid compaction.
+ *
+ * @author Ming Li
+ */
+public class SaveStore {
+
+    private static final byte[] JOURNAL_MAGIC = { 'U', 'N', 'L', 'J' };
+    // magic and snapshot generation
+    private static final int JOURNAL_HEADER_SIZE = 12;
+    // journal size in bytes that triggers a new snapshot
+    private static final int COMPACT_SIZE = 16 * 1024;
+
+    private final FileHandle file;
+    private final FileHandle journal;
+    private final FileHandle tmp;
+
+    // the entries currently on disk
+    private IntMap<byte[]> persisted;
+    private long generation;
+    // the snapshot is missing or an older version
+    private boolean compactNeeded = true;
+
+    // number of journal records applied on the last load
+    public int replayed;
+
+    public SaveStore(FileHandle file) {
+        this.file = file;
+        journal = file.sibling(file.name() + ".journal");
+        tmp = file.sibling(file.name() + ".tmp");
+    }
+
+    public boolean exists() {
+        recover();
+        return file.exists();
+    }
+
+    /**
+     * Reads the snapshot and replays the journal on top of it
+     * Returns null if there is no snapshot
+     *
+     * @param rm
+     * @return
+     */
+    public IntMap<byte[]> load(ResourceManager rm) {
+        recover();
+        if (!file.exists()) return null;
+        SaveFormat.Snapshot snapshot = SaveFormat.readSnapshot(file.readBytes(), rm);
+        IntMap<byte[]> entries = snapshot.entries;
+        generation = snapshot.generation;
+        compactNeeded = snapshot.version < SaveFormat.VERSION;
+        replayed = 0;
+
+        if (!compactNeeded && journal.exists()) {
+            byte[] data = journal.readBytes();
+            if (!isJournalFor(data, generation)) {
+                // left over from before the last snapshot
+                resetJournal();
+            }
+            else {
+                ByteBuffer buf = ByteBuffer.wrap(data);
+                int valid = JOURNAL_HEADER_SIZE;
+                CRC32 crc = new CRC32();
+                while (valid + 4 <= data.length) {
+                    int length = buf.getInt(valid);
+                    if (length <= 0 || valid + 8 + length > data.length) break;
+                    crc.reset();
+                    crc.update(data, valid + 4, length);
+                    if ((int) crc.getValue() != buf.getInt(valid + 4 + length)) break;
+
+                    byte[] batch = new byte[length];
+                    System.arraycopy(data, valid + 4, batch, 0, length);
+                    IntMap<byte[]> next = new IntMap<byte[]>(entries);
+                    try {
+                        SaveFormat.apply(batch, next);
+                    } catch (IllegalArgumentException e) {
+                        break;
+                    }
+                    entries = next;
+                    valid += 8 + length;
+                    replayed++;
+                }
+                // drop the torn record so new ones are appended after the last good one
+                if (valid < data.length) truncateJournal(valid);
+            }
+        }
+
+        persisted = entries;
+        return entries;
+    }
+
+    /**
+     * Persists entries by appending the ones that changed to the journal
+     * or by writing a new snapshot
+     *
+     * @param entries
+     */
+    public void write(IntMap<byte[]> entries) {
+        if (persisted == null || compactNeeded || journal.length() > COMPACT_SIZE) {
+            compact(entries);
+            return;
+        }
+        byte[] batch = SaveFormat.diff(persisted, entries);
+        if (batch == null) return;
+
+        CRC32 crc = new CRC32();
+        crc.update(batch);
+        long length = journal.length();
+        FileOutputStream out = null;
+        try {
+            out = new FileOutputStream(journal.file(), true);
+            DataOutputStream data = new DataOutputStream(out);
+            data.writeInt(batch.length);
+            data.write(batch);
+            data.writeInt((int) crc.getValue());
+            data.flush();
+            out.getFD().sync();
+        } catch (IOException e) {
+            close(out);
+            out = null;
+            // drop the partial record or replay would stop at it and lose every later record
+            try {
+                truncateJournal((int) length);
+            } catch (GdxRuntimeException truncateError) {
+                compactNeeded = true;
+            }
+            throw new GdxRuntimeException("Error appending to save journal", e);
+        } finally {
+            close(out);
+        }
+        persisted = entries;
+    }
+
+    /**
+     * Writes every entry to a new snapshot and starts an empty journal for it
+     */
+    private void compact(IntMap<byte[]> entries) {
+        generation++;
+        replace(file, tmp, SaveFormat.writeSnapshot(entries, generation));
+        resetJournal();
+        persisted = entries;
+        compactNeeded = false;
+    }
+
+    /**
+     * Replaces the contents of a file by writing them to a temporary file first
+     * so the file either has its old or new contents if the game is closed midway
+     *
+     * @param file
+     * @param tmp
+     * @param bytes
+     */
+    static void replace(FileHandle file, FileHandle tmp, byte[] bytes) {
+        writeSynced(tmp.file(), bytes);
+        File target = file.file();
+        if (!tmp.file().renameTo(target)) {
+            // some platforms can't rename over an existing file
+            target.delete();
+            if (!tmp.file().renameTo(target)) throw new GdxRuntimeException("Error replacing " + target);
+        }
+    }
+
+    /**
+     * Puts back a snapshot that replace wrote but didn't rename over the old one
+     * The temporary file is complete if the game closed after the old snapshot was deleted
+     * but a first snapshot may have been cut off while it was written
+     */
+    private void recover() {
+        if (file.exists() || !tmp.exists()) return;
+        try {
+            // the temporary snapshot is always the current version so no items are needed
+            SaveFormat.readSnapshot(tmp.readBytes(), null);
+        } catch (RuntimeException e) {
+            // nothing was saved before that snapshot so there's nothing to lose
+            tmp.delete();
+            return;
+        }
+        promote(file, tmp);
+    }
+
+    /**
+     * Renames a temporary file left by replace over its missing file
+     *
+     * @param file
+     * @param tmp
+     */
+    static void promote(FileHandle file, FileHandle tmp) {
+        if (!tmp.file().renameTo(file.file())) throw new GdxRuntimeException("Error restoring " + file.file());
+    }
+
+    private void resetJournal() {
+        ByteBuffer header = ByteBuffer.allocate(JOURNAL_HEADER_SIZE);
+        header.put(JOURNAL_MAGIC);
+        header.putLong(generation);
+        writeSynced(journal.file(), header.array());
+    }
+
+    private void truncateJournal(int length) {
+        RandomAccessFile raf = null;
+        try {
+            raf = new RandomAccessFile(journal.file(), "rw");
+            raf.setLength(length);
+            raf.getFD().sync();
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Error truncating save journal", e);
+        } finally {
+            if (raf != null) {
+                try {
+                    raf.close();
+                } catch (IOException ignored) {}
+            }
+        }
+    }
+
+    private static boolean isJournalFor(byte[] data, long generation) {
+        if (data.length < JOURNAL_HEADER_SIZE) return false;
+        for (int i = 0; i < JOURNAL_MAGIC.length; i++) {
+            if (data[i] != JOURNAL_MAGIC[i]) return false;
+        }
+        return ByteBuffer.wrap(data).getLong(JOURNAL_MAGIC.length) == generation;
+    }
+
+    private static void writeSynced(File f, byte[] bytes) {
+        FileOutputStream out = null;
+        try {
+            out = new FileOutputStream(f, false);
+            out.write(bytes);
+            out.flush();
+            out.getFD().sync();
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Error writing " + f, e);
+        } finally {
+            close(out);
+        }
+    }
+
+    private static void close(FileOutputStream out) {
+        if (out == null) return;
+        try {
+            out.close();
+        } catch (IOException ignored) {}
+    }
+
+}
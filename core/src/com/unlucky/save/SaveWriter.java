@@ -0,0 +1,134 @@
+package com.unlucky.save;
+
+import com.badlogic.gdx.utils.IntMap;
+import com.badlogic.gdx.utils.TimeUtils;
+
+import java.util.Arrays;
+
+/**
+ * Writes save entries to a SaveStore on a background thread
+ *
+ * Saves that come in while one is waiting replace it so a burst of saves
+ * (like dragging items around the inventory) results in a single write.
+ *
+ * @author Ming Li
+ */
+public class SaveWriter implements Runnable {
+
+    // how long a save waits for newer saves before it's written in ms
+    private static final long COALESCE_WINDOW = 250;
+    // number of recent saves used for latency percentiles
+    private static final int LATENCY_SAMPLES = 128;
+
+    private final SaveStore store;
+    private final Thread thread;
+    private final Object lock = new Object();
+
+    // the newest save that hasn't been written
+    private IntMap<byte[]> pending;
+    // when the oldest save coalesced into pending was requested
+    private long pendingSince;
+    private boolean writing = false;
+    private boolean flushRequested = false;
+
+    // time from a save being requested to it being on disk in ms
+    private final float[] latencies = new float[LATENCY_SAMPLES];
+    private int numLatencies = 0;
+
+    public SaveWriter(SaveStore store) {
+        this.store = store;
+        thread = new Thread(this, "save writer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Queues save entries to be written, replacing any entries that weren't written yet
+     *
+     * @param entries encoded player save
+     */
+    public void submit(IntMap<byte[]> entries) {
+        synchronized (lock) {
+            if (pending == null) pendingSince = TimeUtils.nanoTime();
+            pending = entries;
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * Blocks until every submitted save is written
+     * Called when the game is paused or closed
+     */
+    public void flush() {
+        synchronized (lock) {
+            flushRequested = true;
+            lock.notifyAll();
+            while (pending != null || writing) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+            flushRequested = false;
+        }
+    }
+
+    @Override
+    public void run() {
+        while (true) {
+            IntMap<byte[]> entries;
+            long since;
+            synchronized (lock) {
+                try {
+                    while (pending == null) lock.wait();
+                    // give newer saves a chance to replace this one
+                    long deadline = pendingSince + COALESCE_WINDOW * 1000000L;
+                    long remaining;
+                    while (!flushRequested && (remaining = deadline - TimeUtils.nanoTime()) > 0) {
+                        lock.wait(Math.max(1, remaining / 1000000L));
+                    }
+                } catch (InterruptedException e) {
+                    return;
+                }
+                entries = pending;
+                since = pendingSince;
+                pending = null;
+                writing = true;
+            }
+
+            try {
+                store.write(entries);
+            } catch (RuntimeException e) {
+                // keep the writer alive so later saves and flushes still work
+                System.err.println("Failed to write save: " + e.getMessage());
+            }
+
+            synchronized (lock) {
+                writing = false;
+                latencies[numLatencies % LATENCY_SAMPLES] = (TimeUtils.nanoTime() - since) / 1000000f;
+                numLatencies++;
+                lock.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Returns a percentile of the recent save latencies in ms
+     *
+     * @param percentile from 0 to 1
+     * @return
+     */
+    public float getLatency(float percentile) {
+        float[] sorted;
+        synchronized (lock) {
+            int n = Math.min(numLatencies, LATENCY_SAMPLES);
+            if (n == 0) return 0;
+            sorted = Arrays.copyOf(latencies, n);
+        }
+        Arrays.sort(sorted);
+        return sorted[Math.min(sorted.length - 1, (int) (percentile * sorted.length))];
+    }
+
+}
@@ -20,4 +20,7 @@ public class Settings {
     public boolean showWeatherAnimations = true;
     public boolean showFps = false;
 
+    // auto battle mode (0 - off, 1 - 1x, 2 - 2x, 3 - 4x, 4 - instant)
+    public int autoBattle = 0;
+
 }
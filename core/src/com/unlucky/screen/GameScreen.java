@@ -187,7 +187,7 @@ public class GameScreen extends AbstractScreen {
         if (currentEvent == EventState.TRANSITION) transition.update(dt);
         if (currentEvent == EventState.LEVEL_UP) levelUp.update(dt);
         if (currentEvent == EventState.TILE_EVENT) dialog.update(dt);
-        if (currentEvent == EventState.INVENTORY) game.inventoryUI.update(dt);
+        if (currentEvent == EventState.INVENTORY) game.getInventoryUI().update(dt);
     }
 
     public void render(float dt) {
@@ -229,7 +229,7 @@ public class GameScreen extends AbstractScreen {
         if (currentEvent == EventState.LEVEL_UP || transition.renderLevelUp)
             levelUp.render(dt);
         if (currentEvent == EventState.TILE_EVENT) dialog.render(dt);
-        if (currentEvent == EventState.INVENTORY) game.inventoryUI.render(dt);
+        if (currentEvent == EventState.INVENTORY) game.getInventoryUI().render(dt);
         if (currentEvent == EventState.TRANSITION) transition.render(dt);
 
         //game.profile("GameScreen");
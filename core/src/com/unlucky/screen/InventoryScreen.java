@@ -31,21 +31,21 @@ public class InventoryScreen extends MenuExtensionScreen {
             Actions.run(new Runnable() {
                 @Override
                 public void run() {
-                    game.inventoryUI.renderHealthBars = true;
+                    game.getInventoryUI().renderHealthBars = true;
                 }
             })));
 
-        game.inventoryUI.init(true, this.stage);
-        game.inventoryUI.start();
+        game.getInventoryUI().init(true, this.stage);
+        game.getInventoryUI().start();
     }
 
     public void update(float dt) {
-        game.inventoryUI.update(dt);
+        game.getInventoryUI().update(dt);
     }
 
     public void render(float dt) {
         super.render(dt);
-        if (renderBatch) game.inventoryUI.render(dt);
+        if (renderBatch) game.getInventoryUI().render(dt);
     }
 
 }
@@ -96,7 +96,7 @@ public class LevelSelectScreen extends SelectScreen {
     }
 
     protected void handleExitButton() {
-        super.handleExitButton(game.worldSelectScreen);
+        super.handleExitButton(game.getWorldSelectScreen());
     }
 
     protected void handleEnterButton() {
@@ -105,7 +105,7 @@ public class LevelSelectScreen extends SelectScreen {
         enterButton.addListener(new ClickListener() {
             @Override
             public void clicked(InputEvent event, float x, float y) {
-                if (!game.player.settings.muteSfx) rm.buttonclick0.play(game.player.settings.sfxVolume);
+                rm.audio.play(rm.buttonclick0);
                 if (worldIndex <= game.player.maxWorld) {
                     // if the player's inventory is full give a warning
                     if (game.player.inventory.isFull()) {
@@ -139,11 +139,27 @@ public class LevelSelectScreen extends SelectScreen {
      * Enters the map with the corresponding world, level key
      */
     private void enterGame() {
-        game.gameScreen.init(worldIndex, currentLevelIndex);
-        game.gameScreen.resetGame = true;
+        if (!rm.isLoaded(ResourceManager.STAGE_GAME)) {
+            // map and battle assets are still loading
+            game.loadingScreen.waitFor(ResourceManager.STAGE_GAME, new Runnable() {
+                @Override
+                public void run() {
+                    initGame();
+                    game.setScreen(game.getGameScreen());
+                }
+            });
+            setFadeScreen(game.loadingScreen);
+            return;
+        }
+        initGame();
+        setFadeScreen(game.getGameScreen());
+    }
+
+    private void initGame() {
+        game.getGameScreen().init(worldIndex, currentLevelIndex);
+        game.getGameScreen().resetGame = true;
         rm.menuTheme.pause();
         game.player.inMap = true;
-        setFadeScreen(game.gameScreen);
     }
 
     protected void createScrollPane() {
@@ -205,7 +221,7 @@ public class LevelSelectScreen extends SelectScreen {
             b.addListener(new ClickListener() {
                 @Override
                 public void clicked(InputEvent event, float x, float y) {
-                    if (!game.player.settings.muteSfx) rm.invselectclick.play(game.player.settings.sfxVolume);
+                    rm.audio.play(rm.invselectclick);
                     currentLevelIndex = index;
                     selectAt(currentLevelIndex);
                     String levelName = rm.worlds.get(worldIndex).levels[currentLevelIndex].name;
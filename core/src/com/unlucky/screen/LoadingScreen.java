@@ -0,0 +1,86 @@
+package com.unlucky.screen;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.scenes.scene2d.ui.Image;
+import com.badlogic.gdx.scenes.scene2d.ui.Label;
+import com.badlogic.gdx.utils.Align;
+import com.unlucky.main.Unlucky;
+import com.unlucky.resource.ResourceManager;
+
+/**
+ * Shows the progress of assets loading until a loading stage is done
+ * Only uses assets from the boot stage so it can be shown right away
+ *
+ * @author Ming Li
+ */
+public class LoadingScreen extends AbstractScreen {
+
+    // max time spent loading assets each frame in ms
+    private static final int LOAD_BUDGET = 12;
+    private static final int BAR_WIDTH = 100;
+
+    private Image frame;
+    private Image bar;
+    private Label label;
+
+    // the stage to load and what to do once it's loaded
+    private int waitStage;
+    private Runnable onLoaded;
+
+    public LoadingScreen(final Unlucky game, final ResourceManager rm) {
+        super(game, rm);
+
+        frame = new Image(rm.atlas.findRegion("white"));
+        frame.setColor(new Color(79 / 255.f, 79 / 255.f, 117 / 255.f, 1));
+        frame.setSize(BAR_WIDTH + 2, 6);
+        frame.setPosition(Unlucky.V_WIDTH / 2 - BAR_WIDTH / 2 - 1, Unlucky.V_HEIGHT / 2 - 10);
+        stage.addActor(frame);
+
+        bar = new Image(rm.atlas.findRegion("white"));
+        bar.setColor(new Color(1, 212 / 255.f, 0, 1));
+        bar.setSize(0, 4);
+        bar.setPosition(Unlucky.V_WIDTH / 2 - BAR_WIDTH / 2, Unlucky.V_HEIGHT / 2 - 9);
+        stage.addActor(bar);
+
+        label = new Label("LOADING", new Label.LabelStyle(rm.pixel10, Color.WHITE));
+        label.setSize(BAR_WIDTH, 10);
+        label.setAlignment(Align.center);
+        label.setPosition(Unlucky.V_WIDTH / 2 - BAR_WIDTH / 2, Unlucky.V_HEIGHT / 2);
+        stage.addActor(label);
+    }
+
+    /**
+     * Sets the stage this screen loads and what happens after
+     *
+     * @param stage
+     * @param onLoaded usually switches to the screen that needed the stage
+     */
+    public void waitFor(int stage, Runnable onLoaded) {
+        this.waitStage = stage;
+        this.onLoaded = onLoaded;
+    }
+
+    @Override
+    public void show() {
+        Gdx.input.setInputProcessor(stage);
+        bar.setWidth(0);
+    }
+
+    @Override
+    public void render(float dt) {
+        if (!rm.isLoaded(waitStage)) rm.update(LOAD_BUDGET);
+        bar.setWidth(rm.isLoaded(waitStage) ? BAR_WIDTH : BAR_WIDTH * rm.getProgress());
+
+        Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
+        super.render(dt);
+
+        if (rm.isLoaded(waitStage) && onLoaded != null) {
+            Runnable r = onLoaded;
+            onLoaded = null;
+            r.run();
+        }
+    }
+
+}
@@ -7,6 +7,7 @@ import com.badlogic.gdx.scenes.scene2d.Group;
 import com.badlogic.gdx.scenes.scene2d.InputEvent;
 import com.badlogic.gdx.scenes.scene2d.Touchable;
 import com.badlogic.gdx.scenes.scene2d.actions.Actions;
+import com.badlogic.gdx.scenes.scene2d.ui.Dialog;
 import com.badlogic.gdx.scenes.scene2d.ui.Image;
 import com.badlogic.gdx.scenes.scene2d.ui.ImageButton;
 import com.badlogic.gdx.scenes.scene2d.ui.Label;
@@ -16,6 +17,7 @@ import com.badlogic.gdx.utils.Align;
 import com.unlucky.effects.Moving;
 import com.unlucky.main.Unlucky;
 import com.unlucky.resource.ResourceManager;
+import com.unlucky.save.ProfileStore;
 
 /**
  * The main menu screen of the game that holds all access points for playing,
@@ -46,6 +48,11 @@ public class MenuScreen extends MenuExtensionScreen {
 
     private static final int NUM_BUTTONS = 6;
 
+    // shows the current profile and opens the profile picker
+    private Label profileLabel;
+    // the profile the label shows, -1 while one is loading
+    private int shownProfile = -2;
+
     // Credits Screen box
     private Image dark;
     private Group credits;
@@ -72,6 +79,7 @@ public class MenuScreen extends MenuExtensionScreen {
 
         handlePlayButton();
         handleOptionButtons();
+        handleProfileButton();
 
         battleLabel = new Label("Battle", menuStyle);
         battleLabel.setSize(80, 40);
@@ -127,8 +135,8 @@ public class MenuScreen extends MenuExtensionScreen {
         playButton.addListener(new ClickListener() {
             @Override
             public void clicked(InputEvent event, float x, float y) {
-                if (!game.player.settings.muteSfx) rm.buttonclick0.play(game.player.settings.sfxVolume);
-                setFadeScreen(game.worldSelectScreen);
+                rm.audio.play(rm.buttonclick0);
+                setFadeScreen(game.getWorldSelectScreen());
             }
         });
     }
@@ -159,50 +167,106 @@ public class MenuScreen extends MenuExtensionScreen {
         optionButtons[0].addListener(new ClickListener() {
             @Override
             public void clicked(InputEvent event, float x, float y) {
-                if (!game.player.settings.muteSfx) rm.buttonclick0.play(game.player.settings.sfxVolume);
-                setSlideScreen(game.inventoryScreen, false);
+                rm.audio.play(rm.buttonclick0);
+                setSlideScreen(game.getInventoryScreen(), false);
             }
         });
         // settings screen
         optionButtons[1].addListener(new ClickListener() {
             public void clicked(InputEvent event, float x, float y) {
-                if (!game.player.settings.muteSfx) rm.buttonclick0.play(game.player.settings.sfxVolume);
-                game.settingsScreen.inGame = false;
-                setSlideScreen(game.settingsScreen, true);
+                rm.audio.play(rm.buttonclick0);
+                game.getSettingsScreen().inGame = false;
+                setSlideScreen(game.getSettingsScreen(), true);
             }
         });
         // shop screen
         optionButtons[2].addListener(new ClickListener() {
             public void clicked(InputEvent event, float x, float y) {
-                if (!game.player.settings.muteSfx) rm.buttonclick0.play(game.player.settings.sfxVolume);
-                setSlideScreen(game.shopScreen, false);
+                rm.audio.play(rm.buttonclick0);
+                setSlideScreen(game.getShopScreen(), false);
             }
         });
         // smove screen
         optionButtons[3].addListener(new ClickListener() {
             public void clicked(InputEvent event, float x, float y) {
-                if (!game.player.settings.muteSfx) rm.buttonclick0.play(game.player.settings.sfxVolume);
-                setSlideScreen(game.smoveScreen, false);
+                rm.audio.play(rm.buttonclick0);
+                setSlideScreen(game.getSmoveScreen(), false);
             }
         });
         // statistics screen
         optionButtons[4].addListener(new ClickListener() {
             @Override
             public void clicked(InputEvent event, float x, float y) {
-                if (!game.player.settings.muteSfx) rm.buttonclick0.play(game.player.settings.sfxVolume);
-                setSlideScreen(game.statisticsScreen, true);
+                rm.audio.play(rm.buttonclick0);
+                setSlideScreen(game.getStatisticsScreen(), true);
             }
         });
         // credits screen
         optionButtons[5].addListener(new ClickListener() {
             @Override
             public void clicked(InputEvent event, float x, float y) {
-                if (!game.player.settings.muteSfx) rm.buttonclick0.play(game.player.settings.sfxVolume);
+                rm.audio.play(rm.buttonclick0);
                 credits.setVisible(true);
             }
         });
     }
 
+    private void handleProfileButton() {
+        profileLabel = new Label("", new Label.LabelStyle(rm.pixel10, Color.WHITE));
+        profileLabel.setFontScale(0.5f);
+        profileLabel.setSize(80, 10);
+        profileLabel.setAlignment(Align.center);
+        profileLabel.setPosition(60, 4);
+        stage.addActor(profileLabel);
+        profileLabel.addListener(new ClickListener() {
+            @Override
+            public void clicked(InputEvent event, float x, float y) {
+                if (game.profiles.isLoading()) return;
+                rm.audio.play(rm.buttonclick0);
+                showProfiles();
+            }
+        });
+    }
+
+    /**
+     * Shows a summary of each profile from the profile index to pick one
+     */
+    private void showProfiles() {
+        // the index may still have the active profile's summary from before the last map
+        game.profiles.updateMeta();
+        new Dialog("Profiles", rm.dialogSkin) {
+            {
+                String text = "";
+                for (int i = 0; i < ProfileStore.NUM_SLOTS; i++) {
+                    ProfileStore.Meta meta = game.profiles.getMeta(i);
+                    text += (i + 1) + ". ";
+                    if (meta.used) {
+                        text += "LV." + meta.level + "  " + meta.gold + " G  " + (meta.maxWorld + 1) + "-" + (meta.maxLevel + 1) +
+                            "  " + (meta.playTime / 3600) + "H " + (meta.playTime / 60 % 60) + "M";
+                    }
+                    else text += "EMPTY";
+                    if (i == game.profiles.getActive()) text += " *";
+                    if (i < ProfileStore.NUM_SLOTS - 1) text += "\n";
+                }
+                Label l = new Label(text, rm.dialogSkin);
+                l.setFontScale(0.5f);
+                l.setAlignment(Align.left);
+                text(l);
+                getButtonTable().defaults().width(30);
+                getButtonTable().defaults().height(15);
+                for (int i = 0; i < ProfileStore.NUM_SLOTS; i++) button(String.valueOf(i + 1), i);
+                button("Back", -1);
+            }
+
+            @Override
+            protected void result(Object object) {
+                rm.audio.play(rm.buttonclick2);
+                int slot = (Integer) object;
+                if (slot != -1) game.profiles.select(slot);
+            }
+        }.show(stage).getTitleLabel().setAlignment(Align.center);
+    }
+
     private void createCreditsScreen() {
         credits = new Group();
         credits.setTransform(false);
@@ -228,7 +292,7 @@ public class MenuScreen extends MenuExtensionScreen {
         exitButton.addListener(new ClickListener() {
             @Override
             public void clicked(InputEvent event, float x, float y) {
-                if (!game.player.settings.muteSfx) rm.buttonclick0.play(game.player.settings.sfxVolume);
+                rm.audio.play(rm.buttonclick0);
                 credits.setVisible(false);
             }
         });
@@ -279,6 +343,12 @@ public class MenuScreen extends MenuExtensionScreen {
     }
 
     public void update(float dt) {
+        int profile = game.profiles.isLoading() ? -1 : game.profiles.getActive();
+        if (profile != shownProfile) {
+            shownProfile = profile;
+            profileLabel.setText(profile == -1 ? "LOADING..." : "PROFILE " + (profile + 1));
+        }
+
         for (int i = 0; i < 7; i++) {
             titleMoves[i].update(dt);
             letters[i].setPosition(titleMoves[i].position.x, titleMoves[i].position.y);
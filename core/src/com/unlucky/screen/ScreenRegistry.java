@@ -0,0 +1,117 @@
+package com.unlucky.screen;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Screen;
+import com.badlogic.gdx.utils.Array;
+import com.unlucky.main.Unlucky;
+import com.unlucky.resource.ResourceManager;
+import com.unlucky.screen.game.VictoryScreen;
+
+/**
+ * Creates screens the first time they're navigated to instead of all on startup
+ *
+ * The menu side screens (inventory, shop, special moves, statistics and settings)
+ * rebuild their contents on show so they can be disposed when they aren't used.
+ * The most recently left ones are kept so going back and forth doesn't rebuild them
+ * and the rest are disposed. When the heap is nearly full every idle one is disposed.
+ * Screens needed to play a map keep their state and are never disposed.
+ *
+ * @author Ming Li
+ */
+public class ScreenRegistry {
+
+    public static final int MENU = 0;
+    public static final int GAME = 1;
+    public static final int WORLD_SELECT = 2;
+    public static final int LEVEL_SELECT = 3;
+    public static final int VICTORY = 4;
+    public static final int INVENTORY = 5;
+    public static final int SHOP = 6;
+    public static final int SMOVE = 7;
+    public static final int STATISTICS = 8;
+    public static final int SETTINGS = 9;
+    private static final int NUM_SCREENS = 10;
+
+    // screens from this id on can be disposed while idle
+    private static final int FIRST_DISPOSABLE = INVENTORY;
+    // number of idle disposable screens kept
+    private static final int MAX_IDLE = 2;
+    // fraction of the max heap in use that disposes every idle screen
+    private static final float HEAP_PRESSURE = 0.75f;
+
+    private final Unlucky game;
+    private final ResourceManager rm;
+
+    private final AbstractScreen[] screens = new AbstractScreen[NUM_SCREENS];
+    // disposable screens that were created but aren't shown, least recently used first
+    private final Array<AbstractScreen> idle = new Array<AbstractScreen>();
+
+    public ScreenRegistry(Unlucky game, ResourceManager rm) {
+        this.game = game;
+        this.rm = rm;
+    }
+
+    /**
+     * Returns a screen creating it if it doesn't exist
+     *
+     * @param id
+     * @return
+     */
+    public AbstractScreen get(int id) {
+        if (screens[id] == null) screens[id] = create(id);
+        return screens[id];
+    }
+
+    /**
+     * Updates which screens are idle after the game switched screens
+     * and disposes the ones that are no longer kept
+     *
+     * @param shown the new screen
+     */
+    public void shown(Screen shown) {
+        idle.removeValue((AbstractScreen) shown, true);
+        for (int i = FIRST_DISPOSABLE; i < NUM_SCREENS; i++) {
+            if (screens[i] != null && screens[i] != shown && !idle.contains(screens[i], true)) {
+                idle.add(screens[i]);
+            }
+        }
+
+        int keep = isHeapLow() ? 0 : MAX_IDLE;
+        while (idle.size > keep) {
+            AbstractScreen screen = idle.removeIndex(0);
+            for (int i = FIRST_DISPOSABLE; i < NUM_SCREENS; i++) {
+                if (screens[i] == screen) screens[i] = null;
+            }
+            screen.dispose();
+        }
+    }
+
+    public void dispose() {
+        for (int i = 0; i < NUM_SCREENS; i++) {
+            if (screens[i] != null) screens[i].dispose();
+            screens[i] = null;
+        }
+        idle.clear();
+    }
+
+    private AbstractScreen create(int id) {
+        switch (id) {
+            case MENU: return new MenuScreen(game, rm);
+            case GAME: return new GameScreen(game, rm);
+            case WORLD_SELECT: return new WorldSelectScreen(game, rm);
+            case LEVEL_SELECT: return new LevelSelectScreen(game, rm);
+            case VICTORY: return new VictoryScreen(game, rm);
+            case INVENTORY: return new InventoryScreen(game, rm);
+            case SHOP: return new ShopScreen(game, rm);
+            case SMOVE: return new SpecialMoveScreen(game, rm);
+            case STATISTICS: return new StatisticsScreen(game, rm);
+            case SETTINGS: return new SettingsScreen(game, rm);
+            default: throw new IllegalArgumentException("Invalid screen id: " + id);
+        }
+    }
+
+    private boolean isHeapLow() {
+        return Gdx.app.getJavaHeap() > Runtime.getRuntime().maxMemory() * HEAP_PRESSURE;
+    }
+
+}
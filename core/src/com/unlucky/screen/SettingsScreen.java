@@ -58,15 +58,15 @@ public class SettingsScreen extends MenuExtensionScreen {
         stage.addActor(exitButton);
         exitButton.addListener(new ClickListener() {
             public void clicked(InputEvent event, float x, float y) {
-                if (!game.player.settings.muteSfx) rm.buttonclick0.play(game.player.settings.sfxVolume);
+                rm.audio.play(rm.buttonclick0);
                 if (inGame) {
-                    game.gameScreen.resetGame = false;
-                    setFadeScreen(game.gameScreen);
-                    game.gameScreen.hud.settingsDialog.show(game.gameScreen.hud.getStage());
+                    game.getGameScreen().resetGame = false;
+                    setFadeScreen(game.getGameScreen());
+                    game.getGameScreen().hud.settingsDialog.show(game.getGameScreen().hud.getStage());
                 }
                 else {
-                    game.menuScreen.transitionIn = 2;
-                    setSlideScreen(game.menuScreen, false);
+                    game.getMenuScreen().transitionIn = 2;
+                    setSlideScreen(game.getMenuScreen(), false);
                 }
             }
         });
@@ -177,7 +177,7 @@ public class SettingsScreen extends MenuExtensionScreen {
         muteMusic.addListener(new ChangeListener() {
             @Override
             public void changed(ChangeEvent event, Actor actor) {
-                if (!game.player.settings.muteSfx) rm.buttonclick2.play(game.player.settings.sfxVolume);
+                rm.audio.play(rm.buttonclick2);
                 game.player.settings.muteMusic = muteMusic.isChecked();
                 if (muteMusic.isChecked()) rm.setMusicVolume(0f);
                 else rm.setMusicVolume(game.player.settings.musicVolume);
@@ -187,7 +187,7 @@ public class SettingsScreen extends MenuExtensionScreen {
         muteSfx.addListener(new ChangeListener() {
             @Override
             public void changed(ChangeEvent event, Actor actor) {
-                if (!game.player.settings.muteSfx) rm.buttonclick2.play(game.player.settings.sfxVolume);
+                rm.audio.play(rm.buttonclick2);
                 game.player.settings.muteSfx = muteSfx.isChecked();
                 if (!inGame) game.save.save();
             }
@@ -195,7 +195,7 @@ public class SettingsScreen extends MenuExtensionScreen {
         showEnemyLevels.addListener(new ChangeListener() {
             @Override
             public void changed(ChangeEvent event, Actor actor) {
-                if (!game.player.settings.muteSfx) rm.buttonclick2.play(game.player.settings.sfxVolume);
+                rm.audio.play(rm.buttonclick2);
                 game.player.settings.showEnemyLevels = showEnemyLevels.isChecked();
                 if (!inGame) game.save.save();
             }
@@ -203,11 +203,11 @@ public class SettingsScreen extends MenuExtensionScreen {
         showWeatherAnims.addListener(new ChangeListener() {
             @Override
             public void changed(ChangeEvent event, Actor actor) {
-                if (!game.player.settings.muteSfx) rm.buttonclick2.play(game.player.settings.sfxVolume);
+                rm.audio.play(rm.buttonclick2);
                 game.player.settings.showWeatherAnimations = showWeatherAnims.isChecked();
                 if (inGame) {
-                    if (showWeatherAnims.isChecked()) game.gameScreen.gameMap.setWeather(game.gameScreen.gameMap.tileMap.weather);
-                    else game.gameScreen.gameMap.setWeather(0);
+                    if (showWeatherAnims.isChecked()) game.getGameScreen().gameMap.setWeather(game.getGameScreen().gameMap.tileMap.weather);
+                    else game.getGameScreen().gameMap.setWeather(0);
                 }
                 if (!inGame) game.save.save();
             }
@@ -215,7 +215,7 @@ public class SettingsScreen extends MenuExtensionScreen {
         showFps.addListener(new ChangeListener() {
             @Override
             public void changed(ChangeEvent event, Actor actor) {
-                if (!game.player.settings.muteSfx) rm.buttonclick2.play(game.player.settings.sfxVolume);
+                rm.audio.play(rm.buttonclick2);
                 game.player.settings.showFps = showFps.isChecked();
                 game.fps.setVisible(showFps.isChecked());
                 if (!inGame) game.save.save();
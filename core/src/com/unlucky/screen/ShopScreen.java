@@ -89,7 +89,7 @@ public class ShopScreen extends MenuExtensionScreen {
 
             @Override
             protected void result(Object object) {
-                if (!game.player.settings.muteSfx) rm.buttonclick2.play(game.player.settings.sfxVolume);
+                rm.audio.play(rm.buttonclick2);
             }
         };
         warningFullDialog.getTitleLabel().setAlignment(Align.center);
@@ -122,11 +122,11 @@ public class ShopScreen extends MenuExtensionScreen {
         exitButton.setPosition(188, 108);
         exitButton.addListener(new ClickListener() {
             public void clicked(InputEvent event, float x, float y) {
-                if (!game.player.settings.muteSfx) rm.buttonclick0.play(game.player.settings.sfxVolume);
+                rm.audio.play(rm.buttonclick0);
                 removeInventoryActors();
                 unselectItem();
-                game.menuScreen.transitionIn = 1;
-                setSlideScreen(game.menuScreen, true);
+                game.getMenuScreen().transitionIn = 1;
+                setSlideScreen(game.getMenuScreen(), true);
             }
         });
         stage.addActor(exitButton);
@@ -227,7 +227,7 @@ public class ShopScreen extends MenuExtensionScreen {
             tabButtons[i].addListener(new ChangeListener() {
                 @Override
                 public void changed(ChangeEvent event, Actor actor) {
-                    if (!game.player.settings.muteSfx) rm.buttonclick1.play(game.player.settings.sfxVolume);
+                    rm.audio.play(rm.buttonclick1);
                     tabContents[index].setVisible(tabButtons[index].isChecked());
                 }
             });
@@ -261,8 +261,8 @@ public class ShopScreen extends MenuExtensionScreen {
                 itemButtonGroup.add(b);
 
                 final ShopItem item = shop.items.get(i).get(j);
-                item.actor.setPosition(10, 3);
-                item.actor.setTouchable(Touchable.disabled);
+                item.getActor().setPosition(10, 3);
+                item.getActor().setTouchable(Touchable.disabled);
                 Label itemName = new Label(item.labelName, Util.getItemColor(item.rarity, rm));
                 itemName.setFontScale(0.5f);
                 itemName.setTouchable(Touchable.disabled);
@@ -282,7 +282,7 @@ public class ShopScreen extends MenuExtensionScreen {
                 itemTable.add(itemPrice).padTop(4).padBottom(-4).padLeft(12).size(68, 8);
 
                 itemGroup.addActor(b);
-                itemGroup.addActor(item.actor);
+                itemGroup.addActor(item.getActor());
                 itemGroup.addActor(itemTable);
 
                 // handle item selection
@@ -290,7 +290,7 @@ public class ShopScreen extends MenuExtensionScreen {
                     @Override
                     public void changed(ChangeEvent event, Actor actor) {
                         if (b.isChecked()) {
-                            if (!game.player.settings.muteSfx) rm.invselectclick.play(game.player.settings.sfxVolume);
+                            rm.audio.play(rm.invselectclick);
                             currentShopItem = item;
                             // enable buying
                             invButtons[0].setTouchable(Touchable.enabled);
@@ -307,7 +307,7 @@ public class ShopScreen extends MenuExtensionScreen {
                 });
 
                 int height = (int) (itemTable.getPrefHeight() + itemTable.getPrefHeight() / 2);
-                item.actor.setPosition(4, height / 2 - 5);
+                item.getActor().setPosition(4, height / 2 - 5);
 
                 selectionContainer.add(itemGroup).padLeft(-1).padBottom(2).size(89, height).row();
             }
@@ -339,8 +339,8 @@ public class ShopScreen extends MenuExtensionScreen {
      * @param item
      */
     private void addInventoryEvent(final Item item) {
-        item.actor.clearListeners();
-        item.actor.addListener(new ClickListener() {
+        item.getActor().clearListeners();
+        item.getActor().addListener(new ClickListener() {
             @Override
             public void clicked(InputEvent event, float x, float y) {
                 // select item
@@ -348,7 +348,7 @@ public class ShopScreen extends MenuExtensionScreen {
                     unselectItem();
                 }
                 else {
-                    if (!game.player.settings.muteSfx) rm.invselectclick.play(game.player.settings.sfxVolume);
+                    rm.audio.play(rm.invselectclick);
                     itemSelected = true;
                     currentItem = item;
                     showSelectedSlot(item);
@@ -384,7 +384,7 @@ public class ShopScreen extends MenuExtensionScreen {
         // buy
         invButtons[0].addListener(new ClickListener() {
             public void clicked(InputEvent event, float x, float y) {
-                if (!game.player.settings.muteSfx) rm.buttonclick1.play(game.player.settings.sfxVolume);
+                rm.audio.play(rm.buttonclick1);
                 unselectItem();
                 buy();
             }
@@ -393,7 +393,7 @@ public class ShopScreen extends MenuExtensionScreen {
         invButtons[1].addListener(new ClickListener() {
             @Override
             public void clicked(InputEvent event, float x, float y) {
-                if (!game.player.settings.muteSfx) rm.buttonclick1.play(game.player.settings.sfxVolume);
+                rm.audio.play(rm.buttonclick1);
                 sell();
             }
         });
@@ -420,7 +420,7 @@ public class ShopScreen extends MenuExtensionScreen {
 
                     @Override
                     protected void result(Object object) {
-                        if (!game.player.settings.muteSfx) rm.buttonclick2.play(game.player.settings.sfxVolume);
+                        rm.audio.play(rm.buttonclick2);
                     }
                 }.show(stage).getTitleLabel().setAlignment(Align.center);
                 return;
@@ -439,7 +439,7 @@ public class ShopScreen extends MenuExtensionScreen {
 
                 @Override
                 protected void result(Object object) {
-                    if (!game.player.settings.muteSfx) rm.buttonclick2.play(game.player.settings.sfxVolume);
+                    rm.audio.play(rm.buttonclick2);
                     if (object.equals("yes")) {
                         player.addGold(-currentShopItem.price);
                         // a copy of the shop item
@@ -453,8 +453,8 @@ public class ShopScreen extends MenuExtensionScreen {
                                 currentShopItem.imgIndex, currentShopItem.minLevel, currentShopItem.mhp, currentShopItem.dmg, currentShopItem.acc, currentShopItem.sell, currentShopItem.price);
                         }
                         player.inventory.addItem(item);
-                        stage.addActor(item.actor);
-                        item.actor.setZIndex(item.index + 1);
+                        stage.addActor(item.getActor());
+                        item.getActor().setZIndex(item.index + 1);
                         addInventoryEvent(item);
                         gold.setText("GOLD: " + player.getGold());
                         player.stats.numShopItemsBought++;
@@ -496,10 +496,10 @@ public class ShopScreen extends MenuExtensionScreen {
 
                 @Override
                 protected void result(Object object) {
-                    if (!game.player.settings.muteSfx) rm.buttonclick2.play(game.player.settings.sfxVolume);
+                    rm.audio.play(rm.buttonclick2);
                     if (object.equals("yes")) {
                         player.addGold(currentItem.sell);
-                        player.inventory.items[currentItem.index].actor.remove();
+                        player.inventory.items[currentItem.index].removeActor();
                         player.inventory.removeItem(currentItem.index);
                         unselectItem();
                         gold.setText("GOLD: " + player.getGold());
@@ -515,7 +515,7 @@ public class ShopScreen extends MenuExtensionScreen {
         for (int i = 0; i < Inventory.NUM_SLOTS; i++) {
             Item item = player.inventory.getItem(i);
             if (item != null) {
-                stage.addActor(item.actor);
+                stage.addActor(item.getActor());
             }
         }
     }
@@ -524,7 +524,7 @@ public class ShopScreen extends MenuExtensionScreen {
         for (int i = 0; i < Inventory.NUM_SLOTS; i++) {
             Item item = player.inventory.getItem(i);
             if (item != null) {
-                item.actor.remove();
+                item.removeActor();
             }
         }
     }
@@ -569,7 +569,7 @@ public class ShopScreen extends MenuExtensionScreen {
             int x = i % NUM_COLS;
             int y = i / NUM_COLS;
             if (item != null) {
-                item.actor.setPosition(125 + (x * 16), 92 - (y * 16));
+                item.getActor().setPosition(125 + (x * 16), 92 - (y * 16));
             }
         }
     }
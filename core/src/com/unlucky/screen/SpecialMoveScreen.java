@@ -96,15 +96,15 @@ public class SpecialMoveScreen extends MenuExtensionScreen {
             @Override
             public void clicked(InputEvent event, float x, float y) {
                 unselectSlot();
-                if (!game.player.settings.muteSfx) rm.buttonclick0.play(game.player.settings.sfxVolume);
+                rm.audio.play(rm.buttonclick0);
                 smoveButtons[0].setStyle(addButtonStyle[1]);
                 smoveButtons[0].setTouchable(Touchable.disabled);
                 smoveButtons[1].setStyle(removeButtonStyle[1]);
                 smoveButtons[1].setTouchable(Touchable.disabled);
                 smoveToRemove = -1;
                 smoveToAdd = null;
-                game.menuScreen.transitionIn = 1;
-                setSlideScreen(game.menuScreen, true);
+                game.getMenuScreen().transitionIn = 1;
+                setSlideScreen(game.getMenuScreen(), true);
             }
         });
 
@@ -168,7 +168,7 @@ public class SpecialMoveScreen extends MenuExtensionScreen {
 
             @Override
             protected void result(Object object) {
-                if (!game.player.settings.muteSfx) rm.buttonclick2.play(game.player.settings.sfxVolume);
+                rm.audio.play(rm.buttonclick2);
             }
         };
         warningFullDialog.getTitleLabel().setAlignment(Align.center);
@@ -238,7 +238,7 @@ public class SpecialMoveScreen extends MenuExtensionScreen {
         // add button
         smoveButtons[0].addListener(new ClickListener() {
             public void clicked(InputEvent event, float x, float y) {
-                if (!game.player.settings.muteSfx) rm.buttonclick1.play(game.player.settings.sfxVolume);
+                rm.audio.play(rm.buttonclick1);
                 unselectSlot();
                 add();
             }
@@ -247,7 +247,7 @@ public class SpecialMoveScreen extends MenuExtensionScreen {
         // remove button
         smoveButtons[1].addListener(new ClickListener() {
             public void clicked(InputEvent event, float x, float y) {
-                if (!game.player.settings.muteSfx) rm.buttonclick1.play(game.player.settings.sfxVolume);
+                rm.audio.play(rm.buttonclick1);
                 if (smoveToRemove != -1) {
                     unselectSlot();
                     smoveButtons[1].setStyle(removeButtonStyle[1]);
@@ -284,7 +284,7 @@ public class SpecialMoveScreen extends MenuExtensionScreen {
 
                     @Override
                     protected void result(Object object) {
-                        if (!game.player.settings.muteSfx) rm.buttonclick2.play(game.player.settings.sfxVolume);
+                        rm.audio.play(rm.buttonclick2);
                     }
                 }.show(stage).getTitleLabel().setAlignment(Align.center);
                 return;
@@ -351,7 +351,7 @@ public class SpecialMoveScreen extends MenuExtensionScreen {
                     smoveToRemove = -1;
                 }
                 else {
-                    if (!game.player.settings.muteSfx) rm.invselectclick.play(game.player.settings.sfxVolume);
+                    rm.audio.play(rm.invselectclick);
                     // show selected slot
                     selectedSlot.setPosition(pos.x, pos.y);
                     selectedSlot.setVisible(true);
@@ -471,7 +471,7 @@ public class SpecialMoveScreen extends MenuExtensionScreen {
                 smoveButtons[1].setStyle(removeButtonStyle[1]);
                 smoveButtons[1].setTouchable(Touchable.disabled);
                 if (button.isChecked()) {
-                    if (!game.player.settings.muteSfx) rm.invselectclick.play(game.player.settings.sfxVolume);
+                    rm.audio.play(rm.invselectclick);
                     smoveToAdd = smove;
                     smoveButtons[0].setStyle(addButtonStyle[0]);
                     smoveButtons[0].setTouchable(Touchable.enabled);
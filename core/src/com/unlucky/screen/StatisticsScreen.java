@@ -60,9 +60,9 @@ public class StatisticsScreen extends MenuExtensionScreen {
         exitButton.addListener(new ClickListener() {
             @Override
             public void clicked(InputEvent event, float x, float y) {
-                game.menuScreen.transitionIn = 2;
-                if (!game.player.settings.muteSfx) rm.buttonclick0.play(game.player.settings.sfxVolume);
-                setSlideScreen(game.menuScreen, false);
+                game.getMenuScreen().transitionIn = 2;
+                rm.audio.play(rm.buttonclick0);
+                setSlideScreen(game.getMenuScreen(), false);
             }
         });
 
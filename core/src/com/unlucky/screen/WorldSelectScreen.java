@@ -45,10 +45,12 @@ public class WorldSelectScreen extends SelectScreen {
 
         selectAt(worldIndex);
         fullDescLabel.setText(rm.worlds.get(worldIndex).longDesc);
+        // so the map music is ready once a level is picked
+        rm.prefetchWorldTheme(worldIndex);
     }
 
     protected void handleExitButton() {
-        super.handleExitButton(game.menuScreen);
+        super.handleExitButton(game.getMenuScreen());
     }
 
     protected void handleEnterButton() {
@@ -58,7 +60,7 @@ public class WorldSelectScreen extends SelectScreen {
         enterButton.addListener(new ClickListener() {
             @Override
             public void clicked(InputEvent event, float x, float y) {
-                if (!game.player.settings.muteSfx) rm.buttonclick0.play(game.player.settings.sfxVolume);
+                rm.audio.play(rm.buttonclick0);
                 if (clickable) {
                     clickable = false;
                     batchFade = false;
@@ -68,8 +70,8 @@ public class WorldSelectScreen extends SelectScreen {
                             @Override
                             public void run() {
                                 clickable = true;
-                                game.levelSelectScreen.setWorld(worldIndex);
-                                game.setScreen(game.levelSelectScreen);
+                                game.getLevelSelectScreen().setWorld(worldIndex);
+                                game.setScreen(game.getLevelSelectScreen());
                             }
                         })));
                 }
@@ -121,9 +123,10 @@ public class WorldSelectScreen extends SelectScreen {
             b.addListener(new ClickListener() {
                 @Override
                 public void clicked(InputEvent event, float x, float y) {
-                    if (!game.player.settings.muteSfx) rm.invselectclick.play(game.player.settings.sfxVolume);
+                    rm.audio.play(rm.invselectclick);
                     worldIndex = index;
                     selectAt(worldIndex);
+                    rm.prefetchWorldTheme(worldIndex);
                     fullDescLabel.setText(rm.worlds.get(worldIndex).longDesc);
                 }
             });
@@ -85,14 +85,14 @@ public class DialogScreen extends UI {
             @Override
             public void clicked(InputEvent event, float x, float y) {
                 if (dialogIndex + 1 == currentDialog.length && endCycle) {
-                    if (!p.settings.muteSfx) rm.textprogression.play(p.settings.sfxVolume);
+                    rm.audio.play(rm.textprogression);
                     // the text animation has run through every element of the text array
                     endDialog();
                     handleEvent(nextEvent);
                 }
                 // after a cycle of text animation ends, clicking the UI goes to the next cycle
                 else if (endCycle && dialogIndex < currentDialog.length) {
-                    if (!p.settings.muteSfx) rm.textprogression.play(p.settings.sfxVolume);
+                    rm.audio.play(rm.textprogression);
                     dialogIndex++;
                     reset();
                     currentText = currentDialog[dialogIndex];
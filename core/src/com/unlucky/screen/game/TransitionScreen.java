@@ -6,7 +6,6 @@ import com.unlucky.entity.Player;
 import com.unlucky.event.Battle;
 import com.unlucky.event.EventState;
 import com.unlucky.main.Unlucky;
-import com.unlucky.map.WeatherType;
 import com.unlucky.resource.ResourceManager;
 import com.unlucky.resource.Util;
 import com.unlucky.screen.GameScreen;
@@ -133,31 +132,13 @@ public class TransitionScreen {
         else if (prev == EventState.BATTLING && next == EventState.MOVING) {
             battle.end();
             if (!player.settings.muteMusic) gameScreen.gameMap.mapTheme.play();
-            if (!player.settings.muteSfx) {
-                if (gameScreen.gameMap.weather == WeatherType.RAIN) {
-                    gameScreen.gameMap.soundId = rm.lightrain.play(player.settings.sfxVolume);
-                    rm.lightrain.setLooping(gameScreen.gameMap.soundId, true);
-                }
-                else if (gameScreen.gameMap.weather == WeatherType.HEAVY_RAIN || gameScreen.gameMap.weather == WeatherType.THUNDERSTORM) {
-                    gameScreen.gameMap.soundId = rm.heavyrain.play(player.settings.sfxVolume);
-                    rm.heavyrain.setLooping(gameScreen.gameMap.soundId, true);
-                }
-            }
+            gameScreen.gameMap.startAmbience();
         }
         // transition out of level up screen
         else if (prev == EventState.LEVEL_UP && next == EventState.MOVING) {
             battle.end();
             if (!player.settings.muteMusic) gameScreen.gameMap.mapTheme.play();
-            if (!player.settings.muteSfx) {
-                if (gameScreen.gameMap.weather == WeatherType.RAIN) {
-                    gameScreen.gameMap.soundId = rm.lightrain.play(player.settings.sfxVolume);
-                    rm.lightrain.setLooping(gameScreen.gameMap.soundId, true);
-                }
-                else if (gameScreen.gameMap.weather == WeatherType.HEAVY_RAIN || gameScreen.gameMap.weather == WeatherType.THUNDERSTORM) {
-                    gameScreen.gameMap.soundId = rm.heavyrain.play(player.settings.sfxVolume);
-                    rm.heavyrain.setLooping(gameScreen.gameMap.soundId, true);
-                }
-            }
+            gameScreen.gameMap.startAmbience();
         }
         // transition into death screen
         else if (prev == EventState.BATTLING && next == EventState.DEATH) {
@@ -167,6 +148,8 @@ public class TransitionScreen {
     }
 
     public void update(float dt) {
+        // transitions in and out of auto battles are sped up
+        if (prev == EventState.BATTLING || next == EventState.BATTLING) dt *= uiHandler.autoBattle.getSpeed();
         if (shouldStart) {
             switch (transitionIndex) {
                 // horizontal slide l2r
@@ -69,9 +69,9 @@ public class VictoryScreen extends AbstractScreen {
 
         exitButton.addListener(new ClickListener() {
             public void clicked(InputEvent event, float x, float y) {
-                for (Item item : gameMap.itemsObtained) item.actor.remove();
-                game.menuScreen.transitionIn = 0;
-                setFadeScreen(game.menuScreen);
+                for (Item item : gameMap.itemsObtained) item.removeActor();
+                game.getMenuScreen().transitionIn = 0;
+                setFadeScreen(game.getMenuScreen());
             }
         });
 
@@ -109,10 +109,10 @@ public class VictoryScreen extends AbstractScreen {
             public void clicked(InputEvent event, float x, float y) {
                 if (gameMap.levelIndex != rm.worlds.get(gameMap.worldIndex).numLevels - 1) {
                     // switch back to level select screen
-                    for (Item item : gameMap.itemsObtained) item.actor.remove();
-                    game.levelSelectScreen.setWorld(gameMap.worldIndex);
+                    for (Item item : gameMap.itemsObtained) item.removeActor();
+                    game.getLevelSelectScreen().setWorld(gameMap.worldIndex);
                     rm.menuTheme.play();
-                    setFadeScreen(game.levelSelectScreen);
+                    setFadeScreen(game.getLevelSelectScreen());
                 }
             }
         });
@@ -153,9 +153,9 @@ public class VictoryScreen extends AbstractScreen {
             int x = i % NUM_COLS;
             int y = i / NUM_COLS;
             Item item = gameMap.itemsObtained.get(i);
-            item.actor.remove();
-            item.actor.setPosition(Unlucky.V_WIDTH / 2 - 70 + 8 + (x * 24), 34 - (y * 16));
-            stage.addActor(item.actor);
+            item.removeActor();
+            item.getActor().setPosition(Unlucky.V_WIDTH / 2 - 70 + 8 + (x * 24), 34 - (y * 16));
+            stage.addActor(item.getActor());
         }
     }
 
@@ -13,11 +13,9 @@ import com.badlogic.gdx.utils.Align;
 import com.unlucky.effects.Moving;
 import com.unlucky.entity.Player;
 import com.unlucky.event.EventState;
-import com.unlucky.inventory.Inventory;
 import com.unlucky.inventory.Item;
 import com.unlucky.main.Unlucky;
 import com.unlucky.map.TileMap;
-import com.unlucky.map.WeatherType;
 import com.unlucky.resource.ResourceManager;
 import com.unlucky.resource.Util;
 import com.unlucky.screen.GameScreen;
@@ -88,29 +86,20 @@ public class Hud extends UI {
             }
             @Override
             protected void result(Object object) {
-                if (!game.player.settings.muteSfx) rm.buttonclick2.play(game.player.settings.sfxVolume);
+                rm.audio.play(rm.buttonclick2);
                 if (object.equals("back")) {
                     shade.setVisible(false);
                     toggle(true);
 
                     // play music and sfx
                     if (!player.settings.muteMusic) gameScreen.gameMap.mapTheme.play();
-                    if (!player.settings.muteSfx) {
-                        if (gameScreen.gameMap.weather == WeatherType.RAIN) {
-                            gameScreen.gameMap.soundId = rm.lightrain.play(player.settings.sfxVolume);
-                            rm.lightrain.setLooping(gameScreen.gameMap.soundId, true);
-                        }
-                        else if (gameScreen.gameMap.weather == WeatherType.HEAVY_RAIN || gameScreen.gameMap.weather == WeatherType.THUNDERSTORM) {
-                            gameScreen.gameMap.soundId = rm.heavyrain.play(player.settings.sfxVolume);
-                            rm.heavyrain.setLooping(gameScreen.gameMap.soundId, true);
-                        }
-                    }
+                    gameScreen.gameMap.startAmbience();
 
                     gameScreen.setCurrentEvent(EventState.MOVING);
                 }
                 else if (object.equals("settings")) {
-                    game.settingsScreen.inGame = true;
-                    game.settingsScreen.worldIndex = gameScreen.gameMap.worldIndex;
+                    game.getSettingsScreen().inGame = true;
+                    game.getSettingsScreen().worldIndex = gameScreen.gameMap.worldIndex;
                     if (gameScreen.isClickable()) {
                         gameScreen.setClickable(false);
                         gameScreen.setBatchFade(false);
@@ -120,7 +109,7 @@ public class Hud extends UI {
                                 @Override
                                 public void run() {
                                     gameScreen.setClickable(true);
-                                    game.setScreen(game.settingsScreen);
+                                    game.setScreen(game.getSettingsScreen());
                                 }
                             })));
                     }
@@ -316,7 +305,7 @@ public class Hud extends UI {
         deathGroup.addListener(new ClickListener() {
             @Override
             public void clicked(InputEvent event, float x, float y) {
-                if (!game.player.settings.muteSfx) rm.buttonclick0.play(game.player.settings.sfxVolume);
+                rm.audio.play(rm.buttonclick0);
                 backToMenu();
             }
         });
@@ -333,11 +322,9 @@ public class Hud extends UI {
     }
 
     private void backToMenu() {
-        game.menuScreen.transitionIn = 0;
-        if (gameScreen.gameMap.weather != WeatherType.NORMAL) {
-            rm.lightrain.stop(gameScreen.gameMap.soundId);
-            rm.heavyrain.stop(gameScreen.gameMap.soundId);
-        }
+        game.getMenuScreen().transitionIn = 0;
+        // leaving the map stops anything still looping
+        rm.audio.stopLoops();
         if (gameScreen.isClickable()) {
             gameScreen.setClickable(false);
             gameScreen.setBatchFade(false);
@@ -347,8 +334,8 @@ public class Hud extends UI {
                     @Override
                     public void run() {
                         gameScreen.setClickable(true);
-                        gameScreen.gameMap.mapTheme.stop();
-                        game.setScreen(game.menuScreen);
+                        gameScreen.gameMap.exit();
+                        game.setScreen(game.getMenuScreen());
                     }
                 })));
         }
@@ -357,14 +344,7 @@ public class Hud extends UI {
     private void loseObtained() {
         player.addGold(-gameScreen.gameMap.goldObtained);
         player.addExp(-gameScreen.gameMap.expObtained);
-        if (gameScreen.gameMap.itemsObtained.size != 0) {
-            for (Item item : gameScreen.gameMap.itemsObtained) {
-                for (int i = 0; i < Inventory.NUM_SLOTS; i++) {
-                    if (player.inventory.getItem(i) == item)
-                        player.inventory.removeItem(i);
-                }
-            }
-        }
+        for (Item item : gameScreen.gameMap.itemsObtained) player.inventory.removeItem(item);
     }
 
     /**
@@ -387,15 +367,11 @@ public class Hud extends UI {
             }
             @Override
             protected void result(Object object) {
-                if (!game.player.settings.muteSfx) rm.buttonclick2.play(game.player.settings.sfxVolume);
+                rm.audio.play(rm.buttonclick2);
                 if (object.equals("yes")) {
                     loseObtained();
                     player.setHp(player.getMaxHp());
                     player.inMap = false;
-                    if (gameScreen.gameMap.weather != WeatherType.NORMAL) {
-                        rm.lightrain.stop(gameScreen.gameMap.soundId);
-                        rm.heavyrain.stop(gameScreen.gameMap.soundId);
-                    }
                     backToMenu();
                 }
                 else settingsDialog.show(stage);
@@ -441,8 +417,8 @@ public class Hud extends UI {
             public void clicked(InputEvent event, float x, float y) {
                 toggle(false);
                 gameScreen.setCurrentEvent(EventState.INVENTORY);
-                gameScreen.getGame().inventoryUI.init(false, null);
-                gameScreen.getGame().inventoryUI.start();
+                gameScreen.getGame().getInventoryUI().init(false, null);
+                gameScreen.getGame().getInventoryUI().start();
             }
         });
 
@@ -455,10 +431,7 @@ public class Hud extends UI {
 
                 // pause music and sfx
                 gameScreen.gameMap.mapTheme.pause();
-                if (gameScreen.gameMap.weather != WeatherType.NORMAL) {
-                    rm.lightrain.stop(gameScreen.gameMap.soundId);
-                    rm.heavyrain.stop(gameScreen.gameMap.soundId);
-                }
+                gameScreen.gameMap.stopAmbience();
 
                 gameScreen.setCurrentEvent(EventState.PAUSE);
                 settingsDialog.show(stage);
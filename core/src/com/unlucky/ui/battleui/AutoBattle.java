@@ -0,0 +1,160 @@
+package com.unlucky.ui.battleui;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.scenes.scene2d.InputEvent;
+import com.badlogic.gdx.scenes.scene2d.Stage;
+import com.badlogic.gdx.scenes.scene2d.ui.Label;
+import com.badlogic.gdx.scenes.scene2d.utils.ClickListener;
+import com.badlogic.gdx.utils.Align;
+import com.unlucky.battle.BattlePolicy;
+import com.unlucky.battle.HealPolicy;
+import com.unlucky.battle.SpecialMove;
+import com.unlucky.battle.SpecialMovePolicy;
+import com.unlucky.entity.Player;
+import com.unlucky.event.Battle;
+import com.unlucky.event.BattleState;
+import com.unlucky.map.TileMap;
+import com.unlucky.resource.ResourceManager;
+import com.unlucky.screen.GameScreen;
+
+/**
+ * Plays battles automatically for grinding
+ * Moves are chosen by a policy and dialogs advance by themselves.
+ * Text, hp bar and move animations and the battle transitions are sped up by the speed multiplier.
+ * In instant mode the whole battle is resolved in one frame and only the final dialog is shown.
+ *
+ * @author Ming Li
+ */
+public class AutoBattle extends BattleUI {
+
+    // settings index of each mode
+    public static final int OFF = 0;
+    public static final int INSTANT = 4;
+    private static final String[] MODE_NAMES = { "OFF", "1x", "2x", "4x", "INSTANT" };
+    private static final float[] SPEEDS = { 1, 1, 2, 4, 8 };
+
+    // seconds a finished line of dialog stays on screen at 1x
+    private static final float DIALOG_DELAY = 0.6f;
+    // hp percentage the default policy starts healing at
+    private static final int HEAL_THRESHOLD = 20;
+    // safety limit on the number of events resolved in one frame
+    private static final int MAX_INSTANT_EVENTS = 1000;
+
+    private Stage stage;
+    private Label modeLabel;
+
+    private BattlePolicy policy;
+    private float dialogTime = 0;
+    private int turns = 0;
+    private boolean summarized = false;
+
+    public AutoBattle(GameScreen gameScreen, TileMap tileMap, Player player, Battle battle,
+                      BattleUIHandler uiHandler, Stage stage, ResourceManager rm) {
+        super(gameScreen, tileMap, player, battle, uiHandler, rm);
+
+        this.stage = stage;
+        policy = new SpecialMovePolicy(new HealPolicy(HEAL_THRESHOLD));
+
+        Label.LabelStyle font = new Label.LabelStyle(rm.pixel10, new Color(255, 255, 255, 255));
+        modeLabel = new Label("", font);
+        modeLabel.setFontScale(0.5f);
+        modeLabel.setSize(56, 10);
+        modeLabel.setAlignment(Align.center);
+        modeLabel.setPosition(72, 108);
+        modeLabel.addListener(new ClickListener() {
+            @Override
+            public void clicked(InputEvent event, float x, float y) {
+                AutoBattle.this.rm.audio.play(AutoBattle.this.rm.buttonclick0);
+                setMode((getMode() + 1) % MODE_NAMES.length);
+            }
+        });
+        stage.addActor(modeLabel);
+        setMode(getMode());
+    }
+
+    /**
+     * Resets the battle summary when a new battle starts
+     */
+    public void init() {
+        dialogTime = 0;
+        turns = 0;
+        summarized = false;
+        setMode(getMode());
+    }
+
+    public void update(float dt) {
+        if (getMode() == OFF) return;
+
+        if (getMode() == INSTANT && !summarized) {
+            resolve();
+            return;
+        }
+
+        if (uiHandler.currentState == BattleState.MOVE) act();
+        else if (uiHandler.currentState == BattleState.DIALOG && uiHandler.battleEventHandler.isCycleFinished()) {
+            dialogTime += dt * getSpeed();
+            if (dialogTime >= DIALOG_DELAY) {
+                dialogTime = 0;
+                uiHandler.battleEventHandler.advance();
+            }
+        }
+    }
+
+    public void render(float dt) {}
+
+    /**
+     * Returns the multiplier that battle animations should be sped up by
+     *
+     * @return
+     */
+    public float getSpeed() {
+        return SPEEDS[getMode()];
+    }
+
+    public int getMode() {
+        return player.settings.autoBattle;
+    }
+
+    public void setMode(int mode) {
+        player.settings.autoBattle = mode;
+        modeLabel.setText("AUTO: " + MODE_NAMES[mode]);
+    }
+
+    public void setPolicy(BattlePolicy policy) {
+        this.policy = policy;
+    }
+
+    /**
+     * Uses the move or special move the policy chooses
+     */
+    private void act() {
+        SpecialMove smove = uiHandler.moveUI.getAvailableSpecialMove();
+        if (smove != null && policy.useSpecialMove(player, battle, smove)) {
+            uiHandler.moveUI.useSpecialMove();
+        }
+        else {
+            uiHandler.moveUI.useMove(policy.chooseMove(player, battle));
+            turns++;
+        }
+    }
+
+    /**
+     * Plays the battle until its final dialog without showing any dialogs
+     * then adds a summary to the final dialog
+     */
+    private void resolve() {
+        for (int i = 0; i < MAX_INSTANT_EVENTS; i++) {
+            if (uiHandler.currentState == BattleState.MOVE) act();
+            else if (uiHandler.currentState == BattleState.DIALOG) {
+                if (uiHandler.battleEventHandler.isBattleOver()) {
+                    uiHandler.battleEventHandler.prependDialog("The auto battle lasted " + turns + " turn(s).");
+                    summarized = true;
+                    return;
+                }
+                uiHandler.battleEventHandler.skipDialog();
+            }
+            else return;
+        }
+    }
+
+}
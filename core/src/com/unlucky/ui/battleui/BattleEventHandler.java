@@ -9,7 +9,6 @@ import com.badlogic.gdx.scenes.scene2d.ui.Image;
 import com.badlogic.gdx.scenes.scene2d.ui.Label;
 import com.badlogic.gdx.scenes.scene2d.utils.ClickListener;
 import com.badlogic.gdx.utils.Align;
-import com.unlucky.battle.StatusEffect;
 import com.unlucky.entity.Player;
 import com.unlucky.entity.enemy.Boss;
 import com.unlucky.event.Battle;
@@ -96,33 +95,80 @@ public class BattleEventHandler extends BattleUI {
         clickLabel.addListener(new ClickListener() {
             @Override
             public void clicked(InputEvent event, float x, float y) {
-                if (dialogIndex + 1 == currentDialog.length && endCycle) {
-                    if (!p.settings.muteSfx) rm.textprogression.play(p.settings.sfxVolume);
-                    // the text animation has run through every element of the text array
-                    endDialog();
-                    handleBattleEvent(nextEvent);
-                }
-                // after a cycle of text animation ends, clicking the UI goes to the next cycle
-                else if (endCycle && dialogIndex < currentDialog.length) {
-                    if (!p.settings.muteSfx) rm.textprogression.play(p.settings.sfxVolume);
-                    dialogIndex++;
-                    reset();
-                    currentText = currentDialog[dialogIndex];
-                    anim = currentText.split("");
-                    beginCycle = true;
-                }
-                // clicking on the box during a text animation completes it early
-                else if (beginCycle && !endCycle) {
-                    resultingText = currentText;
-                    textLabel.setText(resultingText);
-                    beginCycle = false;
-                    endCycle = true;
-                }
+                if (endCycle) rm.audio.play(rm.textprogression);
+                advance();
             }
         });
         stage.addActor(clickLabel);
     }
 
+    /**
+     * Moves the dialog forward the same way clicking the dialog box does
+     */
+    public void advance() {
+        if (dialogIndex + 1 == currentDialog.length && endCycle) {
+            // the text animation has run through every element of the text array
+            endDialog();
+            handleBattleEvent(nextEvent);
+        }
+        // after a cycle of text animation ends, clicking the UI goes to the next cycle
+        else if (endCycle && dialogIndex < currentDialog.length) {
+            dialogIndex++;
+            reset();
+            currentText = currentDialog[dialogIndex];
+            anim = currentText.split("");
+            beginCycle = true;
+        }
+        // clicking on the box during a text animation completes it early
+        else if (beginCycle && !endCycle) {
+            resultingText = currentText;
+            textLabel.setText(resultingText);
+            beginCycle = false;
+            endCycle = true;
+        }
+    }
+
+    /**
+     * Skips the rest of the current dialog and handles its battle event
+     */
+    public void skipDialog() {
+        endDialog();
+        handleBattleEvent(nextEvent);
+    }
+
+    /**
+     * Returns true if the current text animation cycle is done
+     *
+     * @return
+     */
+    public boolean isCycleFinished() {
+        return endCycle;
+    }
+
+    /**
+     * Returns true if the current dialog is the last one of the battle
+     *
+     * @return
+     */
+    public boolean isBattleOver() {
+        return nextEvent == BattleEvent.END_BATTLE || nextEvent == BattleEvent.LEVEL_UP ||
+            nextEvent == BattleEvent.PLAYER_DEAD;
+    }
+
+    /**
+     * Adds a line before the rest of the current dialog
+     *
+     * @param text
+     */
+    public void prependDialog(String text) {
+        String[] dialog = new String[currentDialog.length + 1];
+        dialog[0] = text;
+        System.arraycopy(currentDialog, 0, dialog, 1, currentDialog.length);
+        reset();
+        dialogIndex = 0;
+        startDialog(dialog, prevEvent, nextEvent);
+    }
+
     /**
      * Starts the text animation process given an array of Strings
      * Also takes in a BattleEvent that is called after the dialog is done
@@ -175,11 +221,12 @@ public class BattleEventHandler extends BattleUI {
 
             if (animIndex >= anim.length) endCycle = true;
             // a new character is appended to the animation every TEXT_SPEED delta time
-            if (stateTime > Util.TEXT_SPEED && animIndex < anim.length && !endCycle) {
+            // more than one can be appended when the battle is sped up
+            while (stateTime > Util.TEXT_SPEED && animIndex < anim.length && !endCycle) {
                 resultingText += anim[animIndex];
                 textLabel.setText(resultingText);
                 animIndex++;
-                stateTime = 0;
+                stateTime -= Util.TEXT_SPEED;
             }
         }
     }
@@ -237,11 +284,8 @@ public class BattleEventHandler extends BattleUI {
                 }
 
                 if (prevEvent == BattleEvent.ENEMY_TURN) {
-                    player.statusEffects.clear();
-                    if (battle.opponent.statusEffects.contains(StatusEffect.DMG_RED))
-                        battle.opponent.statusEffects.clearAllButMultiTurnEffects();
-                    else
-                        battle.opponent.statusEffects.clear();
+                    player.statusEffects.decrementTurns();
+                    battle.opponent.statusEffects.decrementTurns();
 
                     if (battle.buffs[Util.REFLECT]) {
                         battle.resetBuffs();
@@ -268,8 +312,8 @@ public class BattleEventHandler extends BattleUI {
                     if (battle.buffs[Util.SHIELD]) {
                         player.setShield((int) ((Util.P_SHIELD / 100f) * (float) player.getMaxHp()));
                     }
-                    if (battle.opponent.statusEffects.contains(StatusEffect.DMG_RED))
-                        battle.opponent.statusEffects.clearAllButSingleTurnEffects();
+                    player.statusEffects.decrementTurns();
+                    battle.opponent.statusEffects.decrementTurns();
                     if (applyEnemyDamage()) return;
                     player.applyHeal();
                 }
@@ -333,7 +377,7 @@ public class BattleEventHandler extends BattleUI {
                 return true;
             }
             else {
-                if (!player.settings.muteSfx) rm.death.play(player.settings.sfxVolume);
+                rm.audio.play(rm.death);
                 startDialog(new String[] {
                         "Oh no, you took fatal damage and died!",
                         "You will lose " + Util.DEATH_PENALTY +
@@ -381,7 +425,7 @@ public class BattleEventHandler extends BattleUI {
             // defeated enemy and gained experience and gold
             // maybe the player gets an item
             else {
-                if (!player.settings.muteSfx) rm.death.play(player.settings.sfxVolume);
+                rm.audio.play(rm.death);
 
                 int expGained = battle.getBattleExp();
                 int goldGained = battle.getGoldGained();
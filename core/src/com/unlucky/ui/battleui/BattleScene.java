@@ -164,14 +164,14 @@ public class BattleScene extends BattleUI {
         playerSprite.start();
         enemySprite.start();
 
-        if (gameScreen.gameMap.weather == WeatherType.RAIN) {
+        if (gameScreen.gameMap.getWeather() == WeatherType.RAIN) {
             factory.set(Particle.STATIC_RAINDROP, 40, new Vector2(Util.RAINDROP_X, -100));
-        } else if (gameScreen.gameMap.weather == WeatherType.HEAVY_RAIN ||
-                gameScreen.gameMap.weather == WeatherType.THUNDERSTORM) {
+        } else if (gameScreen.gameMap.getWeather() == WeatherType.HEAVY_RAIN ||
+                gameScreen.gameMap.getWeather() == WeatherType.THUNDERSTORM) {
             factory.set(Particle.STATIC_RAINDROP, 75, new Vector2(Util.RAINDROP_X, -120));
-        } else if (gameScreen.gameMap.weather == WeatherType.SNOW) {
+        } else if (gameScreen.gameMap.getWeather() == WeatherType.SNOW) {
             factory.set(Particle.SNOWFLAKE, 100, new Vector2(Util.SNOWFLAKE_X, -60));
-        } else if (gameScreen.gameMap.weather == WeatherType.BLIZZARD) {
+        } else if (gameScreen.gameMap.getWeather() == WeatherType.BLIZZARD) {
             factory.set(Particle.SNOWFLAKE, 300, new Vector2(Util.SNOWFLAKE_X + 50, -80));
         }
 
@@ -198,7 +198,7 @@ public class BattleScene extends BattleUI {
         playerHud.update(dt);
         enemyHud.update(dt);
 
-        if (gameScreen.gameMap.weather != WeatherType.NORMAL) factory.update(dt);
+        if (gameScreen.gameMap.getWeather() != WeatherType.NORMAL) factory.update(dt);
 
         // entity sprite animations
         player.getBam().update(dt);
@@ -279,25 +279,25 @@ public class BattleScene extends BattleUI {
                 sfxPlaying = false;
                 // start hit animation
                 showHitAnim = true;
-                if (!player.settings.muteSfx) rm.hit.play(player.settings.sfxVolume);
+                rm.audio.play(rm.hit);
                 if (entity == player) lastHit = 0;
                 else lastHit = 1;
             } else {
                 if (entity.getMoveUsed() == 0) {
-                    if (!player.settings.muteSfx && !sfxPlaying) {
-                        rm.blueattack.play(player.settings.sfxVolume);
+                    if (!sfxPlaying) {
+                        rm.audio.play(rm.blueattack);
                         sfxPlaying = true;
                     }
                 }
                 else if (entity.getMoveUsed() == 1) {
-                    if (!player.settings.muteSfx && !sfxPlaying) {
-                        rm.redattack.play(player.settings.sfxVolume);
+                    if (!sfxPlaying) {
+                        rm.audio.play(rm.redattack);
                         sfxPlaying = true;
                     }
                 }
                 else {
-                    if (!player.settings.muteSfx && !sfxPlaying) {
-                        rm.yellowattack.play(player.settings.sfxVolume);
+                    if (!sfxPlaying) {
+                        rm.audio.play(rm.yellowattack);
                         sfxPlaying = true;
                     }
                 }
@@ -311,8 +311,8 @@ public class BattleScene extends BattleUI {
                 healAnim.currentAnimation.stop();
                 entity.setMoveUsed(-1);
             } else {
-                if (!player.settings.muteSfx && !sfxPlaying) {
-                    rm.heal.play(player.settings.sfxVolume);
+                if (!sfxPlaying) {
+                    rm.audio.play(rm.heal);
                     sfxPlaying = true;
                 }
                 healAnim.update(dt);
@@ -355,7 +355,7 @@ public class BattleScene extends BattleUI {
         }
 
         // render weather and lighting conditions if any
-        if (gameScreen.gameMap.weather != WeatherType.NORMAL) factory.render(gameScreen.getBatch());
+        if (gameScreen.gameMap.getWeather() != WeatherType.NORMAL) factory.render(gameScreen.getBatch());
 
         if (gameScreen.gameMap.isDark) {
             gameScreen.getBatch().setBlendFunction(GL20.GL_DST_COLOR, GL20.GL_ONE_MINUS_SRC_ALPHA);
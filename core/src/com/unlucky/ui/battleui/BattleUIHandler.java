@@ -21,6 +21,7 @@ public class BattleUIHandler extends UI {
     public MoveUI moveUI;
     public BattleEventHandler battleEventHandler;
     public BattleScene battleScene;
+    public AutoBattle autoBattle;
 
     // battle
     public BattleState currentState;
@@ -33,15 +34,20 @@ public class BattleUIHandler extends UI {
         battleScene = new BattleScene(gameScreen, tileMap, player, battle, this, stage, rm);
         moveUI = new MoveUI(gameScreen, tileMap, player, battle, this, stage, rm);
         battleEventHandler = new BattleEventHandler(gameScreen, tileMap, player, battle, this, stage, rm);
+        // added last so its button is above the dialog box
+        autoBattle = new AutoBattle(gameScreen, tileMap, player, battle, this, stage, rm);
 
         moveUI.toggleMoveAndOptionUI(false);
         battleEventHandler.endDialog();
     }
 
     public void update(float dt) {
+        // animations are sped up during auto battles
+        float speed = autoBattle.getSpeed();
         if (currentState == BattleState.MOVE) moveUI.update(dt);
-        if (currentState == BattleState.DIALOG) battleEventHandler.update(dt);
-        battleScene.update(dt);
+        autoBattle.update(dt);
+        if (currentState == BattleState.DIALOG) battleEventHandler.update(dt * speed);
+        battleScene.update(dt * speed);
     }
 
     public void render(float dt) {
@@ -63,6 +69,7 @@ public class BattleUIHandler extends UI {
     public void engage(Enemy enemy) {
         player.setDead(false);
         moveUI.init();
+        autoBattle.init();
         battleScene.resetPositions();
         battleScene.toggle(true);
         currentState = BattleState.DIALOG;
@@ -121,4 +128,10 @@ public class BattleUIHandler extends UI {
         }
     }
 
+    @Override
+    public void dispose() {
+        super.dispose();
+        moveUI.dispose();
+    }
+
 }
@@ -12,6 +12,7 @@ import com.badlogic.gdx.scenes.scene2d.utils.ClickListener;
 import com.badlogic.gdx.scenes.scene2d.utils.TextureRegionDrawable;
 import com.badlogic.gdx.utils.Align;
 import com.badlogic.gdx.utils.Array;
+import com.unlucky.battle.BattleSolver;
 import com.unlucky.battle.Move;
 import com.unlucky.battle.SpecialMove;
 import com.unlucky.battle.StatusEffect;
@@ -54,12 +55,20 @@ public class MoveUI extends BattleUI {
     private int turnCounter = 0;
     private boolean shouldReset = false;
 
+    // win odds shown under the run option
+    private BattleSolver solver;
+    private boolean oddsRequested = false;
+    private BattleSolver.Odds shownOdds;
+    // expected value of each move is only recalculated when a new turn starts
+    private boolean adviceDirty = true;
+
     public MoveUI(GameScreen gameScreen, TileMap tileMap, Player player, Battle battle,
                   com.unlucky.ui.battleui.BattleUIHandler uiHandler, Stage stage, ResourceManager rm) {
         super(gameScreen, tileMap, player, battle, uiHandler, rm);
 
         this.stage = stage;
         playerSmoveset = new Array<SpecialMove>();
+        solver = new BattleSolver(rm);
 
         createMoveUI();
         createOptionUI();
@@ -81,10 +90,21 @@ public class MoveUI extends BattleUI {
                     "new special move");
         }
 
-        for (int i = 0; i < playerSmoveset.size; i++) {
-            System.out.print(playerSmoveset.get(i).name + ",");
+        // calculate the odds of winning once per turn and show them when they're ready
+        if (!oddsRequested) {
+            solver.request(player, battle.opponent, battle);
+            oddsRequested = true;
+        }
+        BattleSolver.Odds odds = solver.getOdds();
+        if (odds != null && odds != shownOdds) {
+            shownOdds = odds;
+            setRunDescription();
+        }
+
+        if (adviceDirty) {
+            updateMoveAdvice();
+            adviceDirty = false;
         }
-        System.out.println();
     }
 
     public void render(float dt) {}
@@ -96,6 +116,7 @@ public class MoveUI extends BattleUI {
         turnCounter = 0;
         onCd = false;
         shouldReset = false;
+        shownOdds = null;
         optionDescLabels[1].setText("7% chance to run\nfrom a battle");
         for (int i = 0; i < 2; i++) {
             optionButtonTouchable[i] = true;
@@ -113,6 +134,11 @@ public class MoveUI extends BattleUI {
      * Hides and disables or shows and enables the move button UI
      */
     public void toggleMoveAndOptionUI(boolean toggle) {
+        // the battle state changed since the odds and move values were last calculated
+        if (toggle) {
+            oddsRequested = false;
+            adviceDirty = true;
+        }
         for (int i = 0; i < 4; i++) {
             moveButtons[i].setTouchable(toggle ? Touchable.enabled : Touchable.disabled);
             moveButtons[i].setVisible(toggle);
@@ -128,6 +154,35 @@ public class MoveUI extends BattleUI {
         }
     }
 
+    /**
+     * Adds the expected damage or healing of each move to its description
+     */
+    private void updateMoveAdvice() {
+        for (int i = 0; i < 4; i++) {
+            Move move = player.getMoveset().moveset[i];
+            float value = Math.round(battle.getExpectedValue(move) * 10) / 10f;
+            moveDescLabels[i].setText(player.getMoveset().getDescription(i) + "\navg: " + value
+                    + (battle.isHealing(move) ? " heal" : " dmg"));
+        }
+    }
+
+    /**
+     * Sets the description of the run option with the current odds of winning
+     */
+    private void setRunDescription() {
+        String run = optionButtonTouchable[1] ? "7% chance to run" : "cannot run again";
+        if (shownOdds == null) optionDescLabels[1].setText(optionButtonTouchable[1] ? run + "\nfrom a battle" : run);
+        else {
+            String win = MathUtils.round(shownOdds.win * 100) + "% chance to win";
+            // the solve ran out of time so the odds are only an estimate
+            if (!shownOdds.converged) optionDescLabels[1].setText(run + "\n~" + win + " (estimate)");
+            else {
+                int turns = Math.max(1, MathUtils.round(shownOdds.expectedTurns));
+                optionDescLabels[1].setText(run + "\n" + win + "\nin about " + turns + (turns == 1 ? " turn" : " turns"));
+            }
+        }
+    }
+
     /**
      * Resets the Move ImageButtons and their Labels whenever a turn ends and new moves are set
      */
@@ -136,7 +191,7 @@ public class MoveUI extends BattleUI {
         for (int i = 0; i < 4; i++) {
             moveButtons[i].setStyle(moveStyles[player.getMoveset().moveset[i].type]);
             moveNameLabels[i].setText(player.getMoveset().names[i]);
-            moveDescLabels[i].setText(player.getMoveset().descriptions[i]);
+            moveDescLabels[i].setText(player.getMoveset().getDescription(i));
         }
     }
 
@@ -197,7 +252,7 @@ public class MoveUI extends BattleUI {
             moveNameLabels[i].setFontScale(0.62f);
             moveNameLabels[i].setTouchable(Touchable.disabled);
 
-            moveDescLabels[i] = new Label(player.getMoveset().descriptions[i], font);
+            moveDescLabels[i] = new Label(player.getMoveset().getDescription(i), font);
             moveDescLabels[i].setSize(Util.MOVE_WIDTH, Util.MOVE_HEIGHT);
             moveDescLabels[i].setAlignment(Align.left);
             moveDescLabels[i].setFontScale(0.5f);
@@ -296,27 +351,46 @@ public class MoveUI extends BattleUI {
             moveButtons[i].addListener(new ClickListener() {
                 @Override
                 public void clicked(InputEvent event, float x, float y) {
-                    if (!player.settings.muteSfx) rm.moveselectclick.play(player.settings.sfxVolume);
-                    // the move the player clicked
-                    if (onCd) turnCounter++;
-                    // when not on cooldown reset special moves every turn
-                    else {
-                        smove = playerSmoveset.random();
-                        resetSpecialMoves();
-                    }
-                    player.stats.numMovesUsed++;
-                    Move move = player.getMoveset().moveset[index];
-                    uiHandler.currentState = com.unlucky.event.BattleState.DIALOG;
-                    uiHandler.moveUI.toggleMoveAndOptionUI(false);
-                    // reshuffle moveset for next turn
-                    resetMoves();
-                    String[] dialog = battle.handleMove(move);
-                    uiHandler.battleEventHandler.startDialog(dialog, BattleEvent.PLAYER_TURN, BattleEvent.ENEMY_TURN);
+                    rm.audio.play(rm.moveselectclick);
+                    useMove(index);
                 }
             });
         }
     }
 
+    /**
+     * Uses a move from the player's moveset and starts the enemy's turn
+     *
+     * @param index
+     */
+    public void useMove(int index) {
+        // the move the player clicked
+        if (onCd) turnCounter++;
+        // when not on cooldown reset special moves every turn
+        else {
+            smove = playerSmoveset.random();
+            resetSpecialMoves();
+        }
+        player.stats.numMovesUsed++;
+        Move move = player.getMoveset().moveset[index];
+        uiHandler.currentState = com.unlucky.event.BattleState.DIALOG;
+        uiHandler.moveUI.toggleMoveAndOptionUI(false);
+        // the move slots are reused so the move has to be handled before reshuffling
+        String[] dialog = battle.handleMove(move);
+        // reshuffle moveset for next turn
+        resetMoves();
+        uiHandler.battleEventHandler.startDialog(dialog, BattleEvent.PLAYER_TURN, BattleEvent.ENEMY_TURN);
+    }
+
+    /**
+     * Returns the special move that can be used this turn or null if there isn't one
+     *
+     * @return
+     */
+    public SpecialMove getAvailableSpecialMove() {
+        return optionButtonTouchable[0] ? smove : null;
+    }
+
     /**
      * Handles the two options of the player
      * Once used, the options are disabled for the rest of the battle
@@ -326,39 +400,8 @@ public class MoveUI extends BattleUI {
         optionButtons[0].addListener(new ClickListener() {
             @Override
             public void clicked(InputEvent event, float x, float y) {
-                if (!player.settings.muteSfx) rm.moveselectclick.play(player.settings.sfxVolume);
-                uiHandler.currentState = com.unlucky.event.BattleState.DIALOG;
-                uiHandler.moveUI.toggleMoveAndOptionUI(false);
-                player.stats.numSMovesUsed++;
-                // remove current smove from pool
-                playerSmoveset.removeValue(smove, false);
-                if (playerSmoveset.size == 0) {
-                    onCd = false;
-                    turnCounter = player.smoveCd;
-                    resetSpecialMoves();
-                }
-                battle.buffs[smove.id] = true;
-
-                uiHandler.battleEventHandler.startDialog(battle.getSpecialMoveDialog(smove.id),
-                        BattleEvent.PLAYER_TURN, BattleEvent.PLAYER_TURN);
-
-                // add status icons that should show immediately after dialog
-                if (battle.buffs[Util.DISTRACT]) battle.opponent.statusEffects.addEffect(StatusEffect.DISTRACT);
-                if (battle.buffs[Util.FOCUS]) player.statusEffects.addEffect(StatusEffect.FOCUS);
-                if (battle.buffs[Util.INTIMIDATE]) player.statusEffects.addEffect(StatusEffect.INTIMIDATE);
-                if (battle.buffs[Util.REFLECT]) battle.opponent.statusEffects.addEffect(StatusEffect.REFLECT);
-                if (battle.buffs[Util.INVERT]) player.statusEffects.addEffect(StatusEffect.INVERT);
-                if (battle.buffs[Util.SACRIFICE]) player.statusEffects.addEffect(StatusEffect.SACRIFICE);
-                if (battle.buffs[Util.SHIELD]) player.statusEffects.addEffect(StatusEffect.SHIELD);
-
-                // disable button until cooldown over
-                onCd = true;
-                optionButtons[0].setTouchable(Touchable.disabled);
-                optionButtons[0].setStyle(disabled[0]);
-                optionNameLabels[0].setText("ON COOLDOWN");
-                optionButtonTouchable[0] = false;
-
-                shouldReset = true;
+                rm.audio.play(rm.moveselectclick);
+                useSpecialMove();
             }
         });
 
@@ -366,30 +409,83 @@ public class MoveUI extends BattleUI {
         optionButtons[1].addListener(new ClickListener() {
             @Override
             public void clicked(InputEvent event, float x, float y) {
-                if (!player.settings.muteSfx) rm.moveselectclick.play(player.settings.sfxVolume);
-                uiHandler.currentState = com.unlucky.event.BattleState.DIALOG;
-                uiHandler.moveUI.toggleMoveAndOptionUI(false);
-                if (onCd) turnCounter++;
-                else {
-                    smove = playerSmoveset.random();
-                    resetSpecialMoves();
-                }
-                // 7% chance to run from the battle
-                if (Util.isSuccess(Util.RUN_FROM_BATTLE)) {
-                    uiHandler.battleEventHandler.startDialog(new String[]{
-                            "You successfully ran from the battle!"
-                    }, BattleEvent.PLAYER_TURN, BattleEvent.END_BATTLE);
-                } else {
-                    uiHandler.battleEventHandler.startDialog(new String[]{
-                            "You couldn't run from the battle!"
-                    }, BattleEvent.PLAYER_TURN, BattleEvent.ENEMY_TURN);
-                }
-                optionButtons[1].setTouchable(Touchable.disabled);
-                optionButtons[1].setStyle(disabled[1]);
-                optionDescLabels[1].setText("cannot run again");
-                optionButtonTouchable[1] = false;
+                rm.audio.play(rm.moveselectclick);
+                run();
             }
         });
     }
 
+    /**
+     * Uses the current special move
+     * Once used, it's disabled until its cooldown is over
+     */
+    public void useSpecialMove() {
+        uiHandler.currentState = com.unlucky.event.BattleState.DIALOG;
+        uiHandler.moveUI.toggleMoveAndOptionUI(false);
+        player.stats.numSMovesUsed++;
+        // remove current smove from pool
+        playerSmoveset.removeValue(smove, false);
+        if (playerSmoveset.size == 0) {
+            onCd = false;
+            turnCounter = player.smoveCd;
+            resetSpecialMoves();
+        }
+        battle.buffs[smove.id] = true;
+
+        uiHandler.battleEventHandler.startDialog(battle.getSpecialMoveDialog(smove.id),
+                BattleEvent.PLAYER_TURN, BattleEvent.PLAYER_TURN);
+
+        // add status icons that should show immediately after dialog
+        if (battle.buffs[Util.DISTRACT]) battle.opponent.statusEffects.addEffect(StatusEffect.DISTRACT);
+        if (battle.buffs[Util.FOCUS]) player.statusEffects.addEffect(StatusEffect.FOCUS);
+        if (battle.buffs[Util.INTIMIDATE]) player.statusEffects.addEffect(StatusEffect.INTIMIDATE);
+        if (battle.buffs[Util.REFLECT]) battle.opponent.statusEffects.addEffect(StatusEffect.REFLECT);
+        if (battle.buffs[Util.INVERT]) player.statusEffects.addEffect(StatusEffect.INVERT);
+        if (battle.buffs[Util.SACRIFICE]) player.statusEffects.addEffect(StatusEffect.SACRIFICE);
+        if (battle.buffs[Util.SHIELD]) player.statusEffects.addEffect(StatusEffect.SHIELD);
+
+        // disable button until cooldown over
+        onCd = true;
+        optionButtons[0].setTouchable(Touchable.disabled);
+        optionButtons[0].setStyle(disabled[0]);
+        optionNameLabels[0].setText("ON COOLDOWN");
+        optionButtonTouchable[0] = false;
+
+        shouldReset = true;
+    }
+
+    /**
+     * Tries to run from the battle
+     * Running can only be attempted once per battle
+     */
+    public void run() {
+        uiHandler.currentState = com.unlucky.event.BattleState.DIALOG;
+        uiHandler.moveUI.toggleMoveAndOptionUI(false);
+        if (onCd) turnCounter++;
+        else {
+            smove = playerSmoveset.random();
+            resetSpecialMoves();
+        }
+        // 7% chance to run from the battle
+        if (Util.isSuccess(Util.RUN_FROM_BATTLE)) {
+            uiHandler.battleEventHandler.startDialog(new String[]{
+                    "You successfully ran from the battle!"
+            }, BattleEvent.PLAYER_TURN, BattleEvent.END_BATTLE);
+        } else {
+            uiHandler.battleEventHandler.startDialog(new String[]{
+                    "You couldn't run from the battle!"
+            }, BattleEvent.PLAYER_TURN, BattleEvent.ENEMY_TURN);
+        }
+        optionButtons[1].setTouchable(Touchable.disabled);
+        optionButtons[1].setStyle(disabled[1]);
+        optionButtonTouchable[1] = false;
+        setRunDescription();
+    }
+
+    @Override
+    public void dispose() {
+        super.dispose();
+        solver.dispose();
+    }
+
 }
@@ -1,6 +1,7 @@
 package com.unlucky.ui.inventory;
 
 import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Input;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
 import com.badlogic.gdx.math.Rectangle;
@@ -15,10 +16,13 @@ import com.badlogic.gdx.scenes.scene2d.utils.ClickListener;
 import com.badlogic.gdx.scenes.scene2d.utils.DragListener;
 import com.badlogic.gdx.scenes.scene2d.utils.TextureRegionDrawable;
 import com.badlogic.gdx.utils.Align;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectIntMap;
 import com.unlucky.entity.Player;
 import com.unlucky.event.EventState;
 import com.unlucky.inventory.Equipment;
 import com.unlucky.inventory.Inventory;
+import com.unlucky.inventory.InventoryIndex;
 import com.unlucky.inventory.Item;
 import com.unlucky.main.Unlucky;
 import com.unlucky.resource.ResourceManager;
@@ -45,6 +49,30 @@ public class InventoryUI extends UI {
     // UI
     // dimensions to render the inventory at
     private static final int NUM_COLS = 6;
+    // slots shown at once, the first page is the inventory and the rest are the stash
+    private static final int PAGE_SIZE = Inventory.NUM_SLOTS;
+    // only the actors of the current page are on the stage
+    private int page = 0;
+    // page buttons, dropping an item on one moves it to that page
+    private Label prevPage;
+    private Label nextPage;
+    // the slot each inventory actor was last positioned at
+    // so only actors that changed slots are moved
+    private ObjectIntMap<Item> laidOutSlots = new ObjectIntMap<Item>();
+    private float layoutX = -1, layoutY = -1;
+    private Array<Item> queryResult = new Array<Item>();
+    private InventoryIndex.Query query = new InventoryIndex.Query();
+    // sort, filter and search controls above the inventory
+    private static final String[] SORT_NAMES = { "SLOT", "VALUE", "ENCH" };
+    private static final String[] TYPE_NAMES = {
+        "POTION", "MISC", "HELMET", "ARMOR", "WEAPON", "GLOVES", "SHOES", "NECK", "SHIELD", "RING", "SCROLL"
+    };
+    private Label sortLabel;
+    private Label filterLabel;
+    private Label findLabel;
+    private int sort = InventoryIndex.SORT_SLOT;
+    // kept between openings of the inventory
+    private InventoryIndex.Query filter = new InventoryIndex.Query();
     // main background ui
     private MovingImageUI ui;
     // exit button
@@ -157,12 +185,12 @@ public class InventoryUI extends UI {
             @Override
             public void clicked(InputEvent event, float x, float y) {
                 end();
-                if (!game.player.settings.muteSfx) rm.buttonclick0.play(game.player.settings.sfxVolume);
+                rm.audio.play(rm.buttonclick0);
                 if (inMenu) {
                     removeInventoryActors();
-                    game.menuScreen.transitionIn = 1;
+                    game.getMenuScreen().transitionIn = 1;
                     renderHealthBars = false;
-                    game.inventoryScreen.setSlideScreen(game.menuScreen, true);
+                    game.getInventoryScreen().setSlideScreen(game.getMenuScreen(), true);
                 }
                 else {
                     Gdx.input.setInputProcessor(gameScreen.multiplexer);
@@ -170,10 +198,112 @@ public class InventoryUI extends UI {
             }
         });
 
+        createQueryLabels(labelColors[0]);
+        createPageButtons(labelColors[0]);
+
         handleStageEvents();
         handleInvButtonEvents();
     }
 
+    /**
+     * Creates the clickable labels that sort, filter by type and search the inventory
+     */
+    private void createQueryLabels(Label.LabelStyle style) {
+        sortLabel = new Label("", style);
+        filterLabel = new Label("", style);
+        findLabel = new Label("", style);
+        Label[] labels = { sortLabel, filterLabel, findLabel };
+        for (int i = 0; i < labels.length; i++) {
+            labels[i].setFontScale(0.5f);
+            labels[i].setSize(32, 6);
+            labels[i].setAlignment(Align.left);
+        }
+        updateQueryLabels();
+
+        sortLabel.addListener(new ClickListener() {
+            @Override
+            public void clicked(InputEvent event, float x, float y) {
+                rm.audio.play(rm.buttonclick1);
+                sort = (sort + 1) % SORT_NAMES.length;
+                sortInventory(sort);
+                applyFilter();
+                updateQueryLabels();
+            }
+        });
+        filterLabel.addListener(new ClickListener() {
+            @Override
+            public void clicked(InputEvent event, float x, float y) {
+                rm.audio.play(rm.buttonclick1);
+                // cycles through any type then each type
+                filter.type = filter.type + 1 == TYPE_NAMES.length ? InventoryIndex.ANY : filter.type + 1;
+                applyFilter();
+                updateQueryLabels();
+            }
+        });
+        findLabel.addListener(new ClickListener() {
+            @Override
+            public void clicked(InputEvent event, float x, float y) {
+                rm.audio.play(rm.buttonclick1);
+                Gdx.input.getTextInput(new Input.TextInputListener() {
+                    @Override
+                    public void input(String text) {
+                        text = text.trim();
+                        filter.text = text.length() == 0 ? null : text;
+                        applyFilter();
+                        updateQueryLabels();
+                    }
+
+                    @Override
+                    public void canceled() {}
+                }, "Find items named", filter.text == null ? "" : filter.text, "");
+            }
+        });
+    }
+
+    /**
+     * Creates the buttons that switch between the inventory and the pages of the stash
+     */
+    private void createPageButtons(Label.LabelStyle style) {
+        prevPage = new Label("<", style);
+        nextPage = new Label(">", style);
+        Label[] labels = { prevPage, nextPage };
+        for (int i = 0; i < labels.length; i++) {
+            labels[i].setFontScale(0.5f);
+            labels[i].setSize(8, 8);
+            labels[i].setAlignment(Align.center);
+        }
+
+        prevPage.addListener(new ClickListener() {
+            @Override
+            public void clicked(InputEvent event, float x, float y) {
+                rm.audio.play(rm.buttonclick1);
+                setPage(page - 1);
+            }
+        });
+        nextPage.addListener(new ClickListener() {
+            @Override
+            public void clicked(InputEvent event, float x, float y) {
+                rm.audio.play(rm.buttonclick1);
+                setPage(page + 1);
+            }
+        });
+    }
+
+    private void updateQueryLabels() {
+        sortLabel.setText("SORT:" + SORT_NAMES[sort]);
+        filterLabel.setText("SHOW:" + (filter.type == InventoryIndex.ANY ? "ALL" : TYPE_NAMES[filter.type]));
+        if (filter.text == null) findLabel.setText("FIND");
+        else findLabel.setText("FIND:" + (filter.text.length() > 4 ? filter.text.substring(0, 4) : filter.text));
+    }
+
+    /**
+     * Hides the items not matching the type filter and search text
+     */
+    private void applyFilter() {
+        if (filter.type == InventoryIndex.ANY && filter.text == null) filterInventory(null);
+        else filterInventory(filter);
+    }
+
     /**
      * Initializes the type of inventory (menu or in game) and the stage
      * Adds everything to the stage
@@ -183,7 +313,9 @@ public class InventoryUI extends UI {
      */
     public void init(boolean inMenu, Stage s) {
         this.inMenu = inMenu;
-        this.gameScreen = game.gameScreen;
+        // actors may have been moved by other screens
+        laidOutSlots.clear();
+        this.gameScreen = game.getGameScreen();
         if (inMenu) this.stage = s;
 
         stage.addActor(ui);
@@ -196,6 +328,15 @@ public class InventoryUI extends UI {
             stage.addActor(invButtons[i]);
             stage.addActor(invButtonLabels[i]);
         }
+        stage.addActor(sortLabel);
+        stage.addActor(filterLabel);
+        stage.addActor(findLabel);
+        stage.addActor(prevPage);
+        stage.addActor(nextPage);
+        // the stash can only be reached from the menu
+        prevPage.setVisible(inMenu);
+        nextPage.setVisible(inMenu);
+        updatePageLabels();
 
         if (!inMenu) {
             // reset the stage position after actions
@@ -209,10 +350,10 @@ public class InventoryUI extends UI {
      * Adds inventory items to the stage
      */
     private void addInventory() {
-        for (int i = 0; i < Inventory.NUM_SLOTS; i++) {
-            Item item = player.inventory.getItem(i);
+        for (int i = pageStart(); i < pageEnd(); i++) {
+            Item item = shown().getItem(i);
             if (item != null) {
-                stage.addActor(item.actor);
+                stage.addActor(item.getActor());
             }
         }
     }
@@ -224,7 +365,7 @@ public class InventoryUI extends UI {
         for (int i = 0; i < Equipment.NUM_SLOTS; i++) {
             Item item = player.equips.getEquipAt(i);
             if (item != null) {
-                stage.addActor(item.actor);
+                stage.addActor(item.getActor());
             }
         }
     }
@@ -233,16 +374,28 @@ public class InventoryUI extends UI {
      * Resets the item actors
      */
     private void removeInventoryActors() {
-        for (int i = 0; i < Inventory.NUM_SLOTS; i++) {
-            Item item = player.inventory.getItem(i);
+        removePageActors();
+        for (int i = 0; i < Equipment.NUM_SLOTS; i++) {
+            Item item = player.equips.getEquipAt(i);
             if (item != null) {
-                item.actor.remove();
+                item.removeActor();
             }
         }
-        for (int i = 0; i < Equipment.NUM_SLOTS; i++) {
-            Item item = player.equips.getEquipAt(i);
+        // always opens on the inventory
+        page = 0;
+        updatePageLabels();
+    }
+
+    /**
+     * Removes the item actors of the current page
+     */
+    private void removePageActors() {
+        for (int i = pageStart(); i < pageEnd(); i++) {
+            Item item = shown().getItem(i);
             if (item != null) {
-                item.actor.remove();
+                item.removeActor();
+                // undo any filter since other screens share the actors
+                item.getActor().setVisible(true);
             }
         }
     }
@@ -255,8 +408,8 @@ public class InventoryUI extends UI {
      *
      */
     private void handleInventoryEvents() {
-        for (int i = 0; i < Inventory.NUM_SLOTS; i++) {
-            final Item item = player.inventory.getItem(i);
+        for (int i = pageStart(); i < pageEnd(); i++) {
+            final Item item = shown().getItem(i);
             if (item != null) {
                 addInventoryEvent(item);
             }
@@ -274,53 +427,58 @@ public class InventoryUI extends UI {
      * @param item
      */
     private void addInventoryEvent(final Item item) {
-        item.actor.clearListeners();
-        item.actor.addListener(new DragListener() {
+        item.getActor().clearListeners();
+        item.getActor().addListener(new DragListener() {
 
             @Override
             public void dragStart(InputEvent event, float x, float y, int pointer) {
                 // can't allow dragging equips off while in game
                 if (inMenu || !item.equipped) {
-                    if (!game.player.settings.muteSfx) rm.invselectclick.play(game.player.settings.sfxVolume);
+                    rm.audio.play(rm.invselectclick);
                     dragging = true;
                     tooltip.hide();
                     unselectItem();
 
                     // original positions
-                    prevX = (int) (item.actor.getX() + item.actor.getWidth() / 2);
-                    prevY = (int) (item.actor.getY() + item.actor.getHeight() / 2);
+                    prevX = (int) (item.getActor().getX() + item.getActor().getWidth() / 2);
+                    prevY = (int) (item.getActor().getY() + item.getActor().getHeight() / 2);
 
-                    item.actor.toFront();
+                    item.getActor().toFront();
                     selectedSlot.setVisible(false);
-                    if (!item.equipped) player.inventory.removeItem(item.index);
+                    if (!item.equipped) removeFromPage(item);
                     else player.equips.removeEquip(item.type - 2);
                 }
             }
 
             @Override
             public void drag(InputEvent event, float x, float y, int pointer) {
-                item.actor.moveBy(x - item.actor.getWidth() / 2, y - item.actor.getHeight() / 2);
+                item.getActor().moveBy(x - item.getActor().getWidth() / 2, y - item.getActor().getHeight() / 2);
             }
 
             @Override
             public void dragStop(InputEvent event, float x, float y, int pointer) {
                 dragging = false;
+                // dropping can move this item and swap others
+                laidOutSlots.clear();
 
                 selectedSlot.setVisible(false);
                 // origin positions
-                int ax = (int) (item.actor.getX() + item.actor.getWidth() / 2);
-                int ay = (int) (item.actor.getY() + item.actor.getHeight() / 2);
+                int ax = (int) (item.getActor().getX() + item.getActor().getWidth() / 2);
+                int ay = (int) (item.getActor().getY() + item.getActor().getHeight() / 2);
 
-                if (!game.player.settings.muteSfx) rm.invselectclick.play(game.player.settings.sfxVolume);
+                rm.audio.play(rm.invselectclick);
 
-                if (item.equipped && inMenu) {
+                if (!item.equipped && inMenu && (over(prevPage, ax, ay) || over(nextPage, ax, ay))) {
+                    moveToPage(item, over(prevPage, ax, ay) ? page - 1 : page + 1);
+                }
+                else if (item.equipped && inMenu) {
                     if (INVENTORY_AREA.contains(ax, ay)) {
                         int hi = getHoveredIndex(ax, ay);
                         if (hi == -1)
                             player.equips.addEquip(item);
                         else {
-                            if (player.inventory.isFreeSlot(hi)) {
-                                player.inventory.addItemAtIndex(item, hi);
+                            if (shown().isFreeSlot(hi)) {
+                                shown().addItemAtIndex(item, hi);
                                 item.equipped = false;
                                 player.unequip(item);
                                 updateText();
@@ -347,11 +505,11 @@ public class InventoryUI extends UI {
                                 swap.equipped = false;
                                 player.unequip(swap);
                                 player.equips.addEquip(item);
-                                player.inventory.addItemAtIndex(swap, item.index);
+                                shown().addItemAtIndex(swap, item.index);
                                 updateText();
                             }
                         } else {
-                            player.inventory.addItemAtIndex(item, item.index);
+                            shown().addItemAtIndex(item, item.index);
                         }
                     }
                     // dropping into inventory slots
@@ -359,19 +517,20 @@ public class InventoryUI extends UI {
                         int hi = getHoveredIndex(ax, ay);
 
                         if (hi == -1)
-                            player.inventory.addItemAtIndex(item, item.index);
+                            shown().addItemAtIndex(item, item.index);
                         else {
                             // if dropped into an occupied slot, swap item positions
-                            if (!player.inventory.addItemAtIndex(item, hi)) {
-                                Item eq = player.inventory.getItem(hi);
+                            if (!shown().addItemAtIndex(item, hi)) {
+                                Item eq = shown().getItem(hi);
                                 // dragging an enchant scroll onto an equip
                                 if (item.type == 10 && eq.type >= 2 && eq.type <= 9) {
                                     applyEnchantBonus(eq, item);
                                 }
                                 else {
-                                    Item swap = player.inventory.takeItem(hi);
-                                    player.inventory.addItemAtIndex(swap, item.index);
-                                    player.inventory.addItemAtIndex(item, hi);
+                                    Item swap = shown().takeItem(hi);
+                                    laidOutSlots.remove(swap, -1);
+                                    shown().addItemAtIndex(swap, item.index);
+                                    shown().addItemAtIndex(item, hi);
                                 }
                             }
                         }
@@ -382,13 +541,13 @@ public class InventoryUI extends UI {
 
         });
 
-        item.actor.addListener(new InputListener() {
+        item.getActor().addListener(new InputListener() {
 
             @Override
             public boolean touchDown(InputEvent event, float x, float y, int pointer, int button) {
                 // original positions
-                prevX = (int) (item.actor.getX() + item.actor.getWidth() / 2);
-                prevY = (int) (item.actor.getY() + item.actor.getHeight() / 2);
+                prevX = (int) (item.getActor().getX() + item.getActor().getWidth() / 2);
+                prevY = (int) (item.getActor().getY() + item.getActor().getHeight() / 2);
 
                 return true;
             }
@@ -396,8 +555,8 @@ public class InventoryUI extends UI {
             @Override
             public void touchUp(InputEvent event, float x, float y, int pointer, int button) {
                 // new positions
-                int ax = (int) (item.actor.getX() + item.actor.getWidth() / 2);
-                int ay = (int) (item.actor.getY() + item.actor.getHeight() / 2);
+                int ax = (int) (item.getActor().getX() + item.getActor().getWidth() / 2);
+                int ay = (int) (item.getActor().getY() + item.getActor().getHeight() / 2);
                 // a true click and not a drag
                 if (prevX == ax && prevY == ay) {
                     // item selected
@@ -405,7 +564,7 @@ public class InventoryUI extends UI {
                         unselectItem();
                     }
                     else {
-                        if (!game.player.settings.muteSfx) rm.invselectclick.play(game.player.settings.sfxVolume);
+                        rm.audio.play(rm.invselectclick);
                         itemSelected = true;
                         currentItem = item;
                         showSelectedSlot(item);
@@ -424,7 +583,7 @@ public class InventoryUI extends UI {
         });
 
         // handle double clicks for item usage and equip
-        item.actor.addListener(new ClickListener() {
+        item.getActor().addListener(new ClickListener() {
 
             @Override
             public void clicked(InputEvent event, float x, float y) {
@@ -443,7 +602,7 @@ public class InventoryUI extends UI {
                         if (!item.equipped) {
                             item.equipped = true;
                             player.equip(item);
-                            player.inventory.removeItem(item.index);
+                            removeFromPage(item);
                             updateText();
                             if (!player.equips.addEquip(item)) {
                                 // replace the equip with the item of same type
@@ -451,15 +610,15 @@ public class InventoryUI extends UI {
                                 swap.equipped = false;
                                 player.unequip(swap);
                                 player.equips.addEquip(item);
-                                player.inventory.addItemAtIndex(swap, item.index);
+                                shown().addItemAtIndex(swap, item.index);
                                 updateText();
                             }
                         }
                         // double clicking an equipped item unequips it and places it
-                        // in the first open slot if it exists
+                        // in the first open slot of the page if it exists
                         else {
                             player.equips.removeEquip(item.type - 2);
-                            if (!player.inventory.addItem(item)) {
+                            if (!shown().addItem(item, pageStart(), pageEnd())) {
                                 player.equips.addEquip(item);
                             } else {
                                 item.equipped = false;
@@ -500,7 +659,7 @@ public class InventoryUI extends UI {
             @Override
             public void clicked(InputEvent event, float x, float y) {
                 tooltip.setVisible(false);
-                if (!game.player.settings.muteSfx) rm.buttonclick1.play(game.player.settings.sfxVolume);
+                rm.audio.play(rm.buttonclick1);
                 // only equips can be enchanted
                 if (currentItem != null && currentItem.type >= 2 && currentItem.type <= 9) {
                     new Dialog("Enchant", rm.dialogSkin) {
@@ -517,7 +676,7 @@ public class InventoryUI extends UI {
 
                         @Override
                         protected void result(Object object) {
-                            if (!game.player.settings.muteSfx) rm.buttonclick2.play(game.player.settings.sfxVolume);
+                            rm.audio.play(rm.buttonclick2);
                             if (object.equals("yes")) {
                                 enchant();
                             }
@@ -532,7 +691,7 @@ public class InventoryUI extends UI {
         invButtons[1].addListener(new ClickListener() {
             @Override
             public void clicked(InputEvent event, float x, float y) {
-                if (!game.player.settings.muteSfx) rm.buttonclick1.play(game.player.settings.sfxVolume);
+                rm.audio.play(rm.buttonclick1);
                 if (currentItem != null) {
                     new Dialog("Sell", rm.dialogSkin) {
                         {
@@ -548,11 +707,11 @@ public class InventoryUI extends UI {
 
                         @Override
                         protected void result(Object object) {
-                            if (!game.player.settings.muteSfx) rm.buttonclick2.play(game.player.settings.sfxVolume);
+                            rm.audio.play(rm.buttonclick2);
                             if (object.equals("yes")) {
                                 player.addGold(currentItem.sell);
-                                player.inventory.items[currentItem.index].actor.remove();
-                                player.inventory.removeItem(currentItem.index);
+                                shown().items[currentItem.index].removeActor();
+                                removeFromPage(currentItem);
                                 unselectItem();
                                 updateText();
                                 game.save.save();
@@ -584,15 +743,16 @@ public class InventoryUI extends UI {
             }
             @Override
             protected void result(Object object) {
-                if (!game.player.settings.muteSfx) rm.buttonclick2.play(game.player.settings.sfxVolume);
+                rm.audio.play(rm.buttonclick2);
                 if (object.equals("yes")) {
                     item.bonusEnchantChance = scroll.eChance;
-                    scroll.actor.remove();
-                    player.inventory.removeItem(scroll.index);
+                    item.version++;
+                    scroll.removeActor();
+                    removeFromPage(scroll);
                     if (inMenu) game.save.save();
                 }
                 else {
-                    player.inventory.addItemAtIndex(scroll, scroll.index);
+                    shown().addItemAtIndex(scroll, scroll.index);
                 }
             }
         }.show(stage).getTitleLabel().setAlignment(Align.center);
@@ -630,6 +790,7 @@ public class InventoryUI extends UI {
         // 50% success plus bonus enchant chance from scroll
         if (Util.isSuccess(Util.ENCHANT + currentItem.bonusEnchantChance)) {
             currentItem.enchant();
+            shown().reindex(currentItem);
             player.stats.numEnchants++;
             game.save.save();
             // update item tooltip
@@ -647,7 +808,7 @@ public class InventoryUI extends UI {
 
                 @Override
                 protected void result(Object object) {
-                    if (!game.player.settings.muteSfx) rm.buttonclick2.play(game.player.settings.sfxVolume);
+                    rm.audio.play(rm.buttonclick2);
                     tooltip.setVisible(true);
                     invButtonLabels[0].setText("ENCHANT FOR\n" + currentItem.enchantCost + " g");
                     invButtonLabels[1].setText("SELL FOR\n" + currentItem.sell + " g");
@@ -672,9 +833,9 @@ public class InventoryUI extends UI {
 
                     @Override
                     protected void result(Object object) {
-                        if (!game.player.settings.muteSfx) rm.buttonclick2.play(game.player.settings.sfxVolume);
-                        player.inventory.items[currentItem.index].actor.remove();
-                        player.inventory.removeItem(currentItem.index);
+                        rm.audio.play(rm.buttonclick2);
+                        shown().items[currentItem.index].removeActor();
+                        removeFromPage(currentItem);
                         unselectItem();
                     }
 
@@ -694,7 +855,7 @@ public class InventoryUI extends UI {
 
                     @Override
                     protected void result(Object object) {
-                        if (!game.player.settings.muteSfx) rm.buttonclick2.play(game.player.settings.sfxVolume);
+                        rm.audio.play(rm.buttonclick2);
                         tooltip.setVisible(true);
                     }
 
@@ -726,13 +887,13 @@ public class InventoryUI extends UI {
 
             @Override
             protected void result(Object object) {
-                if (!game.player.settings.muteSfx) rm.buttonclick2.play(game.player.settings.sfxVolume);
+                rm.audio.play(rm.buttonclick2);
                 if (object.equals("yes")) {
                     if (currentItem.hp < 0) player.percentagePotion(-currentItem.hp);
                     else if (currentItem.exp > 0) player.addExp((int) ((currentItem.exp / 100f) * player.getMaxExp()));
                     else player.potion(currentItem.hp);
-                    player.inventory.items[currentItem.index].actor.remove();
-                    player.inventory.removeItem(currentItem.index);
+                    shown().items[currentItem.index].removeActor();
+                    removeFromPage(currentItem);
                     unselectItem();
                     updateText();
                     if (inMenu) game.save.save();
@@ -742,6 +903,143 @@ public class InventoryUI extends UI {
         }.show(stage).getTitleLabel().setAlignment(Align.center);
     }
 
+    /**
+     * Shows another page of the inventory
+     * Page 0 is the inventory and the pages after it are the stash
+     *
+     * @param page
+     */
+    public void setPage(int page) {
+        page = Math.max(0, Math.min(numPages() - 1, page));
+        if (page == this.page) return;
+
+        unselectItem();
+        removePageActors();
+        this.page = page;
+        laidOutSlots.clear();
+        for (int i = pageStart(); i < pageEnd(); i++) {
+            Item item = shown().getItem(i);
+            if (item != null) {
+                stage.addActor(item.getActor());
+                addInventoryEvent(item);
+            }
+        }
+        applyFilter();
+        updatePageLabels();
+    }
+
+    /**
+     * Moves an item that is being dragged into the first open slot of another page
+     * It goes back to its slot if that page is full
+     *
+     * @param item
+     * @param page
+     */
+    private void moveToPage(Item item, int page) {
+        if (page < 0 || page >= numPages()) {
+            shown().addItemAtIndex(item, item.index);
+            return;
+        }
+        Inventory to = page == 0 ? player.inventory : player.stash;
+        int start = page == 0 ? 0 : (page - 1) * PAGE_SIZE;
+        if (to.addItem(item, start, Math.min(to.capacity, start + PAGE_SIZE))) {
+            item.removeActor();
+            item.getActor().setVisible(true);
+            laidOutSlots.remove(item, -1);
+        }
+        else {
+            shown().addItemAtIndex(item, item.index);
+        }
+    }
+
+    private void updatePageLabels() {
+        headers[2].setText(page == 0 ? "INVENTORY" : "STASH " + page + "/" + (numPages() - 1));
+        prevPage.setColor(1, 1, 1, page > 0 ? 1 : 0.4f);
+        nextPage.setColor(1, 1, 1, page < numPages() - 1 ? 1 : 0.4f);
+    }
+
+    /**
+     * Rearranges the current page's inventory in a sort order of InventoryIndex
+     * Only the actors of items that end up in a different slot are moved
+     *
+     * @param sort
+     */
+    public void sortInventory(int sort) {
+        unselectItem();
+        // sorting the stash can move items between its pages
+        removePageActors();
+        query.reset().sort = sort;
+        shown().indexes.find(query, queryResult);
+        shown().arrange(queryResult);
+        addInventory();
+        handleInventoryEvents();
+        if (inMenu) game.save.save();
+    }
+
+    /**
+     * Only shows the items matching a query such as only rings or items named "scroll"
+     * Passing null shows every item again
+     *
+     * @param filter
+     */
+    public void filterInventory(InventoryIndex.Query filter) {
+        unselectItem();
+        if (filter == null) {
+            for (int i = pageStart(); i < pageEnd(); i++) {
+                Item item = shown().getItem(i);
+                if (item != null) item.getActor().setVisible(true);
+            }
+            return;
+        }
+        shown().indexes.find(filter, queryResult);
+        for (int i = pageStart(); i < pageEnd(); i++) {
+            Item item = shown().getItem(i);
+            if (item != null) item.getActor().setVisible(false);
+        }
+        for (int i = 0; i < queryResult.size; i++) {
+            Item item = queryResult.get(i);
+            if (item.index >= pageStart() && item.index < pageEnd()) item.getActor().setVisible(true);
+        }
+    }
+
+    /**
+     * Removes an item from the current page and forgets where its actor was laid out
+     * so the actor is moved back if the item returns to the same slot
+     *
+     * @param item
+     */
+    private void removeFromPage(Item item) {
+        shown().removeItem(item);
+        laidOutSlots.remove(item, -1);
+    }
+
+    /**
+     * The inventory the current page is part of
+     */
+    private Inventory shown() {
+        return page == 0 ? player.inventory : player.stash;
+    }
+
+    private int numPages() {
+        return 1 + (player.stash.capacity + PAGE_SIZE - 1) / PAGE_SIZE;
+    }
+
+    private int pageStart() {
+        return page == 0 ? 0 : (page - 1) * PAGE_SIZE;
+    }
+
+    private int pageEnd() {
+        return Math.min(shown().capacity, pageStart() + PAGE_SIZE);
+    }
+
+    /**
+     * Returns whether a stage position is over a visible label
+     */
+    private boolean over(Label label, int x, int y) {
+        return label.isVisible() && x >= label.getX() && x < label.getX() + label.getWidth()
+            && y >= label.getY() && y < label.getY() + label.getHeight();
+    }
+
     private void unselectItem() {
         itemSelected = false;
         currentItem = null;
@@ -775,7 +1073,7 @@ public class InventoryUI extends UI {
                 7 + (player.equips.positions[item.type - 2].y - 2));
         }
         else {
-            int i = item.index;
+            int i = item.index - pageStart();
             int x = i % NUM_COLS;
             int y = i / NUM_COLS;
             ret.set(91 + (x * 16), 63 - (y * 16));
@@ -793,13 +1091,13 @@ public class InventoryUI extends UI {
      * @return
      */
     private int getHoveredIndex(int x, int y) {
-        for (int i = 0; i < Inventory.NUM_SLOTS; i++) {
+        for (int i = 0; i < pageEnd() - pageStart(); i++) {
             int xx = i % NUM_COLS;
             int yy = i / NUM_COLS;
             if (x >= 90 + (xx * SLOT_WIDTH) && x < 90 + (xx * SLOT_WIDTH) + SLOT_WIDTH &&
                     y >= 57 - (yy * SLOT_HEIGHT) && y < 57 - (yy * SLOT_HEIGHT) + SLOT_HEIGHT)
             {
-                return i;
+                return pageStart() + i;
             }
         }
         // outside of inventory range
@@ -827,6 +1125,7 @@ public class InventoryUI extends UI {
         updateText();
         addInventory();
         addEquips();
+        applyFilter();
 
         handleInventoryEvents();
     }
@@ -924,15 +1223,27 @@ public class InventoryUI extends UI {
                 invButtons[i].setPosition(ui.getX() + 84 + (i * 48), ui.getY() + 74);
                 invButtonLabels[i].setPosition(ui.getX() + 84 + (i * 48), ui.getY() + 74);
             }
+            sortLabel.setPosition(ui.getX() + 84, ui.getY() + 89);
+            filterLabel.setPosition(ui.getX() + 118, ui.getY() + 89);
+            findLabel.setPosition(ui.getX() + 158, ui.getY() + 89);
+            prevPage.setPosition(ui.getX() + 118, ui.getY() + 94);
+            nextPage.setPosition(ui.getX() + 128, ui.getY() + 94);
 
             if (!dragging) {
                 // update inventory positions
-                for (int i = 0; i < Inventory.NUM_SLOTS; i++) {
-                    Item item = player.inventory.getItem(i);
-                    int x = i % NUM_COLS;
-                    int y = i / NUM_COLS;
-                    if (item != null) {
-                        item.actor.setPosition(ui.getX() + 86 + (x * 16), ui.getY() + (58 - (y * 16)));
+                // everything moves with the ui otherwise only items that changed slots do
+                if (ui.getX() != layoutX || ui.getY() != layoutY) {
+                    laidOutSlots.clear();
+                    layoutX = ui.getX();
+                    layoutY = ui.getY();
+                }
+                for (int i = pageStart(); i < pageEnd(); i++) {
+                    Item item = shown().getItem(i);
+                    if (item != null && laidOutSlots.get(item, -1) != i) {
+                        int x = (i - pageStart()) % NUM_COLS;
+                        int y = (i - pageStart()) / NUM_COLS;
+                        item.getActor().setPosition(ui.getX() + 86 + (x * 16), ui.getY() + (58 - (y * 16)));
+                        laidOutSlots.put(item, i);
                     }
                 }
                 // update equips positions
@@ -940,7 +1251,7 @@ public class InventoryUI extends UI {
                     float x = player.equips.positions[i].x;
                     float y = player.equips.positions[i].y;
                     if (player.equips.getEquipAt(i) != null) {
-                        player.equips.getEquipAt(i).actor.setPosition(ui.getX() + x, ui.getY() + y);
+                        player.equips.getEquipAt(i).getActor().setPosition(ui.getX() + x, ui.getY() + y);
                     }
                 }
             }
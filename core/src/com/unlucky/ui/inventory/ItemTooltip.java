@@ -1,11 +1,13 @@
 package com.unlucky.ui.inventory;
 
 import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.scenes.scene2d.Touchable;
 import com.badlogic.gdx.scenes.scene2d.ui.Label;
 import com.badlogic.gdx.scenes.scene2d.ui.Skin;
 import com.badlogic.gdx.scenes.scene2d.ui.Window;
 import com.badlogic.gdx.utils.Align;
+import com.unlucky.inventory.EnchantCalculator;
 import com.unlucky.inventory.Item;
 
 /**
@@ -81,7 +83,15 @@ public class ItemTooltip extends Window {
                 break;
         }
         this.getTitleLabel().setText(item.labelName);
-        desc.setText(item.getFullDesc());
+        String text = item.getFullDesc();
+        // equips show what it takes to enchant them to their next rarity
+        if (item.type >= 2 && item.type <= 9) {
+            EnchantCalculator.Odds odds = EnchantCalculator.get(item);
+            text += "\n\nTO +" + odds.target + ": ~" + MathUtils.round(odds.goldFactor * item.enchantCost) + " G";
+            if (odds.scrolls > 0) text += ", " + MathUtils.round(odds.scrolls * 10) / 10f + " MORE SCROLLS";
+            text += "\n" + MathUtils.round(odds.destroyChance * 100) + "% CHANCE TO DESTROY";
+        }
+        desc.setText(text);
 
         pack();
     }
@@ -0,0 +1,98 @@
+package com.unlucky;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+import com.badlogic.gdx.graphics.GL20;
+import com.unlucky.main.Unlucky;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.IntBuffer;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the game without a window for tests
+ *
+ * The headless backend has no OpenGL so every GL call does nothing except
+ * create ids and report shaders as compiled and linked, which lets the game
+ * create its textures, batches and stages.
+ *
+ * @author Ming Li
+ */
+public class Headless {
+
+    /**
+     * Starts the game on its own thread and waits until the menu is shown
+     * The game is stopped with Gdx.app.exit()
+     *
+     * @param timeout in ms
+     * @return the game or null if the menu wasn't shown in time
+     * @throws InterruptedException
+     */
+    public static Unlucky boot(long timeout) throws InterruptedException {
+        final CountDownLatch menuShown = new CountDownLatch(1);
+        Unlucky game = new Unlucky() {
+            @Override
+            public void render() {
+                super.render();
+                if (startup.isFinished()) menuShown.countDown();
+            }
+        };
+
+        Gdx.gl = Gdx.gl20 = createGL();
+        new HeadlessApplication(game, new HeadlessApplicationConfiguration());
+        return menuShown.await(timeout, TimeUnit.MILLISECONDS) ? game : null;
+    }
+
+    /**
+     * Runs a task on the game thread and waits for it to finish
+     * so it doesn't race with the game updating itself
+     *
+     * @param task
+     * @throws InterruptedException
+     */
+    public static void run(final Runnable task) throws InterruptedException {
+        final CountDownLatch done = new CountDownLatch(1);
+        Gdx.app.postRunnable(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    task.run();
+                } finally {
+                    done.countDown();
+                }
+            }
+        });
+        done.await();
+    }
+
+    private static GL20 createGL() {
+        return (GL20) Proxy.newProxyInstance(GL20.class.getClassLoader(), new Class<?>[] { GL20.class },
+            new InvocationHandler() {
+                private int nextId = 1;
+
+                @Override
+                public Object invoke(Object proxy, Method method, Object[] args) {
+                    String name = method.getName();
+                    Class<?> type = method.getReturnType();
+                    if (name.equals("glGetShaderiv") || name.equals("glGetProgramiv")) {
+                        int pname = (Integer) args[1];
+                        if (pname == GL20.GL_COMPILE_STATUS || pname == GL20.GL_LINK_STATUS) {
+                            ((IntBuffer) args[2]).put(0, 1);
+                        }
+                    }
+                    if (type == int.class) {
+                        return name.startsWith("glGen") || name.startsWith("glCreate") ? nextId++ : 0;
+                    }
+                    if (type == boolean.class) return false;
+                    if (type == float.class) return 0f;
+                    if (type == String.class) return "";
+                    return null;
+                }
+            });
+    }
+
+}
@@ -0,0 +1,31 @@
+package com.unlucky.main;
+
+import com.badlogic.gdx.Gdx;
+import com.unlucky.Headless;
+import com.unlucky.resource.StartupProfiler;
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+
+/**
+ * Boots the game from nothing to the menu and fails if it takes longer than the startup budget
+ * The test working directory is emptied before each run so there are no saves to load
+ *
+ * @author Ming Li
+ */
+public class StartupTest {
+
+    // max time to wait for the menu before giving up in ms
+    private static final long TIMEOUT = 20 * StartupProfiler.BUDGET;
+
+    @Test
+    public void coldStartIsWithinBudget() throws InterruptedException {
+        Unlucky game = Headless.boot(TIMEOUT);
+        Gdx.app.exit();
+
+        assertNotNull("The menu was not shown after " + TIMEOUT + " ms", game);
+        assertFalse(game.startup.getReport(), game.startup.isOverBudget());
+    }
+
+}
@@ -0,0 +1,143 @@
+package com.unlucky.map;
+
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Vector2;
+import com.unlucky.animation.AnimationManager;
+import com.unlucky.map.component.EncounterComponent;
+import com.unlucky.map.component.Mappers;
+import com.unlucky.map.component.PositionComponent;
+import com.unlucky.map.component.RoamComponent;
+import com.unlucky.map.component.TileAnimationComponent;
+import com.unlucky.map.component.WeatherComponent;
+import com.unlucky.map.system.EncounterSystem;
+import com.unlucky.map.system.RoamSystem;
+import com.unlucky.map.system.TileAnimationSystem;
+import com.unlucky.map.system.WeatherSystem;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Runs the map systems on an engine without a map file, assets or a GL context
+ *
+ * @author Ming Li
+ */
+public class MapSystemsTest {
+
+    private static final int SIZE = 20;
+    private static final int TILE = 16;
+    private static final float DT = 1 / 60f;
+
+    private Engine engine;
+    private EncounterSystem encounters;
+    private boolean[] walkable;
+
+    @Before
+    public void createEngine() {
+        MathUtils.random.setSeed(34);
+        walkable = new boolean[SIZE * SIZE];
+        Arrays.fill(walkable, true);
+        engine = new Engine();
+        encounters = new EncounterSystem(SIZE * TILE, SIZE * TILE, TILE * 4);
+        engine.addSystem(encounters);
+        engine.addSystem(new RoamSystem(SIZE, SIZE, TILE, walkable));
+        engine.addSystem(new TileAnimationSystem());
+        engine.addSystem(new WeatherSystem());
+    }
+
+    @Test
+    public void encountersAreFoundUntilRemoved() {
+        Entity enemy = addEnemy(3, 4, false);
+        assertSame(enemy, encounters.find(3 * TILE, 4 * TILE, TILE / 2f));
+        assertNull(encounters.find(8 * TILE, 4 * TILE, TILE / 2f));
+
+        engine.removeEntity(enemy);
+        assertNull(encounters.find(3 * TILE, 4 * TILE, TILE / 2f));
+    }
+
+    @Test
+    public void roamersStayNearHomeAndCanBeFoundWhileMoving() {
+        Entity enemy = addEnemy(10, 10, true);
+        Vector2 position = Mappers.position.get(enemy).position;
+        boolean moved = false;
+        for (int i = 0; i < 60 * 60; i++) {
+            engine.update(DT);
+            moved |= position.x != 10 * TILE || position.y != 10 * TILE;
+            assertTrue(Math.abs(position.x / TILE - 10) <= 3 && Math.abs(position.y / TILE - 10) <= 3);
+            // the spatial hash follows every step
+            assertSame(enemy, encounters.find(position.x, position.y, TILE / 2f));
+        }
+        assertTrue(moved);
+    }
+
+    @Test
+    public void roamersOnlyWalkOnWalkableTiles() {
+        Arrays.fill(walkable, false);
+        walkable[10 * SIZE + 10] = true;
+        Entity enemy = addEnemy(10, 10, true);
+        for (int i = 0; i < 60 * 30; i++) engine.update(DT);
+        assertEquals(new Vector2(10 * TILE, 10 * TILE), Mappers.position.get(enemy).position);
+    }
+
+    @Test
+    public void enemiesWithoutRoamingStayInPlace() {
+        Entity boss = addEnemy(5, 5, false);
+        for (int i = 0; i < 60 * 30; i++) engine.update(DT);
+        assertEquals(new Vector2(5 * TILE, 5 * TILE), Mappers.position.get(boss).position);
+    }
+
+    @Test
+    public void tileAnimationsAdvance() {
+        TextureRegion[][] frames = { { new TextureRegion(), new TextureRegion() } };
+        AnimationManager anim = new AnimationManager(frames, 2, 0, 0.5f);
+        engine.addEntity(new Entity().add(new TileAnimationComponent(anim)));
+
+        TextureRegion first = anim.getKeyFrame(true);
+        // the first update starts the animation
+        engine.update(0.5f);
+        engine.update(0.5f);
+        assertNotSame(first, anim.getKeyFrame(true));
+    }
+
+    @Test
+    public void thunderstormsFlashPeriodically() {
+        WeatherComponent weather = new WeatherComponent(null);
+        weather.type = WeatherType.THUNDERSTORM;
+        engine.addEntity(new Entity().add(weather));
+
+        float time = 0;
+        while (time < WeatherSystem.LIGHTNING_INTERVAL - 0.1f) {
+            engine.update(DT);
+            time += DT;
+            assertFalse(weather.flashing);
+        }
+        boolean flashed = false;
+        for (int i = 0; i < 60; i++) {
+            engine.update(DT);
+            flashed |= weather.flashing;
+        }
+        assertTrue(flashed);
+        assertFalse(weather.flashing);
+    }
+
+    private Entity addEnemy(int tileX, int tileY, boolean roams) {
+        Entity enemy = new Entity();
+        enemy.add(new PositionComponent(tileX * TILE, tileY * TILE));
+        enemy.add(new EncounterComponent(0, null));
+        if (roams) enemy.add(new RoamComponent(tileX, tileY));
+        engine.addEntity(enemy);
+        return enemy;
+    }
+
+}
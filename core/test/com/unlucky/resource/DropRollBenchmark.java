@@ -0,0 +1,103 @@
+package com.unlucky.resource;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.TimeUtils;
+import com.unlucky.Headless;
+import com.unlucky.inventory.Item;
+import com.unlucky.main.Unlucky;
+import org.junit.Test;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Measures how many drop rolls per second the item pool can do
+ *
+ * The index roll picks an item from the per level index without creating it,
+ * which is the part the index made constant time. The other rolls also copy
+ * the rolled item into a new Item like the game does. Levels cycle through
+ * every level the pool has items for. The average of each is printed for every
+ * round and the first rounds warm up the JIT.
+ *
+ * @author Ming Li
+ */
+public class DropRollBenchmark {
+
+    private static final long TIMEOUT = 60000;
+    private static final int ROUNDS = 3;
+    private static final int INDEX_ROLLS = 50000000;
+    private static final int ITEM_ROLLS = 1000000;
+    // levels cycled through by the rolls
+    private static final int LEVELS = 32;
+
+    // items rolled by each kind of roll in the last round
+    private int indexHits;
+    private int itemHits;
+    private int lootHits;
+
+    @Test
+    public void dropRolls() throws InterruptedException {
+        final Unlucky game = Headless.boot(TIMEOUT);
+        assertNotNull("The menu was not shown after " + TIMEOUT + " ms", game);
+
+        Headless.run(new Runnable() {
+            @Override
+            public void run() {
+                benchmark(game.rm);
+            }
+        });
+        Gdx.app.exit();
+
+        assertTrue(indexHits > 0);
+        assertTrue(itemHits > 0);
+        assertTrue(lootHits > 0);
+    }
+
+    private void benchmark(ResourceManager rm) {
+        int rarities = rm.items.size;
+        for (int round = 0; round < ROUNDS; round++) {
+            // picking an index is all the roll does besides creating the item
+            indexHits = 0;
+            long sum = 0;
+            long start = TimeUtils.nanoTime();
+            for (int i = 0; i < INDEX_ROLLS; i++) {
+                int[] candidates = rm.getItemIndexes(i % rarities, i % LEVELS);
+                if (candidates.length == 0) continue;
+                sum += candidates[MathUtils.random(candidates.length - 1)];
+                indexHits++;
+            }
+            report(round, "index", INDEX_ROLLS, TimeUtils.timeSinceNanos(start), sum);
+
+            itemHits = 0;
+            start = TimeUtils.nanoTime();
+            for (int i = 0; i < ITEM_ROLLS; i++) {
+                if (rm.getItem(i % rarities, i % LEVELS) != null) itemHits++;
+            }
+            report(round, "getItem", ITEM_ROLLS, TimeUtils.timeSinceNanos(start), itemHits);
+
+            start = TimeUtils.nanoTime();
+            for (int i = 0; i < ITEM_ROLLS; i++) {
+                Item item = rm.getRandomItemFromPool();
+                sum += item.type;
+            }
+            report(round, "getRandomItemFromPool", ITEM_ROLLS, TimeUtils.timeSinceNanos(start), sum);
+
+            lootHits = 0;
+            start = TimeUtils.nanoTime();
+            for (int i = 0; i < ITEM_ROLLS; i++) {
+                if (rm.loot.roll(LootTable.NORMAL, 0, i % LEVELS) != null) lootHits++;
+            }
+            report(round, "loot.roll", ITEM_ROLLS, TimeUtils.timeSinceNanos(start), lootHits);
+        }
+    }
+
+    /**
+     * @param check printed so the rolls can't be optimized away
+     */
+    private static void report(int round, String roll, int rolls, long nanos, long check) {
+        System.out.println("Drop rolls round " + round + ", " + roll + ": " +
+            (long) (rolls / (nanos / 1e9)) + " rolls/s (" + check + ")");
+    }
+
+}
@@ -0,0 +1,96 @@
+package com.unlucky.resource;
+
+import com.badlogic.gdx.math.MathUtils;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks UniformSum has the same distribution as the per level loops it replaced
+ * with a chi-squared test of both sets of samples
+ *
+ * Each case is a range drawn once per level somewhere in the game and is
+ * tested for a few levels. The random generator is seeded so the test always
+ * draws the same samples.
+ *
+ * @author Ming Li
+ */
+public class UniformSumTest {
+
+    // min and max of every range drawn per level in the game
+    private static final int[][] RANGES = {
+        // battle gold
+        { 1, 3 },
+        // question mark and exclamation mark tiles
+        { 7, 13 }, { 2, 5 }, { 1, 4 }, { 4, 9 },
+        // enemy damage growth
+        { Util.ENEMY_MIN_DMG_INCREASE, Util.ENEMY_MAX_DMG_INCREASE }, { 0, 2 },
+        // boss damage growth
+        { 2, 4 }, { 0, 1 }, { 1, 2 }, { 2, 3 }
+    };
+    private static final int[] LEVELS = { 2, 5, 20 };
+    private static final int SAMPLES = 100000;
+
+    // bins are merged until both samples expect at least this many in each
+    private static final int MIN_EXPECTED = 10;
+    // standard normal quantile of the significance level 0.001
+    private static final double Z = 3.09;
+
+    @Before
+    public void seed() {
+        MathUtils.random.setSeed(31);
+    }
+
+    @Test
+    public void sumsMatchLoops() {
+        for (int[] range : RANGES) {
+            for (int k : LEVELS) {
+                int min = range[0], max = range[1];
+                int[] loop = new int[k * (max - min) + 1];
+                int[] sum = new int[loop.length];
+                for (int i = 0; i < SAMPLES; i++) {
+                    int s = 0;
+                    for (int j = 0; j < k; j++) s += MathUtils.random(min, max);
+                    loop[s - k * min]++;
+                    sum[UniformSum.random(k, min, max) - k * min]++;
+                }
+
+                double[] result = chiSquared(loop, sum);
+                assertTrue("k: " + k + ", range: " + min + "-" + max + ", chi-squared: " + result[0] +
+                    ", critical: " + result[1], result[0] <= result[1]);
+            }
+        }
+    }
+
+    /**
+     * Two sample chi-squared statistic of equal sized samples
+     *
+     * @param a counts of each outcome
+     * @param b counts of each outcome
+     * @return the statistic and its critical value
+     */
+    private static double[] chiSquared(int[] a, int[] b) {
+        double stat = 0;
+        int bins = 0;
+        int ca = 0, cb = 0;
+        for (int i = 0; i < a.length; i++) {
+            ca += a[i];
+            cb += b[i];
+            // merge bins with too few samples into the next one
+            if ((ca + cb) / 2.0 < MIN_EXPECTED && i < a.length - 1) continue;
+            if (ca + cb > 0) {
+                stat += (double) (ca - cb) * (ca - cb) / (ca + cb);
+                bins++;
+            }
+            ca = cb = 0;
+        }
+
+        // Wilson-Hilferty approximation of the chi-squared quantile
+        int df = Math.max(1, bins - 1);
+        double c = 2.0 / (9 * df);
+        double critical = df * Math.pow(1 - c + Z * Math.sqrt(c), 3);
+        return new double[] { stat, critical };
+    }
+
+}
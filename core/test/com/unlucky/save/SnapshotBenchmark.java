@@ -0,0 +1,120 @@
+package com.unlucky.save;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.utils.IntMap;
+import com.badlogic.gdx.utils.TimeUtils;
+import com.unlucky.Headless;
+import com.unlucky.entity.Player;
+import com.unlucky.inventory.Equipment;
+import com.unlucky.inventory.Item;
+import com.unlucky.main.Unlucky;
+import com.unlucky.resource.ResourceManager;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Compares encoding a full snapshot of the player on every save with encoding
+ * only the sections that changed since the last save
+ *
+ * Each save only changes the player's gold like most saves in the game.
+ * The average time per save is printed for every round and the first rounds
+ * warm up the JIT. After each round every section of the player is changed and
+ * the incremental entries must match a full encoding.
+ *
+ * @author Ming Li
+ */
+public class SnapshotBenchmark {
+
+    private static final long TIMEOUT = 60000;
+    private static final int ROUNDS = 3;
+    private static final int SAVES = 20000;
+
+    private final boolean[] matched = new boolean[ROUNDS];
+
+    @Test
+    public void incrementalSnapshotsMatchFullSnapshots() throws InterruptedException {
+        final Unlucky game = Headless.boot(TIMEOUT);
+        assertNotNull("The menu was not shown after " + TIMEOUT + " ms", game);
+
+        // the game updates the player's stats every frame so the benchmark runs between frames
+        Headless.run(new Runnable() {
+            @Override
+            public void run() {
+                benchmark(game.player, game.rm);
+            }
+        });
+        Gdx.app.exit();
+
+        for (int round = 0; round < ROUNDS; round++) {
+            assertTrue("Incremental snapshot differs from a full snapshot after round " + round, matched[round]);
+        }
+    }
+
+    private void benchmark(Player player, ResourceManager rm) {
+        fill(player, rm);
+        PlayerAccessor incremental = new PlayerAccessor();
+        IntMap<byte[]> entries = null;
+
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = TimeUtils.nanoTime();
+            for (int i = 0; i < SAVES; i++) {
+                player.setGold(i);
+                PlayerAccessor full = new PlayerAccessor();
+                full.load(player);
+                SaveFormat.encode(full, rm);
+            }
+            long fullNanos = TimeUtils.timeSinceNanos(start);
+
+            start = TimeUtils.nanoTime();
+            for (int i = 0; i < SAVES; i++) {
+                player.setGold(i);
+                incremental.load(player);
+                entries = SaveFormat.encode(incremental, rm, entries);
+            }
+            long incrementalNanos = TimeUtils.timeSinceNanos(start);
+
+            System.out.println("Snapshot round " + round +
+                ", full: " + fullNanos / SAVES / 1000f + " us" +
+                ", incremental: " + incrementalNanos / SAVES / 1000f + " us");
+
+            // change every section
+            player.inventory.getItem(3).enchant();
+            player.inventory.removeItem(5);
+            player.inventory.addItemAtIndex(rm.getRandomItemFromPool(), 5);
+            player.equips.equips[round].enchant();
+            player.stats.numSteps++;
+            player.settings.showFps = !player.settings.showFps;
+
+            incremental.load(player);
+            entries = SaveFormat.encode(incremental, rm, entries);
+            PlayerAccessor full = new PlayerAccessor();
+            full.load(player);
+            matched[round] = same(SaveFormat.encode(full, rm), entries);
+        }
+    }
+
+    /**
+     * Fills every inventory and equip slot with random items
+     */
+    private void fill(Player player, ResourceManager rm) {
+        while (!player.inventory.isFull()) player.inventory.addItem(rm.getRandomItemFromPool());
+        int equipped = 0;
+        while (equipped < Equipment.NUM_SLOTS) {
+            Item item = rm.getRandomItemFromPool();
+            if (item.type >= 2 && item.type <= 9 && player.equips.addEquip(item)) equipped++;
+        }
+    }
+
+    private static boolean same(IntMap<byte[]> a, IntMap<byte[]> b) {
+        if (a.size != b.size) return false;
+        for (IntMap.Entry<byte[]> e : a.entries()) {
+            if (!Arrays.equals(e.value, b.get(e.key))) return false;
+        }
+        return true;
+    }
+
+}